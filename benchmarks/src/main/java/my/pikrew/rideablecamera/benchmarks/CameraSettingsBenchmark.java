@@ -0,0 +1,70 @@
+package my.pikrew.rideablecamera.benchmarks;
+
+import my.pikrew.rideablecamera.config.ConfigManager;
+import my.pikrew.rideablecamera.models.CameraSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings lookups done when sessions start and when players change values
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CameraSettingsBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int sessions;
+
+    private ConfigManager configManager;
+    private CameraSettings[] saved;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        configManager = StandIns.configManager(StandIns.snapshot());
+
+        // A handful of distinct player choices, like a real server
+        saved = new CameraSettings[sessions];
+        for (int i = 0; i < sessions; i++) {
+            saved[i] = CameraSettings.of(2.0 + (i % 8) * 0.5, 1.5, 0.0, 0.15);
+        }
+    }
+
+    @Benchmark
+    public void defaultSettings(Blackhole blackhole) {
+        for (int i = 0; i < sessions; i++) {
+            blackhole.consume(configManager.getDefaultCameraSettings());
+        }
+    }
+
+    @Benchmark
+    public void mergeSaved(Blackhole blackhole) {
+        CameraSettings defaults = configManager.getDefaultCameraSettings();
+        for (int i = 0; i < sessions; i++) {
+            blackhole.consume(defaults.withCameraValues(saved[i]));
+        }
+    }
+
+    @Benchmark
+    public void withDistance(Blackhole blackhole) {
+        for (int i = 0; i < sessions; i++) {
+            blackhole.consume(saved[i].withDistance(4.0));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package my.pikrew.rideablecamera.benchmarks;
+
+import my.pikrew.rideablecamera.camera.ICameraImplementation;
+import my.pikrew.rideablecamera.config.CameraProfile;
+import my.pikrew.rideablecamera.models.CameraSession;
+import my.pikrew.rideablecamera.models.CameraSettings;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+/**
+ * Camera implementation whose sessions have no body
+ * Leaves only the camera manager's own work in a tick
+ */
+public class EmptyCamera implements ICameraImplementation {
+
+    private final CameraProfile profile;
+
+    public EmptyCamera(CameraProfile profile) {
+        this.profile = profile;
+    }
+
+    @Override
+    public CameraSession createSession(Player player) {
+        return new CameraSession(player, CameraSettings.DEFAULT, profile);
+    }
+
+    @Override
+    public void updateSession(CameraSession session, Player player) {
+    }
+
+    @Override
+    public void destroySession(CameraSession session) {
+        session.setActive(false);
+    }
+
+    @Override
+    public Location getBodyLocation(CameraSession session) {
+        return null;
+    }
+
+    @Override
+    public String getName() {
+        return "none";
+    }
+}
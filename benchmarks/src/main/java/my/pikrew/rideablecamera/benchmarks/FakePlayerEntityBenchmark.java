@@ -0,0 +1,84 @@
+package my.pikrew.rideablecamera.benchmarks;
+
+import my.pikrew.rideablecamera.nms.FakePlayerEntity;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * FakePlayerEntity.move and rotate broadcast to every viewer
+ * The body goes through the simulated NMS adapter, which sends nothing: what
+ * is measured is the state update and the plugin's accounting of each packet
+ * per viewer, packet encoding and the network are left out
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FakePlayerEntityBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int viewers;
+
+    private SimulatedPlugin plugin;
+    private FakePlayerEntity fakePlayer;
+    private List<Player> viewerList;
+    private Location location;
+    private float yaw;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Logger logger = Logger.getLogger("RideableCamera");
+        SimulatedServer server = new SimulatedServer(logger);
+        server.install();
+        plugin = new SimulatedPlugin(logger);
+
+        viewerList = new ArrayList<>(viewers);
+        for (int i = 0; i < viewers; i++) {
+            viewerList.add(server.join("Viewer" + i, new Location(server.getWorld(), i % 32, 64, i / 32), false));
+        }
+
+        location = new Location(server.getWorld(), 0.5, 64, 0.5);
+        fakePlayer = new FakePlayerEntity(plugin.getPlugin(), location, "Body", new UUID(0L, 2L));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        plugin.shutdown();
+    }
+
+    @Benchmark
+    public void move() {
+        // Back and forth a tenth of a block, always a relative move
+        yaw = (yaw + 1.5F) % 360.0F;
+        location.setX(location.getX() > 0.5 ? 0.5 : 0.6);
+        location.setYaw(yaw);
+        fakePlayer.move(location, true, viewerList);
+    }
+
+    @Benchmark
+    public void rotate() {
+        yaw = (yaw + 1.5F) % 360.0F;
+        fakePlayer.rotate(yaw, 0.0F, viewerList);
+    }
+}
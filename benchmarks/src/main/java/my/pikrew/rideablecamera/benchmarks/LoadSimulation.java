@@ -0,0 +1,141 @@
+package my.pikrew.rideablecamera.benchmarks;
+
+import my.pikrew.rideablecamera.camera.CameraManager;
+import my.pikrew.rideablecamera.camera.impl.FakePlayerCamera;
+import my.pikrew.rideablecamera.metrics.MetricsRegistry;
+import my.pikrew.rideablecamera.nms.adapter.PacketType;
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Headless load simulation
+ * Runs the real CameraManager update task and FakePlayerCamera against a
+ * simulated server with scripted players, and reports tick time, packet
+ * and allocation rates. Packets are counted by the plugin's own metrics,
+ * the simulated NMS adapter reports each one a real body would send.
+ *
+ * Usage:
+ *   java -cp benchmarks/target/benchmarks.jar my.pikrew.rideablecamera.benchmarks.LoadSimulation
+ *        sessions=300 viewers=200 ticks=1200 warmup=400
+ */
+public class LoadSimulation {
+
+    private static final double TICKS_PER_SECOND = 20.0;
+
+    public static void main(String[] args) throws IOException {
+        Map<String, Integer> options = parse(args);
+        int sessions = options.getOrDefault("sessions", 300);
+        int viewers = options.getOrDefault("viewers", 200);
+        int ticks = options.getOrDefault("ticks", 1200);
+        int warmup = options.getOrDefault("warmup", 400);
+
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+
+        Logger logger = Logger.getLogger("RideableCamera");
+        SimulatedServer server = new SimulatedServer(logger);
+        server.install();
+
+        SimulatedPlugin plugin = new SimulatedPlugin(logger);
+        MetricsRegistry metrics = plugin.getMetrics();
+
+        // Viewers stand around, every player in the world sees every camera body
+        for (int i = 0; i < viewers; i++) {
+            server.join("Viewer" + i, new Location(server.getWorld(), (i % 20) * 4 + 2, 64, (i / 20) * 4 + 2), false);
+        }
+
+        CameraManager cameraManager = plugin.createCameraManager(new FakePlayerCamera(plugin.getPlugin()));
+
+        for (int i = 0; i < sessions; i++) {
+            Player player = server.join("Rider" + i,
+                    new Location(server.getWorld(), (i % 20) * 5 + 1, 64, (i / 20) * 5 + 1, i * 13 % 360, 0), true);
+            cameraManager.enableCamera(player);
+        }
+
+        for (int i = 0; i < warmup; i++) {
+            server.tick();
+        }
+
+        // Measure only the steady state
+        metrics.reset();
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] durations = new long[ticks];
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+
+        long stepped = 0;
+        for (int i = 0; i < ticks; i++) {
+            long stepStart = threads.getCurrentThreadAllocatedBytes();
+            server.step();
+            stepped += threads.getCurrentThreadAllocatedBytes() - stepStart;
+
+            long start = System.nanoTime();
+            server.runTasks();
+            durations[i] = System.nanoTime() - start;
+        }
+
+        // Only what the plugin's tasks allocated, not the scripted input
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore - stepped;
+
+        report(sessions, viewers, ticks, durations, allocated, metrics);
+
+        plugin.shutdown();
+    }
+
+    private static void report(int sessions, int viewers, int ticks, long[] durations, long allocated,
+                               MetricsRegistry metrics) {
+        long[] sorted = durations.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(durations).average().orElse(0) / 1000.0;
+        double p99 = sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.99) - 1)] / 1000.0;
+        double max = sorted[sorted.length - 1] / 1000.0;
+
+        long packets = metrics.getPacketsSent();
+        long bytes = metrics.getBytesSent();
+        double seconds = ticks / TICKS_PER_SECOND;
+        double perViewer = Math.max(1, metrics.getViewerPackets().size()) * seconds;
+
+        System.out.println(String.format(Locale.ROOT, "sessions=%d viewers=%d ticks=%d", sessions, viewers, ticks));
+        System.out.println(String.format(Locale.ROOT, "tick: mean %.1f us, p99 %.1f us, max %.1f us (budget 50000 us)",
+                mean, p99, max));
+        for (Map.Entry<String, Double> phase : metrics.getPhaseP99Micros().entrySet()) {
+            System.out.println(String.format(Locale.ROOT, "  phase %s: p99 %.1f us", phase.getKey(), phase.getValue()));
+        }
+        System.out.println(String.format(Locale.ROOT, "packets: %.1f per viewer per second, %d total",
+                packets / perViewer, packets));
+        for (PacketType type : PacketType.values()) {
+            long count = metrics.getPackets(type);
+            if (count > 0) {
+                System.out.println(String.format(Locale.ROOT, "  %s: %d packets, %d bytes",
+                        type.name(), count, metrics.getBytes(type)));
+            }
+        }
+        System.out.println(String.format(Locale.ROOT, "bytes: %.1f KiB per viewer per second, %d total",
+                bytes / perViewer / 1024.0, bytes));
+        System.out.println(String.format(Locale.ROOT, "allocation: %.1f KiB per tick, %.1f MiB per second",
+                allocated / (double) ticks / 1024.0, allocated / seconds / (1024.0 * 1024.0)));
+    }
+
+    private static Map<String, Integer> parse(String[] args) {
+        Map<String, Integer> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(arg.substring(0, split).toLowerCase(Locale.ROOT), Integer.parseInt(arg.substring(split + 1)));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,68 @@
+package my.pikrew.rideablecamera.benchmarks;
+
+import my.pikrew.rideablecamera.controller.MovementController;
+import org.bukkit.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Movement prediction for every session in one tick
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MovementControllerBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int sessions;
+
+    private MovementController[] controllers;
+    private Location[] oldLocations;
+    private Location[] newLocations;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        controllers = new MovementController[sessions];
+        oldLocations = new Location[sessions];
+        newLocations = new Location[sessions];
+
+        for (int i = 0; i < sessions; i++) {
+            controllers[i] = new MovementController();
+            float yaw = (i * 37) % 360;
+            oldLocations[i] = new Location(StandIns.world(), i, 64, i, yaw, 0);
+            // Every other player walks, the rest stand still
+            double step = i % 2 == 0 ? 0.2 : 0.0;
+            newLocations[i] = new Location(StandIns.world(), i + step, 64, i + step, yaw, 0);
+        }
+    }
+
+    @Benchmark
+    public void detectMovement(Blackhole blackhole) {
+        for (int i = 0; i < sessions; i++) {
+            blackhole.consume(controllers[i].detectMovementFromPlayer(oldLocations[i], newLocations[i]));
+        }
+    }
+
+    @Benchmark
+    public void applyMovement(Blackhole blackhole) {
+        for (int i = 0; i < sessions; i++) {
+            blackhole.consume(controllers[i].applyMovement(newLocations[i], newLocations[i].getYaw()));
+        }
+    }
+}
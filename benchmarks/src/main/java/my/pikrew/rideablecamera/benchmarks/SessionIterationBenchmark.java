@@ -0,0 +1,78 @@
+package my.pikrew.rideablecamera.benchmarks;
+
+import my.pikrew.rideablecamera.camera.CameraManager;
+import my.pikrew.rideablecamera.camera.ICameraImplementation;
+import my.pikrew.rideablecamera.camera.impl.FakePlayerCamera;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * One server tick of the camera manager's update task
+ * camera=none has sessions without a body, what every tick costs before a
+ * single entity is moved; camera=fakeplayer runs FakePlayerCamera, with every
+ * other session's owner as a viewer of each body. Includes the simulated
+ * server stepping its scripted players
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SessionIterationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int sessions;
+
+    @Param({"none", "fakeplayer"})
+    public String camera;
+
+    private SimulatedServer server;
+    private SimulatedPlugin plugin;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Logger logger = Logger.getLogger("RideableCamera");
+        logger.setLevel(java.util.logging.Level.WARNING);
+        server = new SimulatedServer(logger);
+        server.install();
+        plugin = new SimulatedPlugin(logger);
+
+        ICameraImplementation implementation = camera.equals("none")
+                ? new EmptyCamera(plugin.getConfigManager().getSnapshot().defaultProfile())
+                : new FakePlayerCamera(plugin.getPlugin());
+        CameraManager cameraManager = plugin.createCameraManager(implementation);
+
+        for (int i = 0; i < sessions; i++) {
+            Player player = server.join("Player" + i,
+                    new Location(server.getWorld(), (i % 32) * 3 + 1, 64, (i / 32) * 3 + 1, i * 37 % 360, 0), true);
+            cameraManager.enableCamera(player);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        plugin.shutdown();
+    }
+
+    @Benchmark
+    public void tick() {
+        server.tick();
+    }
+}
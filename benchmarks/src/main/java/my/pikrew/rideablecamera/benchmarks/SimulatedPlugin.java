@@ -0,0 +1,101 @@
+package my.pikrew.rideablecamera.benchmarks;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.camera.CameraManager;
+import my.pikrew.rideablecamera.camera.ICameraImplementation;
+import my.pikrew.rideablecamera.camera.ProfileManager;
+import my.pikrew.rideablecamera.config.ConfigManager;
+import my.pikrew.rideablecamera.metrics.FlightRecorder;
+import my.pikrew.rideablecamera.metrics.MetricsRegistry;
+import my.pikrew.rideablecamera.nms.BodySnapshots;
+import my.pikrew.rideablecamera.nms.InteractionInterceptor;
+import my.pikrew.rideablecamera.nms.SkinCache;
+import my.pikrew.rideablecamera.path.PathManager;
+import my.pikrew.rideablecamera.recording.RecordingManager;
+import my.pikrew.rideablecamera.storage.PlayerSettingsManager;
+import my.pikrew.rideablecamera.storage.SessionJournal;
+import org.bukkit.Bukkit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.logging.Logger;
+
+/**
+ * Plugin instance wired with just the managers the tick loop needs
+ * Needs the simulated server installed first
+ */
+public class SimulatedPlugin {
+
+    private final RideableCameraPlugin plugin;
+    private final ConfigManager configManager;
+    private final MetricsRegistry metrics;
+    private final SessionJournal journal;
+    private final RecordingManager recordingManager;
+    private CameraManager cameraManager;
+
+    public SimulatedPlugin(Logger logger) throws IOException {
+        File dataFolder = Files.createTempDirectory("rideablecamera-simulation").toFile();
+        this.plugin = StandIns.plugin(logger, dataFolder);
+        this.configManager = StandIns.configManager(StandIns.snapshot());
+        this.metrics = new MetricsRegistry(logger);
+        this.journal = new SessionJournal(new File(dataFolder, "sessions.journal").toPath(), logger);
+
+        set("configManager", configManager);
+        set("metrics", metrics);
+        set("flightRecorder", new FlightRecorder(plugin));
+        set("sessionJournal", journal);
+        journal.open();
+        set("pathManager", new PathManager(plugin));
+        this.recordingManager = new RecordingManager(plugin);
+        set("recordingManager", recordingManager);
+
+        // Settings are never loaded, every player gets the config defaults
+        set("settingsManager", new PlayerSettingsManager(plugin));
+        set("profileManager", new ProfileManager(plugin));
+        set("skinCache", new SkinCache(plugin));
+        set("bodySnapshots", new BodySnapshots(plugin));
+    }
+
+    /**
+     * Create the camera manager and start its update task
+     * @param cameraImpl Camera implementation every session uses
+     * @return Camera manager
+     */
+    public CameraManager createCameraManager(ICameraImplementation cameraImpl) {
+        cameraManager = new CameraManager(plugin, cameraImpl);
+        set("cameraManager", cameraManager);
+        set("interactionInterceptor", new InteractionInterceptor(plugin, cameraManager.getBodyIndex()));
+        cameraManager.startUpdateTask();
+        return cameraManager;
+    }
+
+    /**
+     * End all sessions and stop background work
+     * Cancels the plugin's tasks like Bukkit does on disable
+     */
+    public void shutdown() {
+        if (cameraManager != null) {
+            cameraManager.disableAllCameras();
+        }
+        Bukkit.getScheduler().cancelTasks(plugin);
+        journal.close();
+        recordingManager.shutdown();
+    }
+
+    public RideableCameraPlugin getPlugin() {
+        return plugin;
+    }
+
+    public ConfigManager getConfigManager() {
+        return configManager;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    private void set(String field, Object value) {
+        StandIns.setField(RideableCameraPlugin.class, plugin, field, value);
+    }
+}
@@ -0,0 +1,500 @@
+package my.pikrew.rideablecamera.benchmarks;
+
+import my.pikrew.rideablecamera.nms.simulated.NMSAdapterImpl;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Input;
+import org.bukkit.Location;
+import org.bukkit.Registry;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.EntityEquipment;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Headless stand-in for the server the plugin runs on
+ * One flat world with a grid of pillars for the camera boom to collide
+ * with, players that follow a scripted walk, and a scheduler that runs
+ * the plugin's tasks when the server is ticked. Spawned entities only keep
+ * their location. Fake players go through the simulated NMS adapter, which
+ * only counts their packets. What the stand-ins' proxies allocate for each
+ * call is counted, so it can be told apart from the plugin's own allocations
+ */
+public class SimulatedServer {
+
+    // Release the plugin sees, the adapter is picked by system property
+    private static final String BUKKIT_VERSION = "1.21.4-R0.1-SNAPSHOT";
+
+    // Concrete effect type of the bundled server, PotionEffectType is abstract
+    private static final String EFFECT_TYPE_CLASS = "org.bukkit.craftbukkit.v1_21_R3.potion.CraftPotionEffectType";
+
+    // Top of the ground layer
+    private static final int GROUND_Y = 64;
+
+    private final Logger logger;
+    private final World world;
+    private final Block solid;
+    private final Block air;
+    private final Map<UUID, SimulatedPlayer> players;
+    private final List<Player> online;
+    private final List<Player> onlineView;
+    private final List<Task> tasks;
+    private final EntityEquipment equipment;
+    private final PlayerInventory inventory;
+    private int nextTaskId;
+    private int nextEntityId;
+    private long currentTick;
+
+    // Bytes the proxies allocated for arguments and boxed results (main thread only)
+    private long proxyBytes;
+
+    public SimulatedServer(Logger logger) {
+        this.logger = logger;
+        this.solid = block(false);
+        this.air = block(true);
+        this.world = createWorld(new UUID(0L, 1L), "world");
+        this.players = new HashMap<>();
+        this.online = new ArrayList<>();
+        this.onlineView = Collections.unmodifiableList(online);
+        this.tasks = new ArrayList<>();
+
+        // Every slot is empty and stays empty
+        this.equipment = proxy(EntityEquipment.class, SimulatedServer::defaultValue);
+        this.inventory = proxy(PlayerInventory.class, SimulatedServer::defaultValue);
+    }
+
+    /**
+     * Install this server as the Bukkit server and the simulated NMS adapter
+     * Only possible once per JVM, before the plugin first touches NMS
+     */
+    public void install() {
+        System.setProperty("rideablecamera.nms", NMSAdapterImpl.VERSION);
+
+        BukkitScheduler scheduler = createScheduler();
+        Map<Class<?>, Registry<?>> registries = new HashMap<>();
+        Server server = proxy(Server.class,
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getPlayer" -> args[0] instanceof UUID uuid ? getPlayer(uuid) : null;
+                    case "getWorld" -> args[0] instanceof UUID uuid
+                            ? (uuid.equals(world.getUID()) ? world : null)
+                            : (world.getName().equals(args[0]) ? world : null);
+                    case "getWorlds" -> List.of(world);
+                    case "getOnlinePlayers" -> onlineView;
+                    case "getScheduler" -> scheduler;
+                    case "getRegistry" -> registries.computeIfAbsent((Class<?>) args[0], this::createRegistry);
+                    case "getLogger" -> logger;
+                    case "getName" -> "SimulatedServer";
+                    case "getVersion" -> "simulated";
+                    case "getBukkitVersion" -> BUKKIT_VERSION;
+                    case "isPrimaryThread" -> true;
+                    default -> defaultValue(proxy, method, args);
+                });
+        Bukkit.setServer(server);
+    }
+
+    /**
+     * Add an online player
+     * @param name Player name
+     * @param location Spawn location
+     * @param walking Whether the player follows the scripted walk
+     * @return Player
+     */
+    public Player join(String name, Location location, boolean walking) {
+        UUID uuid = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes());
+        SimulatedPlayer simulated = new SimulatedPlayer(uuid, name, location.clone(), walking, players.size());
+        players.put(uuid, simulated);
+        online.add(simulated.handle);
+        return simulated.handle;
+    }
+
+    /**
+     * Advance the scripted input of every player by one tick
+     * Players move first, like the network is processed before the scheduler
+     */
+    public void step() {
+        currentTick++;
+        for (SimulatedPlayer player : players.values()) {
+            player.step(currentTick);
+        }
+    }
+
+    /**
+     * Run every task due this tick, sync and async alike
+     */
+    public void runTasks() {
+        // Tasks scheduled while running wait for the next tick
+        int count = tasks.size();
+        boolean finished = false;
+        for (int i = 0; i < count; i++) {
+            Task task = tasks.get(i);
+            if (!task.cancelled && task.nextRun <= currentTick) {
+                task.runnable.run();
+                if (task.period > 0) {
+                    task.nextRun = currentTick + task.period;
+                } else {
+                    task.cancelled = true;
+                }
+            }
+            finished |= task.cancelled;
+        }
+
+        if (finished) {
+            tasks.removeIf(task -> task.cancelled);
+        }
+    }
+
+    /**
+     * Run one whole server tick
+     */
+    public void tick() {
+        step();
+        runTasks();
+    }
+
+    /**
+     * Get an online player
+     * @param uuid Player UUID
+     * @return Player or null
+     */
+    public Player getPlayer(UUID uuid) {
+        SimulatedPlayer player = players.get(uuid);
+        return player != null ? player.handle : null;
+    }
+
+    /**
+     * Get the simulated world
+     * @return World
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Get what the stand-ins' proxies allocated so far
+     * Argument arrays and boxed values, sized for compressed references
+     * @return Bytes
+     */
+    public long getProxyBytes() {
+        return proxyBytes;
+    }
+
+    /**
+     * Create a stand-in that counts what each call through it allocates
+     */
+    private <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (args != null) {
+                        // Object[] header and length, then one reference per argument
+                        proxyBytes += (16 + 4L * args.length + 7) & ~7L;
+                        for (Object arg : args) {
+                            proxyBytes += boxedSize(arg);
+                        }
+                    }
+
+                    Object result = handler.invoke(proxy, method, args);
+                    if (method.getReturnType().isPrimitive()) {
+                        proxyBytes += boxedSize(result);
+                    }
+                    return result;
+                }));
+    }
+
+    /**
+     * Size of a boxed primitive, 0 for values the box caches hand out
+     */
+    private static long boxedSize(Object value) {
+        if (value instanceof Float || value instanceof Double) {
+            return 16;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            long number = ((Number) value).longValue();
+            return number >= -128 && number <= 127 ? 0 : 16;
+        }
+        if (value instanceof Character character) {
+            return character <= 127 ? 0 : 16;
+        }
+        return 0;
+    }
+
+    private BukkitScheduler createScheduler() {
+        return proxy(BukkitScheduler.class,
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "runTask", "runTaskAsynchronously" -> schedule(args, 1L, 0L);
+                    case "runTaskLater", "runTaskLaterAsynchronously" -> schedule(args, (long) args[2], 0L);
+                    case "runTaskTimer", "runTaskTimerAsynchronously" ->
+                            schedule(args, (long) args[2], (long) args[3]);
+                    case "cancelTask" -> {
+                        int id = (int) args[0];
+                        tasks.forEach(task -> task.cancelled |= task.id == id);
+                        yield null;
+                    }
+                    case "cancelTasks" -> {
+                        tasks.forEach(task -> task.cancelled = true);
+                        yield null;
+                    }
+                    default -> defaultValue(proxy, method, args);
+                });
+    }
+
+    private BukkitTask schedule(Object[] args, long delay, long period) {
+        if (!(args[1] instanceof Runnable runnable)) {
+            throw new UnsupportedOperationException("Only Runnable tasks are simulated");
+        }
+        Task task = new Task(++nextTaskId, (Plugin) args[0], runnable, currentTick + Math.max(1L, delay), period);
+        tasks.add(task);
+        return task.handle;
+    }
+
+    /**
+     * A registry answering every key, with one shared value for effect types
+     * Bukkit's constant classes look their values up when first loaded
+     */
+    private Registry<?> createRegistry(Class<?> type) {
+        Object value = type == PotionEffectType.class ? effectType() : null;
+        return proxy(Registry.class,
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "get", "getOrThrow", "match" -> value;
+                    case "iterator" -> Collections.emptyIterator();
+                    case "stream" -> Stream.empty();
+                    default -> defaultValue(proxy, method, args);
+                });
+    }
+
+    private static Object effectType() {
+        try {
+            return StandIns.allocate(Class.forName(EFFECT_TYPE_CLASS));
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Bundled server has no " + EFFECT_TYPE_CLASS, e);
+        }
+    }
+
+    private World createWorld(UUID uid, String name) {
+        return proxy(World.class,
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getUID" -> uid;
+                    case "getName" -> name;
+                    case "getMinHeight" -> -64;
+                    case "getMaxHeight" -> 320;
+                    case "isChunkLoaded" -> true;
+                    case "getBlockAt" -> isSolid((int) args[0], (int) args[1], (int) args[2]) ? solid : air;
+                    case "spawnEntity" -> spawnEntity((Location) args[0]);
+                    default -> defaultValue(proxy, method, args);
+                });
+    }
+
+    /**
+     * Spawn an entity that only keeps its location
+     * Every entity is an armor stand, the only kind the plugin spawns
+     */
+    private Entity spawnEntity(Location spawn) {
+        int id = ++nextEntityId;
+        UUID uuid = new UUID(1L, id);
+        Location location = spawn.clone();
+        boolean[] removed = new boolean[1];
+        return proxy(ArmorStand.class,
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getEntityId" -> id;
+                    case "getUniqueId" -> uuid;
+                    case "getLocation" -> args == null ? location.clone() : copy(location, (Location) args[0]);
+                    case "getWorld" -> location.getWorld();
+                    case "teleport" -> {
+                        if (args[0] instanceof Location target) {
+                            copy(target, location);
+                        }
+                        yield true;
+                    }
+                    case "isValid" -> !removed[0];
+                    case "isDead" -> removed[0];
+                    case "getEquipment" -> equipment;
+                    case "getPassengers" -> List.of();
+                    case "remove" -> {
+                        removed[0] = true;
+                        yield null;
+                    }
+                    default -> defaultValue(proxy, method, args);
+                });
+    }
+
+    private static Location copy(Location from, Location out) {
+        if (out == null) {
+            return null;
+        }
+        out.setWorld(from.getWorld());
+        out.setX(from.getX());
+        out.setY(from.getY());
+        out.setZ(from.getZ());
+        out.setYaw(from.getYaw());
+        out.setPitch(from.getPitch());
+        return out;
+    }
+
+    /**
+     * Flat ground with a pillar every 16 blocks
+     */
+    private static boolean isSolid(int x, int y, int z) {
+        if (y < GROUND_Y) {
+            return true;
+        }
+        return (x & 15) == 0 && (z & 15) == 0 && y < GROUND_Y + 6;
+    }
+
+    private Block block(boolean passable) {
+        return proxy(Block.class,
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "isPassable", "isEmpty" -> passable;
+                    default -> defaultValue(proxy, method, args);
+                });
+    }
+
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> proxy.getClass().getInterfaces()[0].getSimpleName();
+            default -> StandIns.defaultValue(method.getReturnType());
+        };
+    }
+
+    /**
+     * A task waiting for its tick
+     */
+    private static class Task {
+
+        private final int id;
+        private final Runnable runnable;
+        private final long period;
+        private final BukkitTask handle;
+        private long nextRun;
+        private boolean cancelled;
+
+        Task(int id, Plugin owner, Runnable runnable, long nextRun, long period) {
+            this.id = id;
+            this.runnable = runnable;
+            this.nextRun = nextRun;
+            this.period = period;
+            this.handle = (BukkitTask) Proxy.newProxyInstance(SimulatedServer.class.getClassLoader(),
+                    new Class<?>[]{BukkitTask.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getTaskId" -> id;
+                        case "getOwner" -> owner;
+                        case "isSync" -> true;
+                        case "isCancelled" -> cancelled;
+                        case "cancel" -> {
+                            cancelled = true;
+                            yield null;
+                        }
+                        default -> defaultValue(proxy, method, args);
+                    });
+        }
+    }
+
+    /**
+     * A player walking in a circle, with pauses
+     * While spectating an entity the player holds their keys but stays
+     * pinned to it, like the server does
+     */
+    private class SimulatedPlayer {
+
+        private final Location location;
+        private final Location targetScratch;
+        private final boolean walking;
+        private final int phase;
+        private final Player handle;
+        private final Input input;
+        private GameMode gameMode;
+        private boolean flying;
+        private boolean forward;
+        private Entity spectatorTarget;
+
+        SimulatedPlayer(UUID uuid, String name, Location location, boolean walking, int phase) {
+            this.location = location;
+            this.targetScratch = new Location(null, 0, 0, 0);
+            this.walking = walking;
+            this.phase = phase;
+            this.gameMode = GameMode.SURVIVAL;
+            this.input = proxy(Input.class,
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "isForward" -> forward;
+                        case "isBackward", "isLeft", "isRight", "isJump", "isSneak", "isSprint" -> false;
+                        default -> defaultValue(proxy, method, args);
+                    });
+            this.handle = proxy(Player.class,
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getUniqueId" -> uuid;
+                        case "getName", "getDisplayName" -> name;
+                        case "getLocation" -> args == null ? location.clone() : copy(location, (Location) args[0]);
+                        case "getEyeLocation" -> location.clone().add(0, 1.62, 0);
+                        case "getWorld" -> location.getWorld();
+                        case "getGameMode" -> gameMode;
+                        case "setGameMode" -> {
+                            gameMode = (GameMode) args[0];
+                            yield null;
+                        }
+                        case "isFlying" -> flying;
+                        case "setFlying" -> {
+                            flying = (boolean) args[0];
+                            yield null;
+                        }
+                        case "teleport" -> {
+                            if (args[0] instanceof Location target) {
+                                copy(target, location);
+                            }
+                            yield true;
+                        }
+                        case "getCurrentInput" -> input;
+                        case "getInventory" -> inventory;
+                        case "getSpectatorTarget" -> spectatorTarget;
+                        case "setSpectatorTarget" -> {
+                            spectatorTarget = (Entity) args[0];
+                            yield null;
+                        }
+                        case "isOnline", "isValid" -> true;
+                        case "hasPermission" -> false;
+                        default -> defaultValue(proxy, method, args);
+                    });
+        }
+
+        /**
+         * Walk for three seconds, stand for one, turning slowly all the time
+         */
+        void step(long tick) {
+            long local = tick + phase * 7L;
+            float yaw = location.getYaw() + (phase % 2 == 0 ? 2.0F : -2.0F);
+            location.setYaw(yaw % 360.0F);
+            location.setPitch((float) (Math.sin(local * 0.05) * 20.0));
+            forward = walking && local % 80 < 60;
+
+            if (spectatorTarget != null) {
+                Location target = spectatorTarget.getLocation(targetScratch);
+                location.setWorld(target.getWorld());
+                location.setX(target.getX());
+                location.setY(target.getY());
+                location.setZ(target.getZ());
+            } else if (forward) {
+                double yawRad = Math.toRadians(yaw);
+                location.add(-Math.sin(yawRad) * 0.2, 0, Math.cos(yawRad) * 0.2);
+            }
+        }
+    }
+}
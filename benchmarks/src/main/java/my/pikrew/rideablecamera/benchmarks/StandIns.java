@@ -0,0 +1,185 @@
+package my.pikrew.rideablecamera.benchmarks;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.config.ConfigManager;
+import my.pikrew.rideablecamera.config.ConfigSnapshot;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Stand-ins for the server objects the benchmarked code touches
+ * Only the handful of methods the hot paths call are answered, everything
+ * else returns a default value
+ */
+public class StandIns {
+
+    private static final World WORLD = world(new UUID(0L, 1L), "world");
+
+    /**
+     * Get the shared stand-in world
+     * @return World
+     */
+    public static World world() {
+        return WORLD;
+    }
+
+    /**
+     * Create a stand-in world
+     * @param uid World UID
+     * @param name World name
+     * @return World
+     */
+    public static World world(UUID uid, String name) {
+        return (World) Proxy.newProxyInstance(StandIns.class.getClassLoader(), new Class<?>[]{World.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getUID" -> uid;
+                    case "getName" -> name;
+                    case "hashCode" -> uid.hashCode();
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "World{" + name + "}";
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    /**
+     * Create a stand-in online player
+     * @param uuid Player UUID
+     * @param name Player name
+     * @param location Player location, returned as a copy like Bukkit does
+     * @return Player
+     */
+    public static Player player(UUID uuid, String name, Location location) {
+        return (Player) Proxy.newProxyInstance(StandIns.class.getClassLoader(), new Class<?>[]{Player.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getUniqueId" -> uuid;
+                    case "getName" -> name;
+                    case "getLocation" -> location.clone();
+                    case "getWorld" -> location.getWorld();
+                    case "getGameMode" -> GameMode.SURVIVAL;
+                    case "isOnline", "isValid" -> true;
+                    case "hashCode" -> uuid.hashCode();
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "Player{" + name + "}";
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    /**
+     * Compile the config snapshot from the bundled config.yml
+     * @return Snapshot
+     */
+    public static ConfigSnapshot snapshot() {
+        try (Reader reader = new InputStreamReader(
+                ConfigManager.class.getResourceAsStream("/config.yml"), StandardCharsets.UTF_8)) {
+            YamlConfiguration config = YamlConfiguration.loadConfiguration(reader);
+            return ConfigSnapshot.compile(config, new File("lang-not-present"), new ArrayList<>());
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to compile bundled config", e);
+        }
+    }
+
+    /**
+     * Create a config manager holding a snapshot, without a plugin behind it
+     * @param snapshot Snapshot to serve
+     * @return Config manager
+     */
+    public static ConfigManager configManager(ConfigSnapshot snapshot) {
+        ConfigManager manager = allocate(ConfigManager.class);
+        setField(ConfigManager.class, manager, "snapshot", snapshot);
+        return manager;
+    }
+
+    /**
+     * Create a plugin instance that was never loaded by a server
+     * Managers are set with setField, onEnable is never called. Runs on
+     * the installed Bukkit server, if there is one
+     * @param logger Plugin logger
+     * @param dataFolder Data folder
+     * @return Plugin, also registered as the plugin instance
+     */
+    public static RideableCameraPlugin plugin(Logger logger, File dataFolder) {
+        RideableCameraPlugin plugin = allocate(RideableCameraPlugin.class);
+        setField(JavaPlugin.class, plugin, "logger", logger);
+        setField(JavaPlugin.class, plugin, "dataFolder", dataFolder);
+        setField(JavaPlugin.class, plugin, "server", Bukkit.getServer());
+        setField(RideableCameraPlugin.class, null, "instance", plugin);
+        return plugin;
+    }
+
+    /**
+     * Set a private field
+     * @param owner Class declaring the field
+     * @param target Object to set it on, null for static fields
+     * @param name Field name
+     * @param value New value
+     */
+    public static void setField(Class<?> owner, Object target, String name, Object value) {
+        try {
+            Field field = owner.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to set " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+
+    /**
+     * Create an object without running any constructor
+     */
+    static <T> T allocate(Class<T> type) {
+        try {
+            Field unsafeField = sun.misc.Unsafe.class.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            sun.misc.Unsafe unsafe = (sun.misc.Unsafe) unsafeField.get(null);
+            return type.cast(unsafe.allocateInstance(type));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to allocate " + type.getSimpleName(), e);
+        }
+    }
+
+    static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == void.class) {
+            return null;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == float.class) {
+            return 0.0F;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,55 @@
+package my.pikrew.rideablecamera.nms.simulated;
+
+import my.pikrew.rideablecamera.nms.adapter.FakeBody;
+import my.pikrew.rideablecamera.nms.adapter.InteractionHandler;
+import my.pikrew.rideablecamera.nms.adapter.NMSAdapter;
+import my.pikrew.rideablecamera.nms.adapter.PacketSink;
+import my.pikrew.rideablecamera.nms.adapter.PlayerSkin;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * Adapter for the simulated server, picked with -Drideablecamera.nms=simulated
+ * Bodies send nothing; every packet a real body would send is reported to
+ * its sink with the same type and size, so the plugin's own accounting,
+ * trace and broadcast code runs unchanged
+ */
+public class NMSAdapterImpl implements NMSAdapter {
+
+    // Adapter package the plugin loads this adapter from
+    public static final String VERSION = "simulated";
+
+    @Override
+    public FakeBody createBody(Location location, String name, PlayerSkin skin, PacketSink sink) {
+        return new SimulatedBody(location, name, skin, sink);
+    }
+
+    @Override
+    public void spawnAll(Player viewer, List<FakeBody> bodies) {
+        for (FakeBody body : bodies) {
+            body.spawn(viewer);
+        }
+    }
+
+    @Override
+    public PlayerSkin getSkin(Player player) {
+        // Offline mode, no texture
+        return new PlayerSkin(null, null, PlayerSkin.ALL_LAYERS);
+    }
+
+    @Override
+    public byte getSkinLayers(Player player) {
+        return PlayerSkin.ALL_LAYERS;
+    }
+
+    @Override
+    public void injectInteractions(Player player, InteractionHandler handler) {
+        // No network threads, nothing to intercept
+    }
+
+    @Override
+    public void ejectInteractions(Player player) {
+    }
+}
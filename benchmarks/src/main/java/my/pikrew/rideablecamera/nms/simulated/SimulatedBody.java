@@ -0,0 +1,200 @@
+package my.pikrew.rideablecamera.nms.simulated;
+
+import my.pikrew.rideablecamera.nms.adapter.FakeBody;
+import my.pikrew.rideablecamera.nms.adapter.PacketSink;
+import my.pikrew.rideablecamera.nms.adapter.PacketType;
+import my.pikrew.rideablecamera.nms.adapter.PlayerSkin;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Body of the simulated adapter
+ * Tracks position and flags like FakePlayerBody and reports the packets it
+ * would send per viewer, with the same estimated sizes, without building them
+ */
+class SimulatedBody implements FakeBody {
+
+    // Far above anything the simulated server hands out
+    private static final AtomicInteger ENTITY_COUNTER = new AtomicInteger(100_000);
+
+    private static final int EQUIPMENT_SLOTS = 6;
+
+    private final int id;
+    private final String name;
+    private final PlayerSkin skin;
+    private final PacketSink sink;
+
+    private double x;
+    private double y;
+    private double z;
+    private float yaw;
+    private float pitch;
+
+    SimulatedBody(Location location, String name, PlayerSkin skin, PacketSink sink) {
+        this.id = ENTITY_COUNTER.incrementAndGet();
+        this.name = name;
+        this.skin = skin;
+        this.sink = sink;
+        setPosition(location);
+    }
+
+    @Override
+    public int getEntityId() {
+        return id;
+    }
+
+    @Override
+    public void spawn(Player viewer) {
+        report(viewer, PacketType.PLAYER_INFO_UPDATE, infoSize());
+        report(viewer, PacketType.ADD_ENTITY, entityIdSize() + 51);
+        report(viewer, PacketType.ENTITY_DATA, entityDataSize());
+        report(viewer, PacketType.HEAD_ROTATION, entityIdSize() + 1);
+        report(viewer, PacketType.EQUIPMENT, equipmentSize());
+    }
+
+    @Override
+    public void despawn(Player viewer) {
+        report(viewer, PacketType.REMOVE_ENTITIES, entityIdSize() + 1);
+        report(viewer, PacketType.PLAYER_INFO_REMOVE, 17);
+    }
+
+    @Override
+    public void teleport(Location location, Collection<? extends Player> viewers) {
+        setPosition(location);
+
+        List<? extends Player> list = asList(viewers);
+        for (int i = 0; i < list.size(); i++) {
+            Player viewer = list.get(i);
+            report(viewer, PacketType.TELEPORT, entityIdSize() + 61);
+            report(viewer, PacketType.HEAD_ROTATION, entityIdSize() + 1);
+        }
+    }
+
+    @Override
+    public void move(Location location, boolean onGround, Collection<? extends Player> viewers) {
+        // Same quantisation as FakePlayerBody, worked out once for every viewer
+        double deltaX = (location.getX() * 32 - x * 32) * 128;
+        double deltaY = (location.getY() * 32 - y * 32) * 128;
+        double deltaZ = (location.getZ() * 32 - z * 32) * 128;
+        setPosition(location);
+
+        boolean relative = Math.abs(deltaX) < 32768 && Math.abs(deltaY) < 32768 && Math.abs(deltaZ) < 32768;
+        PacketType type = relative ? PacketType.MOVE_POS_ROT : PacketType.TELEPORT;
+        int size = entityIdSize() + (relative ? 9 : 61);
+        short quantisedX = relative ? (short) deltaX : 0;
+        short quantisedY = relative ? (short) deltaY : 0;
+        short quantisedZ = relative ? (short) deltaZ : 0;
+
+        List<? extends Player> list = asList(viewers);
+        for (int i = 0; i < list.size(); i++) {
+            Player viewer = list.get(i);
+            sink.sent(viewer, type, size, quantisedX, quantisedY, quantisedZ, angle(yaw), angle(pitch));
+            report(viewer, PacketType.HEAD_ROTATION, entityIdSize() + 1);
+        }
+    }
+
+    @Override
+    public void rotate(float yaw, float pitch, Collection<? extends Player> viewers) {
+        this.yaw = yaw;
+        this.pitch = pitch;
+
+        List<? extends Player> list = asList(viewers);
+        for (int i = 0; i < list.size(); i++) {
+            Player viewer = list.get(i);
+            report(viewer, PacketType.MOVE_ROT, entityIdSize() + 3);
+            report(viewer, PacketType.HEAD_ROTATION, entityIdSize() + 1);
+        }
+    }
+
+    @Override
+    public void copyEquipment(Player player, Collection<? extends Player> viewers) {
+        updateEquipment(viewers);
+    }
+
+    @Override
+    public void setEquipment(EquipmentSlot slot, ItemStack item) {
+        // Every slot is reported as empty
+    }
+
+    @Override
+    public void updateEquipment(Collection<? extends Player> viewers) {
+        List<? extends Player> list = asList(viewers);
+        for (int i = 0; i < list.size(); i++) {
+            Player viewer = list.get(i);
+            report(viewer, PacketType.EQUIPMENT, equipmentSize());
+        }
+    }
+
+    @Override
+    public void setSneaking(boolean sneaking, Collection<? extends Player> viewers) {
+        sendEntityData(viewers);
+    }
+
+    @Override
+    public void setSprinting(boolean sprinting, Collection<? extends Player> viewers) {
+        sendEntityData(viewers);
+    }
+
+    @Override
+    public void playAnimation(int animation, Collection<? extends Player> viewers) {
+        List<? extends Player> list = asList(viewers);
+        for (int i = 0; i < list.size(); i++) {
+            Player viewer = list.get(i);
+            report(viewer, PacketType.ANIMATE, entityIdSize() + 1);
+        }
+    }
+
+    private void sendEntityData(Collection<? extends Player> viewers) {
+        List<? extends Player> list = asList(viewers);
+        for (int i = 0; i < list.size(); i++) {
+            Player viewer = list.get(i);
+            report(viewer, PacketType.ENTITY_DATA, entityDataSize());
+        }
+    }
+
+    /**
+     * Viewers as a list, walked by index so the stand-in adds no iterators of its own
+     */
+    private static List<? extends Player> asList(Collection<? extends Player> viewers) {
+        return viewers instanceof List<? extends Player> list ? list : new ArrayList<>(viewers);
+    }
+
+    private void setPosition(Location location) {
+        this.x = location.getX();
+        this.y = location.getY();
+        this.z = location.getZ();
+        this.yaw = location.getYaw();
+        this.pitch = location.getPitch();
+    }
+
+    private void report(Player viewer, PacketType type, int size) {
+        sink.sent(viewer, type, size, (short) 0, (short) 0, (short) 0, angle(yaw), angle(pitch));
+    }
+
+    private int infoSize() {
+        return 21 + name.length() + (skin != null && skin.hasTexture() ? 12 + skin.texture().length() : 0);
+    }
+
+    private int entityDataSize() {
+        return entityIdSize() + 1 + 3 * 3;
+    }
+
+    private int equipmentSize() {
+        return entityIdSize() + 2 * EQUIPMENT_SLOTS;
+    }
+
+    private int entityIdSize() {
+        return PacketType.varIntSize(id);
+    }
+
+    private static byte angle(float degrees) {
+        return (byte) ((degrees * 256.0F) / 360.0F);
+    }
+}
@@ -0,0 +1,191 @@
+package my.pikrew.rideablecamera.benchmarks;
+
+import my.pikrew.rideablecamera.camera.CameraManager;
+import my.pikrew.rideablecamera.camera.ICameraImplementation;
+import my.pikrew.rideablecamera.camera.boom.CameraBoom;
+import my.pikrew.rideablecamera.camera.impl.ArmorStandCamera;
+import my.pikrew.rideablecamera.camera.impl.FakePlayerCamera;
+import my.pikrew.rideablecamera.config.CameraProfile;
+import my.pikrew.rideablecamera.controller.MovementController;
+import my.pikrew.rideablecamera.models.CameraSettings;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Allocation budgets of the per-tick paths
+ * Each path is warmed up until compiled, then the bytes allocated by the
+ * current thread are measured over many calls.
+ *
+ * The parts both updateSession methods go through are budgeted on their
+ * own: the movement controller, the camera boom and the update task of the
+ * camera manager. The camera implementations are budgeted as a whole
+ * too, less what the stand-in server's proxies allocate for every call
+ */
+class AllocationBudgetTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int MEASURED = 200_000;
+    private static final int SESSIONS = 100;
+
+    // Sessions with a body, each owner views every other body
+    private static final int BODY_SESSIONS = 10;
+
+    // The entry set iterator of the session map
+    private static final double TICK_LOOP_BUDGET = 64;
+
+    // Per fake player session, the iterator over the online players its viewers are picked from
+    private static final double VIEWER_SCAN_BUDGET = 48;
+
+    private static SimulatedServer server;
+    private static Logger logger;
+
+    @BeforeAll
+    static void installServer() {
+        logger = Logger.getLogger("RideableCamera");
+        logger.setLevel(Level.WARNING);
+        server = new SimulatedServer(logger);
+        server.install();
+    }
+
+    @Test
+    void detectMovementDoesNotAllocate() {
+        MovementController controller = new MovementController();
+        Location oldLocation = new Location(server.getWorld(), 0, 64, 0, 90, 0);
+        Location newLocation = new Location(server.getWorld(), 0.2, 64, 0.1, 90, 0);
+
+        assertWithinBudget("MovementController.detectMovementFromPlayer", 0,
+                () -> controller.detectMovementFromPlayer(oldLocation, newLocation), WARMUP, MEASURED);
+    }
+
+    @Test
+    void applyMovementDoesNotAllocate() {
+        MovementController controller = new MovementController();
+        Location body = new Location(server.getWorld(), 0, 64, 0);
+
+        assertWithinBudget("MovementController.applyMovement", 0,
+                () -> controller.applyMovement(body, 90.0F, body), WARMUP, MEASURED);
+    }
+
+    @Test
+    void cameraBoomDoesNotAllocate() {
+        CameraBoom boom = new CameraBoom();
+        Location body = new Location(server.getWorld(), 8.5, 64, 8.5);
+        Location out = body.clone();
+
+        assertWithinBudget("CameraBoom.compute", 0,
+                () -> boom.compute(body, 45.0F, 10.0F, CameraSettings.DEFAULT, out), WARMUP, MEASURED);
+    }
+
+    @Test
+    void updateTaskStaysWithinBudget() throws Exception {
+        SimulatedPlugin plugin = new SimulatedPlugin(logger);
+        CameraProfile profile = plugin.getConfigManager().getSnapshot().defaultProfile();
+
+        // Sessions without a body, only the manager's own loop is left
+        CameraManager cameraManager = plugin.createCameraManager(new EmptyCamera(profile));
+
+        UUID[] players = new UUID[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            Player player = server.join("Budget" + i, new Location(server.getWorld(), i, 64, 0), false);
+            cameraManager.enableCamera(player);
+            players[i] = player.getUniqueId();
+        }
+
+        try {
+            // What the stand-in server itself allocates to step its players and for the lookups the loop does
+            double baseline = measure(() -> {
+                server.step();
+                for (UUID uuid : players) {
+                    Bukkit.getPlayer(uuid).isOnline();
+                }
+            }, WARMUP / 10, MEASURED / 10);
+
+            // The update task, run by the simulated scheduler
+            assertWithinBudget("CameraManager update task", TICK_LOOP_BUDGET + baseline, server::tick,
+                    WARMUP / 10, MEASURED / 10);
+        } finally {
+            plugin.shutdown();
+        }
+    }
+
+    @Test
+    void fakePlayerUpdateStaysWithinBudget() throws Exception {
+        SimulatedPlugin plugin = new SimulatedPlugin(logger);
+        assertCameraWithinBudget("FakePlayerCamera", plugin, new FakePlayerCamera(plugin.getPlugin()),
+                VIEWER_SCAN_BUDGET);
+    }
+
+    @Test
+    void armorStandUpdateStaysWithinBudget() throws Exception {
+        SimulatedPlugin plugin = new SimulatedPlugin(logger);
+        assertCameraWithinBudget("ArmorStandCamera", plugin, new ArmorStandCamera(plugin.getPlugin()), 0);
+    }
+
+    /**
+     * Budget whole ticks of walking sessions of one implementation
+     * Like the update task's baseline, what the stand-in server allocates is
+     * taken out: its proxies count their own argument arrays and boxes
+     */
+    private static void assertCameraWithinBudget(String name, SimulatedPlugin plugin,
+                                                 ICameraImplementation implementation, double sessionBudget) {
+        CameraManager cameraManager = plugin.createCameraManager(implementation);
+
+        for (int i = 0; i < BODY_SESSIONS; i++) {
+            Player player = server.join(name + i,
+                    new Location(server.getWorld(), i * 3 + 1, 64, 1, i * 37 % 360, 0), true);
+            cameraManager.enableCamera(player);
+        }
+
+        try {
+            double budget = TICK_LOOP_BUDGET + BODY_SESSIONS * sessionBudget;
+            double bytes = measure(server::tick, server::getProxyBytes, WARMUP / 20, MEASURED / 20);
+            assertTrue(bytes <= budget + 0.5, () -> String.format(Locale.ROOT,
+                    "%s update tick allocates %.1f bytes/op, budget %.1f", name, bytes, budget));
+        } finally {
+            plugin.shutdown();
+        }
+    }
+
+    private static void assertWithinBudget(String name, double budget, Runnable operation, int warmup, int measured) {
+        double bytes = measure(operation, warmup, measured);
+        assertTrue(bytes <= budget + 0.5, () -> String.format(Locale.ROOT,
+                "%s allocates %.1f bytes/op, budget %.1f", name, bytes, budget));
+    }
+
+    private static double measure(Runnable operation, int warmup, int measured) {
+        return measure(operation, () -> 0L, warmup, measured);
+    }
+
+    /**
+     * Bytes allocated per operation
+     * @param excluded Running count of bytes to leave out
+     */
+    private static double measure(Runnable operation, LongSupplier excluded, int warmup, int measured) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+
+        long excludedBefore = excluded.getAsLong();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < measured; i++) {
+            operation.run();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        return (allocated - (excluded.getAsLong() - excludedBefore)) / (double) measured;
+    }
+}
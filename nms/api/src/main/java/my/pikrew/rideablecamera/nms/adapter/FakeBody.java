@@ -0,0 +1,99 @@
+package my.pikrew.rideablecamera.nms.adapter;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Collection;
+
+/**
+ * A player body that only exists in packets
+ * The server never sees it; every change is sent to each viewer directly
+ * State changes take every viewer at once: the body updates its state and
+ * builds each packet a single time, then hands the same packet to all of them
+ */
+public interface FakeBody {
+
+    /**
+     * Get the entity id viewers know the body by
+     * @return Entity id
+     */
+    int getEntityId();
+
+    /**
+     * Spawn the body for a viewer
+     * @param viewer Player who will see the body
+     */
+    void spawn(Player viewer);
+
+    /**
+     * Despawn the body for a viewer
+     * @param viewer Player who will no longer see the body
+     */
+    void despawn(Player viewer);
+
+    /**
+     * Teleport the body
+     * @param location New location
+     * @param viewers Players who will see the teleport
+     */
+    void teleport(Location location, Collection<? extends Player> viewers);
+
+    /**
+     * Move the body, as a relative move when it is close enough
+     * @param location New location
+     * @param onGround Is on ground
+     * @param viewers Players who will see the movement
+     */
+    void move(Location location, boolean onGround, Collection<? extends Player> viewers);
+
+    /**
+     * Update only rotation
+     * @param yaw New yaw
+     * @param pitch New pitch
+     * @param viewers Players who will see the rotation
+     */
+    void rotate(float yaw, float pitch, Collection<? extends Player> viewers);
+
+    /**
+     * Copy the inventory of a real player and send the equipment
+     * @param player Source player
+     * @param viewers Players who will see the equipment
+     */
+    void copyEquipment(Player player, Collection<? extends Player> viewers);
+
+    /**
+     * Set a single equipment slot without sending it
+     * @param slot Equipment slot
+     * @param item Item or null to clear
+     */
+    void setEquipment(EquipmentSlot slot, ItemStack item);
+
+    /**
+     * Send the current equipment
+     * @param viewers Players who will see the equipment
+     */
+    void updateEquipment(Collection<? extends Player> viewers);
+
+    /**
+     * Set sneaking state
+     * @param sneaking Is sneaking
+     * @param viewers Players who will see the change
+     */
+    void setSneaking(boolean sneaking, Collection<? extends Player> viewers);
+
+    /**
+     * Set sprinting state
+     * @param sprinting Is sprinting
+     * @param viewers Players who will see the change
+     */
+    void setSprinting(boolean sprinting, Collection<? extends Player> viewers);
+
+    /**
+     * Play animation
+     * @param animation Animation type (0=swing main hand, 3=leave bed, 4=swing offhand, etc)
+     * @param viewers Players who will see the animation
+     */
+    void playAnimation(int animation, Collection<? extends Player> viewers);
+}
@@ -0,0 +1,44 @@
+package my.pikrew.rideablecamera.nms.adapter;
+
+import java.util.UUID;
+
+/**
+ * Receives interact packets aimed at packet-only bodies
+ * Every method runs on the network thread of the sending player
+ */
+public interface InteractionHandler {
+
+    /**
+     * Check if an entity id belongs to a body
+     * Packets for other entities are passed on to the server untouched
+     * @param entityId Target entity id
+     * @return true to swallow the packet and report it below
+     */
+    boolean isTarget(int entityId);
+
+    /**
+     * A body was attacked
+     * @param source Attacking player
+     * @param entityId Body entity id
+     */
+    void onAttack(UUID source, int entityId);
+
+    /**
+     * A body was right-clicked
+     * @param source Clicking player
+     * @param entityId Body entity id
+     * @param offHand Whether the off hand was used
+     */
+    void onInteract(UUID source, int entityId, boolean offHand);
+
+    /**
+     * A body was right-clicked at a position
+     * @param source Clicking player
+     * @param entityId Body entity id
+     * @param offHand Whether the off hand was used
+     * @param x Clicked X relative to the body
+     * @param y Clicked Y relative to the body
+     * @param z Clicked Z relative to the body
+     */
+    void onInteractAt(UUID source, int entityId, boolean offHand, double x, double y, double z);
+}
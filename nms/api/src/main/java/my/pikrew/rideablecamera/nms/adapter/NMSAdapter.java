@@ -0,0 +1,60 @@
+package my.pikrew.rideablecamera.nms.adapter;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * Everything the plugin does below the Bukkit API, for one server version
+ * Each CraftBukkit package has its own implementation, named like
+ * my.pikrew.rideablecamera.nms.v1_21_R3.NMSAdapterImpl and picked by NMSUtil when first needed
+ */
+public interface NMSAdapter {
+
+    /**
+     * Create a packet-only player body
+     * @param location Spawn location
+     * @param name Display name
+     * @param skin Skin to wear, null for the default skin with all layers
+     * @param sink Told about every packet the body sends
+     * @return Body, not yet spawned for anyone
+     */
+    FakeBody createBody(Location location, String name, PlayerSkin skin, PacketSink sink);
+
+    /**
+     * Spawn many bodies for one viewer at once
+     * Every profile goes out in one player info packet and the rest of
+     * the spawn packets in one bundle, which the client applies together
+     * @param viewer Receiving player
+     * @param bodies Bodies made by this adapter
+     */
+    void spawnAll(Player viewer, List<FakeBody> bodies);
+
+    /**
+     * Read a player's skin from their live profile and client settings
+     * @param player The player
+     * @return Skin, without a texture if the profile has none (offline mode)
+     */
+    PlayerSkin getSkin(Player player);
+
+    /**
+     * Read the skin layers a player currently shows
+     * @param player The player
+     * @return Layer flags from their client settings
+     */
+    byte getSkinLayers(Player player);
+
+    /**
+     * Start passing a player's interact packets through a handler
+     * @param player The player
+     * @param handler Called on the network thread
+     */
+    void injectInteractions(Player player, InteractionHandler handler);
+
+    /**
+     * Stop passing a player's interact packets through the handler
+     * @param player The player
+     */
+    void ejectInteractions(Player player);
+}
@@ -0,0 +1,24 @@
+package my.pikrew.rideablecamera.nms.adapter;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Accounting of the packets a body sends
+ */
+@FunctionalInterface
+public interface PacketSink {
+
+    /**
+     * Called after a packet was handed to a viewer's connection
+     * @param viewer Receiving player
+     * @param type Packet type
+     * @param size Estimated payload size in bytes, without framing
+     * @param deltaX Quantised X movement carried by the packet
+     * @param deltaY Quantised Y movement carried by the packet
+     * @param deltaZ Quantised Z movement carried by the packet
+     * @param yaw Body yaw in 1/256 turns
+     * @param pitch Body pitch in 1/256 turns
+     */
+    void sent(Player viewer, PacketType type, int size,
+              short deltaX, short deltaY, short deltaZ, byte yaw, byte pitch);
+}
@@ -0,0 +1,28 @@
+package my.pikrew.rideablecamera.nms.adapter;
+
+/**
+ * Packets sent by the plugin, for per-type accounting
+ */
+public enum PacketType {
+
+    PLAYER_INFO_UPDATE,
+    PLAYER_INFO_REMOVE,
+    ADD_ENTITY,
+    REMOVE_ENTITIES,
+    ENTITY_DATA,
+    HEAD_ROTATION,
+    MOVE_POS_ROT,
+    MOVE_ROT,
+    TELEPORT,
+    EQUIPMENT,
+    ANIMATE;
+
+    /**
+     * Get the size of an entity id on the wire
+     * @param entityId Entity id
+     * @return Encoded VarInt length in bytes
+     */
+    public static int varIntSize(int entityId) {
+        return (31 - Integer.numberOfLeadingZeros(entityId | 1)) / 7 + 1;
+    }
+}
@@ -0,0 +1,22 @@
+package my.pikrew.rideablecamera.nms.adapter;
+
+/**
+ * Skin of a player as the client needs it to render a copy of them
+ *
+ * @param texture Base64 textures property, null for the default skin
+ * @param signature Mojang signature of the texture, null if unsigned
+ * @param layers Skin layer flags from the player's client settings
+ */
+public record PlayerSkin(String texture, String signature, byte layers) {
+
+    // Every layer shown, what the client sends by default
+    public static final byte ALL_LAYERS = 0x7F;
+
+    /**
+     * Check if there is a texture to send
+     * @return true if the body gets the player's skin
+     */
+    public boolean hasTexture() {
+        return texture != null;
+    }
+}
@@ -0,0 +1,487 @@
+package my.pikrew.rideablecamera.nms.mojang;
+
+import com.mojang.datafixers.util.Pair;
+import my.pikrew.rideablecamera.nms.adapter.FakeBody;
+import my.pikrew.rideablecamera.nms.adapter.PacketSink;
+import my.pikrew.rideablecamera.nms.adapter.PacketType;
+import my.pikrew.rideablecamera.nms.adapter.PlayerSkin;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.*;
+import net.minecraft.network.syncher.EntityDataSerializers;
+import net.minecraft.network.syncher.SynchedEntityData;
+import net.minecraft.server.network.ServerGamePacketListenerImpl;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.Pose;
+import net.minecraft.world.entity.PositionMoveRotation;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.phys.Vec3;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Packet-only player body
+ * Keeps just what the packets carry: id, profile, position, pose, flags and
+ * the six visible equipment stacks. No ServerPlayer is ever built, so a body
+ * costs a few hundred bytes instead of a whole player object graph
+ */
+public class FakePlayerBody implements FakeBody {
+
+    // Ids the server hands out to real entities, shared so ours never collide
+    private static final AtomicInteger ENTITY_COUNTER = entityCounter();
+
+    // Entity data indices of this protocol version
+    private static final int DATA_SHARED_FLAGS = 0;
+    private static final int DATA_POSE = 6;
+    private static final int DATA_SKIN_LAYERS = 17;
+
+    // Shared flag bits
+    private static final byte FLAG_SNEAKING = 0x02;
+    private static final byte FLAG_SPRINTING = 0x08;
+
+    // Equipment in packet order
+    private static final EquipmentSlot[] SLOTS = {
+            EquipmentSlot.MAINHAND, EquipmentSlot.OFFHAND,
+            EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET
+    };
+
+    private final MojangAdapter adapter;
+    private final int id;
+    private final UUID uuid;
+    private final String name;
+    private final PlayerSkin skin;
+    private final PacketSink sink;
+
+    private double x;
+    private double y;
+    private double z;
+    private float yaw;
+    private float pitch;
+    private boolean onGround;
+    private byte flags;
+    private final ItemStack[] equipment;
+
+    public FakePlayerBody(MojangAdapter adapter, Location location, String name, PlayerSkin skin, PacketSink sink) {
+        this.adapter = adapter;
+        this.id = ENTITY_COUNTER.incrementAndGet();
+
+        // Own UUID, so the body doesn't replace the owner's tab list entry
+        this.uuid = UUID.randomUUID();
+        this.name = name;
+        this.skin = skin;
+        this.sink = sink;
+
+        this.x = location.getX();
+        this.y = location.getY();
+        this.z = location.getZ();
+        this.yaw = location.getYaw();
+        this.pitch = location.getPitch();
+
+        this.equipment = new ItemStack[SLOTS.length];
+        for (int i = 0; i < SLOTS.length; i++) {
+            equipment[i] = ItemStack.EMPTY;
+        }
+    }
+
+    @Override
+    public int getEntityId() {
+        return id;
+    }
+
+    @Override
+    public void spawn(Player viewer) {
+        spawnAll(adapter, viewer, List.of(this));
+    }
+
+    /**
+     * Spawn bodies for a viewer with one player info packet and one bundle
+     * @param adapter Adapter that made the bodies
+     * @param viewer Receiving player
+     * @param bodies Bodies of this adapter
+     */
+    static void spawnAll(MojangAdapter adapter, Player viewer, List<? extends FakeBody> bodies) {
+        ServerGamePacketListenerImpl connection = adapter.getHandle(viewer).connection;
+
+        // Every profile in one player info packet
+        RegistryFriendlyByteBuf scratch = adapter.scratch();
+        scratch.clear();
+        scratch.writeEnumSet(EnumSet.of(ClientboundPlayerInfoUpdatePacket.Action.ADD_PLAYER),
+                ClientboundPlayerInfoUpdatePacket.Action.class);
+        scratch.writeVarInt(bodies.size());
+        for (FakeBody body : bodies) {
+            ((FakePlayerBody) body).writeInfoEntry(scratch);
+        }
+        connection.send(ClientboundPlayerInfoUpdatePacket.STREAM_CODEC.decode(scratch));
+
+        // Entity, metadata, head rotation and equipment of every body, applied together
+        List<Packet<? super ClientGamePacketListener>> packets = new ArrayList<>(bodies.size() * 4);
+        for (FakeBody body : bodies) {
+            FakePlayerBody fakeBody = (FakePlayerBody) body;
+            fakeBody.report(viewer, PacketType.PLAYER_INFO_UPDATE, fakeBody.infoSize());
+            fakeBody.addSpawnPackets(packets, viewer);
+        }
+        connection.send(new ClientboundBundlePacket(packets));
+    }
+
+    /**
+     * Add the packets that make an introduced profile appear
+     */
+    private void addSpawnPackets(List<Packet<? super ClientGamePacketListener>> packets, Player viewer) {
+        packets.add(new ClientboundAddEntityPacket(
+                id, uuid, x, y, z, pitch, yaw, EntityType.PLAYER, 0, Vec3.ZERO, yaw));
+        report(viewer, PacketType.ADD_ENTITY, entityIdSize() + 51);
+
+        packets.add(entityData());
+        report(viewer, PacketType.ENTITY_DATA, entityDataSize());
+
+        packets.add(rotateHead(yaw));
+        report(viewer, PacketType.HEAD_ROTATION, entityIdSize() + 1);
+
+        packets.add(equipmentPacket());
+        report(viewer, PacketType.EQUIPMENT, equipmentSize());
+    }
+
+    @Override
+    public void despawn(Player viewer) {
+        ServerGamePacketListenerImpl connection = connection(viewer);
+
+        // Send remove entity packet
+        send(connection, viewer, new ClientboundRemoveEntitiesPacket(id),
+                PacketType.REMOVE_ENTITIES, entityIdSize() + 1);
+
+        // Remove from player info
+        send(connection, viewer, new ClientboundPlayerInfoRemovePacket(List.of(uuid)),
+                PacketType.PLAYER_INFO_REMOVE, 17);
+    }
+
+    @Override
+    public void teleport(Location location, Collection<? extends Player> viewers) {
+        setPosition(location);
+
+        // Built once, every viewer gets the same packets
+        ClientboundTeleportEntityPacket teleport = teleportPacket();
+        ClientboundRotateHeadPacket head = rotateHead(location.getYaw());
+
+        for (Player viewer : viewers) {
+            ServerGamePacketListenerImpl connection = connection(viewer);
+            send(connection, viewer, teleport, PacketType.TELEPORT, entityIdSize() + 61);
+            send(connection, viewer, head, PacketType.HEAD_ROTATION, entityIdSize() + 1);
+        }
+    }
+
+    @Override
+    public void move(Location location, boolean onGround, Collection<? extends Player> viewers) {
+        // Calculate deltas, once: every viewer saw the same previous position
+        double deltaX = (location.getX() * 32 - x * 32) * 128;
+        double deltaY = (location.getY() * 32 - y * 32) * 128;
+        double deltaZ = (location.getZ() * 32 - z * 32) * 128;
+
+        // Update position
+        setPosition(location);
+        this.onGround = onGround;
+
+        // Relative move if delta is small enough, else teleport
+        Packet<?> movement;
+        PacketType type;
+        int size;
+        short quantisedX = 0;
+        short quantisedY = 0;
+        short quantisedZ = 0;
+        if (Math.abs(deltaX) < 32768 && Math.abs(deltaY) < 32768 && Math.abs(deltaZ) < 32768) {
+            quantisedX = (short) deltaX;
+            quantisedY = (short) deltaY;
+            quantisedZ = (short) deltaZ;
+            movement = new ClientboundMoveEntityPacket.PosRot(
+                    id,
+                    quantisedX,
+                    quantisedY,
+                    quantisedZ,
+                    angle(location.getYaw()),
+                    angle(location.getPitch()),
+                    onGround
+            );
+            type = PacketType.MOVE_POS_ROT;
+            size = entityIdSize() + 9;
+        } else {
+            movement = teleportPacket();
+            type = PacketType.TELEPORT;
+            size = entityIdSize() + 61;
+        }
+        ClientboundRotateHeadPacket head = rotateHead(location.getYaw());
+
+        for (Player viewer : viewers) {
+            ServerGamePacketListenerImpl connection = connection(viewer);
+            send(connection, viewer, movement, type, size, quantisedX, quantisedY, quantisedZ);
+            send(connection, viewer, head, PacketType.HEAD_ROTATION, entityIdSize() + 1);
+        }
+    }
+
+    @Override
+    public void rotate(float yaw, float pitch, Collection<? extends Player> viewers) {
+        this.yaw = yaw;
+        this.pitch = pitch;
+
+        ClientboundMoveEntityPacket.Rot rotation = new ClientboundMoveEntityPacket.Rot(
+                id,
+                angle(yaw),
+                angle(pitch),
+                onGround
+        );
+        ClientboundRotateHeadPacket head = rotateHead(yaw);
+
+        for (Player viewer : viewers) {
+            ServerGamePacketListenerImpl connection = connection(viewer);
+            send(connection, viewer, rotation, PacketType.MOVE_ROT, entityIdSize() + 3);
+            send(connection, viewer, head, PacketType.HEAD_ROTATION, entityIdSize() + 1);
+        }
+    }
+
+    @Override
+    public void copyEquipment(Player player, Collection<? extends Player> viewers) {
+        net.minecraft.world.entity.player.Player source = adapter.getHandle(player);
+
+        // Copied, the player's stacks keep changing
+        for (int i = 0; i < SLOTS.length; i++) {
+            equipment[i] = source.getItemBySlot(SLOTS[i]).copy();
+        }
+
+        // Send equipment update
+        sendEquipment(viewers);
+    }
+
+    @Override
+    public void setEquipment(org.bukkit.inventory.EquipmentSlot slot, org.bukkit.inventory.ItemStack item) {
+        int index = switch (slot) {
+            case HAND -> 0;
+            case OFF_HAND -> 1;
+            case HEAD -> 2;
+            case CHEST -> 3;
+            case LEGS -> 4;
+            case FEET -> 5;
+            default -> -1;
+        };
+
+        if (index >= 0) {
+            equipment[index] = adapter.asNMSCopy(item);
+        }
+    }
+
+    @Override
+    public void updateEquipment(Collection<? extends Player> viewers) {
+        sendEquipment(viewers);
+    }
+
+    @Override
+    public void setSneaking(boolean sneaking, Collection<? extends Player> viewers) {
+        setFlag(FLAG_SNEAKING, sneaking);
+
+        sendEntityData(viewers);
+    }
+
+    @Override
+    public void setSprinting(boolean sprinting, Collection<? extends Player> viewers) {
+        setFlag(FLAG_SPRINTING, sprinting);
+
+        sendEntityData(viewers);
+    }
+
+    @Override
+    public void playAnimation(int animation, Collection<? extends Player> viewers) {
+        // Entity id and action
+        RegistryFriendlyByteBuf scratch = adapter.scratch();
+        scratch.clear();
+        scratch.writeVarInt(id);
+        scratch.writeByte(animation);
+        ClientboundAnimatePacket packet = ClientboundAnimatePacket.STREAM_CODEC.decode(scratch);
+
+        for (Player viewer : viewers) {
+            send(connection(viewer), viewer, packet, PacketType.ANIMATE, entityIdSize() + 1);
+        }
+    }
+
+    private void setPosition(Location location) {
+        this.x = location.getX();
+        this.y = location.getY();
+        this.z = location.getZ();
+        this.yaw = location.getYaw();
+        this.pitch = location.getPitch();
+    }
+
+    private void setFlag(byte flag, boolean set) {
+        flags = (byte) (set ? flags | flag : flags & ~flag);
+    }
+
+    /**
+     * Write the player info entry that introduces the body's profile
+     * Written in the wire format and decoded, the packet has no public
+     * constructor that doesn't take a ServerPlayer
+     */
+    private void writeInfoEntry(RegistryFriendlyByteBuf buf) {
+        buf.writeUUID(uuid);
+
+        // Name, then the profile properties
+        buf.writeUtf(name, 16);
+        if (skin != null && skin.hasTexture()) {
+            buf.writeVarInt(1);
+            buf.writeUtf("textures");
+            buf.writeUtf(skin.texture());
+            buf.writeBoolean(skin.signature() != null);
+            if (skin.signature() != null) {
+                buf.writeUtf(skin.signature());
+            }
+        } else {
+            buf.writeVarInt(0);
+        }
+    }
+
+    private ClientboundTeleportEntityPacket teleportPacket() {
+        return new ClientboundTeleportEntityPacket(id,
+                new PositionMoveRotation(new Vec3(x, y, z), Vec3.ZERO, yaw, pitch), Set.of(), onGround);
+    }
+
+    private ClientboundRotateHeadPacket rotateHead(float headYaw) {
+        // Entity id and head yaw
+        RegistryFriendlyByteBuf scratch = adapter.scratch();
+        scratch.clear();
+        scratch.writeVarInt(id);
+        scratch.writeByte(angle(headYaw));
+        return ClientboundRotateHeadPacket.STREAM_CODEC.decode(scratch);
+    }
+
+    /**
+     * Send equipment packets
+     */
+    private void sendEquipment(Collection<? extends Player> viewers) {
+        ClientboundSetEquipmentPacket packet = equipmentPacket();
+        int size = equipmentSize();
+
+        for (Player viewer : viewers) {
+            send(connection(viewer), viewer, packet, PacketType.EQUIPMENT, size);
+        }
+    }
+
+    private ClientboundSetEquipmentPacket equipmentPacket() {
+        List<Pair<EquipmentSlot, ItemStack>> slots = new ArrayList<>(SLOTS.length);
+        for (int i = 0; i < SLOTS.length; i++) {
+            slots.add(Pair.of(SLOTS[i], equipment[i]));
+        }
+        return new ClientboundSetEquipmentPacket(id, slots);
+    }
+
+    /**
+     * Slot byte per entry, empty stacks are a single byte, others roughly four
+     */
+    private int equipmentSize() {
+        int size = entityIdSize();
+        for (ItemStack stack : equipment) {
+            size += stack.isEmpty() ? 2 : 5;
+        }
+        return size;
+    }
+
+    /**
+     * Send flags, pose and skin layers
+     */
+    private void sendEntityData(Collection<? extends Player> viewers) {
+        ClientboundSetEntityDataPacket packet = entityData();
+
+        for (Player viewer : viewers) {
+            send(connection(viewer), viewer, packet, PacketType.ENTITY_DATA, entityDataSize());
+        }
+    }
+
+    private ClientboundSetEntityDataPacket entityData() {
+        return new ClientboundSetEntityDataPacket(id, List.of(
+                new SynchedEntityData.DataValue<>(DATA_SHARED_FLAGS, EntityDataSerializers.BYTE, flags),
+                new SynchedEntityData.DataValue<>(DATA_POSE, EntityDataSerializers.POSE,
+                        (flags & FLAG_SNEAKING) != 0 ? Pose.CROUCHING : Pose.STANDING),
+                new SynchedEntityData.DataValue<>(DATA_SKIN_LAYERS, EntityDataSerializers.BYTE,
+                        skin != null ? skin.layers() : PlayerSkin.ALL_LAYERS)
+        ));
+    }
+
+    /**
+     * Index, serializer id and a small value per entry, plus the end marker
+     */
+    private int entityDataSize() {
+        return entityIdSize() + 1 + 3 * 3;
+    }
+
+    private void send(ServerGamePacketListenerImpl connection, Player viewer,
+                      Packet<?> packet, PacketType type, int size) {
+        send(connection, viewer, packet, type, size, (short) 0, (short) 0, (short) 0);
+    }
+
+    /**
+     * Send a packet and report it to the sink
+     * @param size Estimated payload size in bytes, without framing
+     */
+    private void send(ServerGamePacketListenerImpl connection, Player viewer,
+                      Packet<?> packet, PacketType type, int size,
+                      short deltaX, short deltaY, short deltaZ) {
+        connection.send(packet);
+        sink.sent(viewer, type, size, deltaX, deltaY, deltaZ, angle(yaw), angle(pitch));
+    }
+
+    /**
+     * Report a packet that went out as part of a batch
+     */
+    private void report(Player viewer, PacketType type, int size) {
+        sink.sent(viewer, type, size, (short) 0, (short) 0, (short) 0, angle(yaw), angle(pitch));
+    }
+
+    /**
+     * Estimated size of the player info entry, the texture makes up most of it
+     */
+    private int infoSize() {
+        int size = 21 + name.length();
+        if (skin != null && skin.hasTexture()) {
+            // Name, value, signature flag and signature, each string with a length prefix
+            size += 12 + skin.texture().length()
+                    + (skin.signature() != null ? 2 + skin.signature().length() : 0);
+        }
+        return size;
+    }
+
+    private static byte angle(float degrees) {
+        return (byte) ((degrees * 256.0F) / 360.0F);
+    }
+
+    private ServerGamePacketListenerImpl connection(Player viewer) {
+        return adapter.getHandle(viewer).connection;
+    }
+
+    private int entityIdSize() {
+        return PacketType.varIntSize(id);
+    }
+
+    /**
+     * Find the server's entity id counter, the only static AtomicInteger of Entity
+     */
+    private static AtomicInteger entityCounter() {
+        for (Field field : Entity.class.getDeclaredFields()) {
+            if (field.getType() == AtomicInteger.class && Modifier.isStatic(field.getModifiers())) {
+                try {
+                    return (AtomicInteger) MethodHandles.privateLookupIn(Entity.class, MethodHandles.lookup())
+                            .unreflectGetter(field).invoke();
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Cannot access Entity." + field.getName(), e);
+                }
+            }
+        }
+        throw new IllegalStateException("No entity id counter in Entity");
+    }
+}
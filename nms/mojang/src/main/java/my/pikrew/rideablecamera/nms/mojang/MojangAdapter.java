@@ -0,0 +1,209 @@
+package my.pikrew.rideablecamera.nms.mojang;
+
+import com.mojang.authlib.properties.Property;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import my.pikrew.rideablecamera.nms.adapter.FakeBody;
+import my.pikrew.rideablecamera.nms.adapter.InteractionHandler;
+import my.pikrew.rideablecamera.nms.adapter.NMSAdapter;
+import my.pikrew.rideablecamera.nms.adapter.PacketSink;
+import my.pikrew.rideablecamera.nms.adapter.PlayerSkin;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.network.Connection;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.protocol.game.ServerboundInteractPacket;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.network.ServerCommonPacketListenerImpl;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.phys.Vec3;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * NMS adapter code shared by every supported version
+ * Written against Mojang names only. Each adapter module compiles this
+ * source set against its own server jar, relocates it into its own package
+ * and adds the few CraftBukkit calls below, whose package carries the
+ * server version
+ */
+public abstract class MojangAdapter implements NMSAdapter {
+
+    private static final String HANDLER_NAME = "rideablecamera_interact";
+
+    // Private fields found by type once, the names differ between mappings
+    private static final MethodHandle CONNECTION = getter(ServerCommonPacketListenerImpl.class, Connection.class);
+    private static final MethodHandle ENTITY_ID = getter(ServerboundInteractPacket.class, int.class);
+
+    // Packets without a public state constructor are decoded from this (main thread only)
+    private final RegistryFriendlyByteBuf scratch;
+
+    protected MojangAdapter() {
+        this.scratch = new RegistryFriendlyByteBuf(Unpooled.buffer(64), registryAccess());
+    }
+
+    /**
+     * Get the server player behind a Bukkit player
+     * @param player Bukkit player
+     * @return CraftPlayer handle
+     */
+    protected abstract ServerPlayer getHandle(Player player);
+
+    /**
+     * Copy a Bukkit item stack into a server item stack
+     * @param item Bukkit stack, null for empty
+     * @return Server stack
+     */
+    protected abstract ItemStack asNMSCopy(org.bukkit.inventory.ItemStack item);
+
+    /**
+     * Get the registries packets are encoded with
+     * @return Server registry access
+     */
+    protected abstract RegistryAccess registryAccess();
+
+    @Override
+    public FakeBody createBody(Location location, String name, PlayerSkin skin, PacketSink sink) {
+        return new FakePlayerBody(this, location, name, skin, sink);
+    }
+
+    @Override
+    public void spawnAll(Player viewer, List<FakeBody> bodies) {
+        FakePlayerBody.spawnAll(this, viewer, bodies);
+    }
+
+    @Override
+    public PlayerSkin getSkin(Player player) {
+        ServerPlayer handle = getHandle(player);
+        byte layers = getSkinLayers(player);
+
+        // Signed by Mojang, so the client accepts it on a profile with another UUID
+        for (Property property : handle.getGameProfile().getProperties().get("textures")) {
+            return new PlayerSkin(property.value(), property.signature(), layers);
+        }
+        return new PlayerSkin(null, null, layers);
+    }
+
+    @Override
+    public byte getSkinLayers(Player player) {
+        return (byte) getHandle(player).clientInformation().modelCustomisation();
+    }
+
+    @Override
+    public void injectInteractions(Player player, InteractionHandler handler) {
+        Channel channel = getChannel(player);
+        if (channel == null) {
+            return;
+        }
+
+        UUID playerUUID = player.getUniqueId();
+        channel.eventLoop().execute(() -> {
+            if (channel.pipeline().get(HANDLER_NAME) == null && channel.pipeline().get("packet_handler") != null) {
+                channel.pipeline().addBefore("packet_handler", HANDLER_NAME, new Interceptor(playerUUID, handler));
+            }
+        });
+    }
+
+    @Override
+    public void ejectInteractions(Player player) {
+        Channel channel = getChannel(player);
+        if (channel == null) {
+            return;
+        }
+
+        channel.eventLoop().execute(() -> {
+            if (channel.pipeline().get(HANDLER_NAME) != null) {
+                channel.pipeline().remove(HANDLER_NAME);
+            }
+        });
+    }
+
+    RegistryFriendlyByteBuf scratch() {
+        return scratch;
+    }
+
+    private Channel getChannel(Player player) {
+        try {
+            Connection connection = (Connection) CONNECTION.invokeExact(
+                    (ServerCommonPacketListenerImpl) getHandle(player).connection);
+            return connection != null ? connection.channel : null;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * Bind a getter for the only instance field of a type
+     */
+    private static MethodHandle getter(Class<?> owner, Class<?> type) {
+        for (Field field : owner.getDeclaredFields()) {
+            if (field.getType() == type && !Modifier.isStatic(field.getModifiers())) {
+                try {
+                    return MethodHandles.privateLookupIn(owner, MethodHandles.lookup()).unreflectGetter(field);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Cannot access " + owner.getSimpleName() + "." + field.getName(), e);
+                }
+            }
+        }
+        throw new IllegalStateException("No " + type.getSimpleName() + " field in " + owner.getSimpleName());
+    }
+
+    /**
+     * Pipeline handler of one player, runs on the network thread
+     */
+    private static class Interceptor extends ChannelDuplexHandler {
+
+        private final UUID playerUUID;
+        private final InteractionHandler handler;
+
+        Interceptor(UUID playerUUID, InteractionHandler handler) {
+            this.playerUUID = playerUUID;
+            this.handler = handler;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if (msg instanceof ServerboundInteractPacket packet) {
+                int entityId;
+                try {
+                    entityId = (int) ENTITY_ID.invokeExact(packet);
+                } catch (Throwable e) {
+                    super.channelRead(ctx, msg);
+                    return;
+                }
+
+                if (handler.isTarget(entityId)) {
+                    packet.dispatch(new ServerboundInteractPacket.Handler() {
+                        @Override
+                        public void onInteraction(InteractionHand hand) {
+                            handler.onInteract(playerUUID, entityId, hand == InteractionHand.OFF_HAND);
+                        }
+
+                        @Override
+                        public void onInteraction(InteractionHand hand, Vec3 pos) {
+                            handler.onInteractAt(playerUUID, entityId, hand == InteractionHand.OFF_HAND,
+                                    pos.x, pos.y, pos.z);
+                        }
+
+                        @Override
+                        public void onAttack() {
+                            handler.onAttack(playerUUID, entityId);
+                        }
+                    });
+                    return;
+                }
+            }
+
+            super.channelRead(ctx, msg);
+        }
+    }
+}
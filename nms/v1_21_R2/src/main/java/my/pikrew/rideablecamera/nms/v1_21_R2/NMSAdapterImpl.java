@@ -0,0 +1,33 @@
+package my.pikrew.rideablecamera.nms.v1_21_R2;
+
+import my.pikrew.rideablecamera.nms.mojang.MojangAdapter;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.ItemStack;
+import org.bukkit.Bukkit;
+import org.bukkit.craftbukkit.v1_21_R2.CraftServer;
+import org.bukkit.craftbukkit.v1_21_R2.entity.CraftPlayer;
+import org.bukkit.craftbukkit.v1_21_R2.inventory.CraftItemStack;
+import org.bukkit.entity.Player;
+
+/**
+ * NMS adapter for Minecraft 1.21.2 and 1.21.3
+ * Everything but the CraftBukkit calls lives in the shared Mojang-mapped sources
+ */
+public class NMSAdapterImpl extends MojangAdapter {
+
+    @Override
+    protected ServerPlayer getHandle(Player player) {
+        return ((CraftPlayer) player).getHandle();
+    }
+
+    @Override
+    protected ItemStack asNMSCopy(org.bukkit.inventory.ItemStack item) {
+        return CraftItemStack.asNMSCopy(item);
+    }
+
+    @Override
+    protected RegistryAccess registryAccess() {
+        return ((CraftServer) Bukkit.getServer()).getServer().registryAccess();
+    }
+}
@@ -1,11 +1,27 @@
 package my.pikrew.rideablecamera;
 
 import my.pikrew.rideablecamera.camera.CameraManager;
+import my.pikrew.rideablecamera.camera.LoadGovernor;
+import my.pikrew.rideablecamera.camera.ProfileManager;
 import my.pikrew.rideablecamera.commands.CameraCommandExecutor;
+import my.pikrew.rideablecamera.commands.PlayerNameIndex;
 import my.pikrew.rideablecamera.config.ConfigManager;
+import my.pikrew.rideablecamera.input.GestureEngine;
+import my.pikrew.rideablecamera.listeners.GestureListener;
 import my.pikrew.rideablecamera.listeners.PlayerListener;
+import my.pikrew.rideablecamera.metrics.FlightRecorder;
+import my.pikrew.rideablecamera.metrics.MetricsRegistry;
+import my.pikrew.rideablecamera.nms.BodySnapshots;
+import my.pikrew.rideablecamera.nms.InteractionInterceptor;
+import my.pikrew.rideablecamera.nms.SkinCache;
+import my.pikrew.rideablecamera.path.PathManager;
+import my.pikrew.rideablecamera.recording.RecordingManager;
+import my.pikrew.rideablecamera.storage.PlayerSettingsManager;
+import my.pikrew.rideablecamera.storage.SessionJournal;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+
 /**
  * RideableCamera Plugin
  * Main entry point for the plugin
@@ -20,6 +36,19 @@ public class RideableCameraPlugin extends JavaPlugin {
     // Managers
     private ConfigManager configManager;
     private CameraManager cameraManager;
+    private RecordingManager recordingManager;
+    private PathManager pathManager;
+    private PlayerSettingsManager settingsManager;
+    private ProfileManager profileManager;
+    private SessionJournal sessionJournal;
+    private MetricsRegistry metrics;
+    private FlightRecorder flightRecorder;
+    private GestureEngine gestureEngine;
+    private LoadGovernor loadGovernor;
+    private InteractionInterceptor interactionInterceptor;
+    private SkinCache skinCache;
+    private BodySnapshots bodySnapshots;
+    private PlayerNameIndex playerNameIndex;
 
     @Override
     public void onEnable() {
@@ -40,11 +69,61 @@ public class RideableCameraPlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        // Stop camera paths
+        if (pathManager != null) {
+            pathManager.stopAll();
+        }
+
+        // Stop moving sessions between implementations
+        if (loadGovernor != null) {
+            loadGovernor.stop();
+        }
+
+        // Stop the zoom task
+        if (gestureEngine != null) {
+            gestureEngine.shutdown();
+        }
+
+        // Stop sending bodies to new arrivals
+        if (bodySnapshots != null) {
+            bodySnapshots.shutdown();
+        }
+
+        // Take our handlers out of the network pipelines
+        if (interactionInterceptor != null) {
+            getServer().getOnlinePlayers().forEach(interactionInterceptor::eject);
+        }
+
         // Cleanup all active cameras
         if (cameraManager != null) {
             cameraManager.disableAllCameras();
         }
 
+        // Compact the session journal, every session has ended by now
+        if (sessionJournal != null) {
+            sessionJournal.close();
+        }
+
+        // Flush recordings
+        if (recordingManager != null) {
+            recordingManager.shutdown();
+        }
+
+        // Write pending player settings
+        if (settingsManager != null) {
+            settingsManager.shutdown();
+        }
+
+        // Remove the metrics MBean
+        if (metrics != null) {
+            metrics.unregisterMBean();
+        }
+
+        // Stop watching config.yml and finish pending saves
+        if (configManager != null) {
+            configManager.shutdown();
+        }
+
         getLogger().info("RideableCamera has been disabled!");
     }
 
@@ -52,13 +131,61 @@ public class RideableCameraPlugin extends JavaPlugin {
      * Initialize all managers
      */
     private void initializeManagers() {
+        // Metrics, first so every manager can register its counters
+        metrics = new MetricsRegistry(getLogger());
+        metrics.registerMBean();
+        flightRecorder = new FlightRecorder(this);
+
         // Config manager
         configManager = new ConfigManager(this);
         configManager.loadConfig();
 
+        // Player settings
+        settingsManager = new PlayerSettingsManager(this);
+        settingsManager.start();
+
+        // Session journal (restores players after a crash)
+        sessionJournal = new SessionJournal(new File(getDataFolder(), "sessions.journal").toPath(), getLogger());
+        sessionJournal.open();
+
+        // Path manager
+        pathManager = new PathManager(this);
+        pathManager.loadPaths();
+        configManager.addReloadListener(pathManager::loadPaths);
+
+        // Camera profiles, resolved again after every reload
+        profileManager = new ProfileManager(this);
+        configManager.addReloadListener(profileManager::invalidateAll);
+
+        // Recording manager
+        recordingManager = new RecordingManager(this);
+
         // Camera manager
         cameraManager = new CameraManager(this);
         cameraManager.startUpdateTask();
+        configManager.addReloadListener(cameraManager::onReload);
+
+        // Moves sessions between implementations to keep the tick in budget
+        loadGovernor = new LoadGovernor(this);
+        loadGovernor.start();
+        configManager.addReloadListener(loadGovernor::start);
+
+        // Sneak and scroll camera controls
+        gestureEngine = new GestureEngine(this);
+
+        // Owner skins for fake bodies, sized from the config again after a reload
+        skinCache = new SkinCache(this);
+        configManager.addReloadListener(skinCache::onReload);
+
+        // Fake bodies for players who arrive after they were spawned
+        bodySnapshots = new BodySnapshots(this);
+
+        // Player names for commands and tab completion, filled again after a reload
+        playerNameIndex = new PlayerNameIndex();
+        getServer().getOnlinePlayers().forEach(playerNameIndex::add);
+
+        // Hits on fake bodies, started by the first fake player session
+        interactionInterceptor = new InteractionInterceptor(this, cameraManager.getBodyIndex());
     }
 
     /**
@@ -78,6 +205,10 @@ public class RideableCameraPlugin extends JavaPlugin {
                 new PlayerListener(this),
                 this
         );
+        getServer().getPluginManager().registerEvents(
+                new GestureListener(gestureEngine),
+                this
+        );
     }
 
     /**
@@ -103,4 +234,108 @@ public class RideableCameraPlugin extends JavaPlugin {
     public CameraManager getCameraManager() {
         return cameraManager;
     }
+
+    /**
+     * Get player settings manager
+     * @return PlayerSettingsManager instance
+     */
+    public PlayerSettingsManager getSettingsManager() {
+        return settingsManager;
+    }
+
+    /**
+     * Get camera profile manager
+     * @return ProfileManager instance
+     */
+    public ProfileManager getProfileManager() {
+        return profileManager;
+    }
+
+    /**
+     * Get session journal
+     * @return SessionJournal instance
+     */
+    public SessionJournal getSessionJournal() {
+        return sessionJournal;
+    }
+
+    /**
+     * Get metrics registry
+     * @return MetricsRegistry instance
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get packet flight recorder
+     * @return FlightRecorder instance
+     */
+    public FlightRecorder getFlightRecorder() {
+        return flightRecorder;
+    }
+
+    /**
+     * Get gesture engine
+     * @return GestureEngine instance
+     */
+    public GestureEngine getGestureEngine() {
+        return gestureEngine;
+    }
+
+    /**
+     * Get load governor
+     * @return LoadGovernor instance
+     */
+    public LoadGovernor getLoadGovernor() {
+        return loadGovernor;
+    }
+
+    /**
+     * Get skin cache
+     * @return SkinCache instance
+     */
+    public SkinCache getSkinCache() {
+        return skinCache;
+    }
+
+    /**
+     * Get body snapshots
+     * @return BodySnapshots instance
+     */
+    public BodySnapshots getBodySnapshots() {
+        return bodySnapshots;
+    }
+
+    /**
+     * Get player name index
+     * @return PlayerNameIndex instance
+     */
+    public PlayerNameIndex getPlayerNameIndex() {
+        return playerNameIndex;
+    }
+
+    /**
+     * Get interaction interceptor
+     * @return InteractionInterceptor instance
+     */
+    public InteractionInterceptor getInteractionInterceptor() {
+        return interactionInterceptor;
+    }
+
+    /**
+     * Get path manager
+     * @return PathManager instance
+     */
+    public PathManager getPathManager() {
+        return pathManager;
+    }
+
+    /**
+     * Get recording manager
+     * @return RecordingManager instance
+     */
+    public RecordingManager getRecordingManager() {
+        return recordingManager;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package my.pikrew.rideablecamera.camera;
+
+import my.pikrew.rideablecamera.models.CameraSession;
+
+import java.util.Arrays;
+
+/**
+ * Sessions by the entity id of their packet-only body
+ * Open addressing with linear probing over primitive keys. Bodies come and
+ * go on the main thread, which rebuilds the table and publishes it; network
+ * threads read whatever table is current without locking
+ */
+public class BodyIndex {
+
+    private static final int EMPTY = -1;
+
+    /**
+     * One immutable generation of the index
+     */
+    private record Table(int[] keys, CameraSession[] sessions, int size) {
+
+        static final Table EMPTY_TABLE = new Table(empty(8), new CameraSession[8], 0);
+
+        private static int[] empty(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+
+    private volatile Table table = Table.EMPTY_TABLE;
+
+    /**
+     * Find the session owning a body
+     * Safe to call from any thread
+     * @param entityId Entity id of the body
+     * @return Session, or null if the id is not a body
+     */
+    public CameraSession get(int entityId) {
+        Table current = table;
+        int[] keys = current.keys();
+        int mask = keys.length - 1;
+        for (int slot = mix(entityId) & mask; ; slot = (slot + 1) & mask) {
+            int key = keys[slot];
+            if (key == entityId) {
+                return current.sessions()[slot];
+            }
+            if (key == EMPTY) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Register a body (main thread)
+     * @param entityId Entity id of the body
+     * @param session Owning session
+     */
+    public void put(int entityId, CameraSession session) {
+        Table current = table;
+        int size = get(entityId) == null ? current.size() + 1 : current.size();
+        Table next = allocate(size);
+        copy(current, next, entityId);
+        insert(next, entityId, session);
+        table = next;
+    }
+
+    /**
+     * Unregister a body (main thread)
+     * @param entityId Entity id of the body
+     */
+    public void remove(int entityId) {
+        Table current = table;
+        if (get(entityId) == null) {
+            return;
+        }
+
+        Table next = allocate(current.size() - 1);
+        copy(current, next, entityId);
+        table = next;
+    }
+
+    /**
+     * Get the number of registered bodies
+     * @return Body count
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Allocate a table at a load factor of at most one half
+     */
+    private static Table allocate(int size) {
+        if (size == 0) {
+            return Table.EMPTY_TABLE;
+        }
+        int capacity = Math.max(8, Integer.highestOneBit(size) << 2);
+        return new Table(Table.empty(capacity), new CameraSession[capacity], size);
+    }
+
+    /**
+     * Copy every entry except one key
+     */
+    private static void copy(Table from, Table to, int skip) {
+        int[] keys = from.keys();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY && keys[i] != skip) {
+                insert(to, keys[i], from.sessions()[i]);
+            }
+        }
+    }
+
+    private static void insert(Table to, int entityId, CameraSession session) {
+        int[] keys = to.keys();
+        int mask = keys.length - 1;
+        int slot = mix(entityId) & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = entityId;
+        to.sessions()[slot] = session;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,33 @@
+package my.pikrew.rideablecamera.camera;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+
+/**
+ * Service provider of a camera implementation
+ * Listed in META-INF/services and found through ServiceLoader, so the
+ * names can be checked while the config is compiled, before any
+ * implementation is created
+ */
+public interface CameraImplementationProvider {
+
+    /**
+     * Get the name used in the config and in profiles
+     * @return Lower case implementation name
+     */
+    String getName();
+
+    /**
+     * Get the relative per-session cost of the implementation
+     * Sessions are moved to cheaper implementations when the camera tick
+     * goes over budget
+     * @return Cost, higher is more expensive
+     */
+    int getCost();
+
+    /**
+     * Create the implementation, shared by all of its sessions
+     * @param plugin Plugin instance
+     * @return Implementation
+     */
+    ICameraImplementation create(RideableCameraPlugin plugin);
+}
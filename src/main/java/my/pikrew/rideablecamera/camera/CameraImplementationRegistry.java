@@ -0,0 +1,166 @@
+package my.pikrew.rideablecamera.camera;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.config.CameraProfile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Camera implementations by name
+ * Providers are found through ServiceLoader once; each implementation is
+ * created the first time a session asks for it and then shared by all
+ * sessions using it
+ */
+public class CameraImplementationRegistry {
+
+    // Used when nothing else is allowed or known
+    public static final String DEFAULT = "armorstand";
+
+    /**
+     * Providers on the plugin's class path, cheapest first
+     */
+    private static final class Providers {
+
+        private static final Map<String, CameraImplementationProvider> BY_NAME;
+
+        static {
+            List<CameraImplementationProvider> found = new ArrayList<>();
+            for (CameraImplementationProvider provider : ServiceLoader.load(
+                    CameraImplementationProvider.class, CameraImplementationRegistry.class.getClassLoader())) {
+                found.add(provider);
+            }
+            found.sort(Comparator.comparingInt(CameraImplementationProvider::getCost));
+
+            Map<String, CameraImplementationProvider> byName = new LinkedHashMap<>();
+            for (CameraImplementationProvider provider : found) {
+                byName.putIfAbsent(provider.getName().toLowerCase(), provider);
+            }
+            BY_NAME = Collections.unmodifiableMap(byName);
+        }
+    }
+
+    private final RideableCameraPlugin plugin;
+    private final Map<String, ICameraImplementation> instances;
+    private final Map<ICameraImplementation, String> names;
+
+    public CameraImplementationRegistry(RideableCameraPlugin plugin) {
+        this.plugin = plugin;
+        this.instances = new HashMap<>();
+        this.names = new IdentityHashMap<>();
+    }
+
+    /**
+     * Get the names of all known implementations
+     * Safe to call off the main thread, used to validate the config
+     * @return Names, cheapest first
+     */
+    public static Set<String> getNames() {
+        return Providers.BY_NAME.keySet();
+    }
+
+    /**
+     * Check if an implementation is known
+     * @param name Implementation name
+     * @return true if a provider has that name
+     */
+    public static boolean isKnown(String name) {
+        return Providers.BY_NAME.containsKey(name);
+    }
+
+    /**
+     * Get an implementation, creating it on first use
+     * @param name Implementation name
+     * @return Implementation, or null if unknown
+     */
+    public ICameraImplementation get(String name) {
+        ICameraImplementation implementation = instances.get(name);
+        if (implementation != null) {
+            return implementation;
+        }
+
+        CameraImplementationProvider provider = Providers.BY_NAME.get(name);
+        if (provider == null) {
+            return null;
+        }
+
+        implementation = provider.create(plugin);
+        instances.put(name, implementation);
+        names.put(implementation, name);
+        return implementation;
+    }
+
+    /**
+     * Add an implementation created elsewhere under a name
+     * Used by the load simulation to drive a stand-in implementation
+     * @param name Implementation name
+     * @param implementation Implementation
+     */
+    public void put(String name, ICameraImplementation implementation) {
+        instances.put(name, implementation);
+        names.put(implementation, name);
+    }
+
+    /**
+     * Get the registry name of an implementation
+     * @param implementation Implementation
+     * @return Name, or null if it was not created by this registry
+     */
+    public String getName(ICameraImplementation implementation) {
+        return names.get(implementation);
+    }
+
+    /**
+     * Get the relative cost of an implementation
+     * @param name Implementation name
+     * @return Cost, 0 if unknown
+     */
+    public int getCost(String name) {
+        CameraImplementationProvider provider = Providers.BY_NAME.get(name);
+        return provider != null ? provider.getCost() : 0;
+    }
+
+    /**
+     * Choose the implementation of a new session
+     * @param profile The player's profile
+     * @param preferred Configured implementation
+     * @return The preferred one if the profile allows it, else the cheapest allowed one
+     */
+    public String select(CameraProfile profile, String preferred) {
+        if (isKnown(preferred) && profile.allowsImplementation(preferred)) {
+            return preferred;
+        }
+
+        for (String name : Providers.BY_NAME.keySet()) {
+            if (profile.allowsImplementation(name)) {
+                return name;
+            }
+        }
+        return DEFAULT;
+    }
+
+    /**
+     * Find the next cheaper implementation a profile allows
+     * @param name Current implementation
+     * @param profile The player's profile
+     * @return Most expensive allowed implementation below the current one, or null
+     */
+    public String cheaper(String name, CameraProfile profile) {
+        int cost = getCost(name);
+        String best = null;
+        for (CameraImplementationProvider provider : Providers.BY_NAME.values()) {
+            if (provider.getCost() < cost && profile.allowsImplementation(provider.getName())) {
+                best = provider.getName();
+            }
+        }
+        return best;
+    }
+}
@@ -1,15 +1,30 @@
 package my.pikrew.rideablecamera.camera;
 
 import my.pikrew.rideablecamera.RideableCameraPlugin;
-import my.pikrew.rideablecamera.camera.impl.ArmorStandCamera;
-import my.pikrew.rideablecamera.camera.impl.FakePlayerCamera;
-import my.pikrew.rideablecamera.config.ConfigManager;
+import my.pikrew.rideablecamera.config.CameraProfile;
+import my.pikrew.rideablecamera.metrics.FlightRecorder;
+import my.pikrew.rideablecamera.metrics.LatencyHistogram;
+import my.pikrew.rideablecamera.metrics.MetricsRegistry;
+import my.pikrew.rideablecamera.metrics.jfr.CameraSessionEndEvent;
+import my.pikrew.rideablecamera.metrics.jfr.CameraSessionStartEvent;
 import my.pikrew.rideablecamera.models.CameraSession;
+import my.pikrew.rideablecamera.models.Watcher;
+import my.pikrew.rideablecamera.storage.SessionJournal;
 import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -20,23 +35,101 @@ public class CameraManager {
 
     private final RideableCameraPlugin plugin;
     private final Map<UUID, CameraSession> activeSessions;
-    private final ICameraImplementation cameraImpl;
+    private final Map<UUID, Watcher> watchers;
+
+    // Implementations by name, created on first use
+    private final CameraImplementationRegistry registry;
+
+    // Implementation every session must use, null to follow the config
+    private final String override;
+
+    // Configured implementation as of the last reload
+    private String defaultImplementation;
+
+    // Packet-only bodies by entity id, read by the network threads
+    private final BodyIndex bodyIndex;
+
+    // Server ticks since the update task started
+    private long currentTick;
+
+    // Metrics, looked up once
+    private final LatencyHistogram tickTimer;
+    private final LatencyHistogram updateTimer;
+    private final LatencyHistogram watcherTimer;
+    private final LatencyHistogram recordingTimer;
+    private final LatencyHistogram cleanupTimer;
+    private final Map<ICameraImplementation, LatencyHistogram> implementationTimers;
+
+    // Moving average of the whole tick, read by the load governor
+    private double tickAverageNanos;
+
+    // Stamped with the current tick for packet traces
+    private final FlightRecorder flightRecorder;
+
+    // Weight of the newest tick in the moving average
+    private static final double TICK_AVERAGE_WEIGHT = 0.05;
 
     public CameraManager(RideableCameraPlugin plugin) {
+        this(plugin, new CameraImplementationRegistry(plugin), null);
+        plugin.getLogger().info("Default camera implementation: " + defaultImplementation);
+    }
+
+    /**
+     * Create a camera manager with a given implementation
+     * Used by the load simulation to pin every session to one implementation
+     * @param plugin Plugin instance
+     * @param cameraImpl Camera implementation used by every session
+     */
+    public CameraManager(RideableCameraPlugin plugin, ICameraImplementation cameraImpl) {
+        this(plugin, new CameraImplementationRegistry(plugin), cameraImpl.getName());
+        registry.put(override, cameraImpl);
+        plugin.getLogger().info("Using camera implementation: " + cameraImpl.getClass().getSimpleName());
+    }
+
+    private CameraManager(RideableCameraPlugin plugin, CameraImplementationRegistry registry, String override) {
         this.plugin = plugin;
         this.activeSessions = new HashMap<>();
+        this.watchers = new HashMap<>();
+        this.registry = registry;
+        this.override = override;
+        this.defaultImplementation = override != null
+                ? override : plugin.getConfigManager().getCameraImplementation();
+        this.bodyIndex = new BodyIndex();
 
-        // Choose implementation based on config
-        ConfigManager config = plugin.getConfigManager();
-        String implType = config.getCameraImplementation();
+        MetricsRegistry metrics = plugin.getMetrics();
+        metrics.setSessionCount(activeSessions::size);
+        this.tickTimer = metrics.getTickTimer();
+        this.updateTimer = metrics.phase("update");
+        this.watcherTimer = metrics.phase("watchers");
+        this.recordingTimer = metrics.phase("recording");
+        this.cleanupTimer = metrics.phase("cleanup");
+        this.implementationTimers = new IdentityHashMap<>();
+        this.flightRecorder = plugin.getFlightRecorder();
+    }
 
-        if (implType.equalsIgnoreCase("fakeplayer")) {
-            this.cameraImpl = new FakePlayerCamera(plugin);
-        } else {
-            this.cameraImpl = new ArmorStandCamera(plugin);
+    /**
+     * Choose the implementation of a new session
+     * @param player The player
+     * @return Implementation name
+     */
+    private String selectImplementation(Player player) {
+        if (override != null) {
+            return override;
         }
+        CameraProfile profile = plugin.getProfileManager().getProfile(player);
+        return registry.select(profile, plugin.getConfigManager().getCameraImplementation());
+    }
 
-        plugin.getLogger().info("Using camera implementation: " + cameraImpl.getClass().getSimpleName());
+    /**
+     * Create a session with an implementation
+     * @return Session, owned by the implementation that actually created it
+     */
+    private CameraSession createSession(Player player, ICameraImplementation implementation) {
+        CameraSession session = implementation.createSession(player);
+        if (session != null && session.getImplementation() == null) {
+            session.setImplementation(implementation);
+        }
+        return session;
     }
 
     /**
@@ -49,16 +142,35 @@ public class CameraManager {
             return false;
         }
 
+        // Can't watch and ride at the same time
+        stopWatching(player);
+        plugin.getPathManager().stop(player);
+
+        CameraSessionStartEvent event = new CameraSessionStartEvent();
+        event.begin();
+        ICameraImplementation implementation = registry.get(selectImplementation(player));
+
         try {
-            CameraSession session = cameraImpl.createSession(player);
+            // Captured before the implementation changes the player
+            SessionJournal.Entry original = SessionJournal.Entry.of(player);
+            CameraSession session = createSession(player, implementation);
 
             if (session != null) {
                 activeSessions.put(player.getUniqueId(), session);
+                plugin.getSessionJournal().recordStart(original);
+                event.success = true;
                 return true;
             }
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to enable camera for " + player.getName());
             e.printStackTrace();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.player = player.getName();
+                event.implementation = implementation != null ? implementation.getName() : null;
+                event.commit();
+            }
         }
 
         return false;
@@ -76,9 +188,16 @@ public class CameraManager {
             return false;
         }
 
+        CameraSessionEndEvent event = new CameraSessionEndEvent();
+        event.begin();
+
         try {
-            cameraImpl.destroySession(session);
+            plugin.getRecordingManager().stopRecording(player.getUniqueId());
+            releaseWatchers(session);
+            session.getImplementation().destroySession(session);
             activeSessions.remove(player.getUniqueId());
+            plugin.getSessionJournal().recordEnd(player.getUniqueId());
+            commitEnd(event, session, "disabled");
             return true;
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to disable camera for " + player.getName());
@@ -88,6 +207,106 @@ public class CameraManager {
         return false;
     }
 
+    /**
+     * Commit a session end event once the session is torn down
+     */
+    private void commitEnd(CameraSessionEndEvent event, CameraSession session, String reason) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.player = session.getPlayerName();
+            event.implementation = session.getImplementation().getName();
+            event.reason = reason;
+            event.sessionLength = session.getDuration();
+            event.commit();
+        }
+    }
+
+    /**
+     * Move a running session to another implementation
+     * The old body is torn down and a new one built in its place; the
+     * session keeps its settings, watchers, recording and journal entry
+     * @param player The player
+     * @param name Implementation name
+     * @return true if the session now uses that implementation
+     */
+    public boolean migrate(Player player, String name) {
+        CameraSession previous = activeSessions.get(player.getUniqueId());
+        ICameraImplementation implementation = registry.get(name);
+
+        if (previous == null || implementation == null) {
+            return false;
+        }
+        if (previous.getImplementation() == implementation) {
+            return true;
+        }
+
+        try {
+            previous.getImplementation().destroySession(previous);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to tear down camera of " + player.getName() + " for migration");
+        }
+
+        CameraSession session = null;
+        try {
+            session = createSession(player, implementation);
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to move camera of " + player.getName() + " to " + name);
+            e.printStackTrace();
+        }
+
+        if (session == null) {
+            // The player was already restored by the teardown, end the session
+            CameraSessionEndEvent event = new CameraSessionEndEvent();
+            event.begin();
+            plugin.getRecordingManager().stopRecording(player.getUniqueId());
+            releaseWatchers(previous);
+            activeSessions.remove(player.getUniqueId());
+            plugin.getSessionJournal().recordEnd(player.getUniqueId());
+            commitEnd(event, previous, "migration");
+            return false;
+        }
+
+        session.carryOver(previous);
+        activeSessions.put(player.getUniqueId(), session);
+        return true;
+    }
+
+    /**
+     * Move a session off an implementation its new profile doesn't allow
+     * @param player The player
+     * @param session The player's session, already on the new profile
+     */
+    public void onProfileChanged(Player player, CameraSession session) {
+        String current = getImplementationName(session);
+        if (override != null || current == null || session.getProfile().allowsImplementation(current)) {
+            return;
+        }
+
+        migrate(player, selectImplementation(player));
+    }
+
+    /**
+     * Move sessions on the old default implementation after a reload changed it
+     * Sessions a profile or the load governor put elsewhere are left alone
+     */
+    public void onReload() {
+        String configured = plugin.getConfigManager().getCameraImplementation();
+        if (override != null || configured.equals(defaultImplementation)) {
+            return;
+        }
+
+        String previous = defaultImplementation;
+        defaultImplementation = configured;
+        plugin.getLogger().info("Default camera implementation changed to " + configured);
+
+        for (CameraSession session : new ArrayList<>(activeSessions.values())) {
+            Player player = session.getPlayer();
+            if (player != null && previous.equals(getImplementationName(session))) {
+                migrate(player, registry.select(session.getProfile(), configured));
+            }
+        }
+    }
+
     /**
      * Toggle camera for a player
      * @param player The player
@@ -112,6 +331,39 @@ public class CameraManager {
         return activeSessions.containsKey(player.getUniqueId());
     }
 
+    /**
+     * Get the camera implementation registry
+     * @return Registry
+     */
+    public CameraImplementationRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Get the registry name of a session's implementation
+     * @param session The session
+     * @return Name, or null if the implementation is not registered
+     */
+    public String getImplementationName(CameraSession session) {
+        return registry.getName(session.getImplementation());
+    }
+
+    /**
+     * Get the moving average of the camera tick
+     * @return Average in microseconds
+     */
+    public double getTickAverageMicros() {
+        return tickAverageNanos / 1000.0;
+    }
+
+    /**
+     * Get the index of packet-only bodies
+     * @return Sessions by body entity id
+     */
+    public BodyIndex getBodyIndex() {
+        return bodyIndex;
+    }
+
     /**
      * Get camera session for a player
      * @param player The player
@@ -129,6 +381,154 @@ public class CameraManager {
         return new HashMap<>(activeSessions);
     }
 
+    /**
+     * Restore a player left in camera mode by a crash
+     * Uses the state saved in the session journal by the previous run
+     * @param player The player
+     * @return true if the player was restored
+     */
+    public boolean restoreCrashedSession(Player player) {
+        SessionJournal journal = plugin.getSessionJournal();
+        SessionJournal.Entry entry = journal.getOpenSession(player.getUniqueId());
+
+        if (entry == null || isActive(player)) {
+            return false;
+        }
+
+        // Only remove the invisibility the camera gave, not a potion's
+        PotionEffect invisibility = player.getPotionEffect(PotionEffectType.INVISIBILITY);
+        if (invisibility != null && (invisibility.isInfinite() || invisibility.getDuration() > 1000000)) {
+            player.removePotionEffect(PotionEffectType.INVISIBILITY);
+        }
+
+        player.setSpectatorTarget(null);
+        player.setGameMode(entry.gameMode());
+
+        World world = Bukkit.getWorld(entry.world());
+        if (world != null) {
+            player.teleport(new Location(world, entry.x(), entry.y(), entry.z(), entry.yaw(), entry.pitch()));
+        }
+
+        if (entry.flying() && player.getAllowFlight()) {
+            player.setFlying(true);
+        }
+
+        journal.recordEnd(player.getUniqueId());
+        return true;
+    }
+
+    /**
+     * Start watching another player's camera
+     * @param watcher The watching player
+     * @param target The player whose camera is watched
+     * @return true if successful
+     */
+    public boolean startWatching(Player watcher, Player target) {
+        CameraSession session = activeSessions.get(target.getUniqueId());
+
+        if (session == null || watcher.equals(target) || isActive(watcher)) {
+            return false;
+        }
+
+        // Switch targets if already watching
+        stopWatching(watcher);
+
+        Watcher state = new Watcher(watcher, target.getUniqueId());
+        watchers.put(watcher.getUniqueId(), state);
+        session.getWatchers().add(state);
+
+        watcher.setGameMode(GameMode.SPECTATOR);
+        Entity rig = session.getCameraRig();
+        watcher.teleport(rig.getLocation());
+        watcher.setSpectatorTarget(rig);
+
+        return true;
+    }
+
+    /**
+     * Stop watching and restore the watcher
+     * @param watcher The watching player
+     * @return true if the player was watching
+     */
+    public boolean stopWatching(Player watcher) {
+        Watcher state = watchers.remove(watcher.getUniqueId());
+
+        if (state == null) {
+            return false;
+        }
+
+        CameraSession session = activeSessions.get(state.getTargetUUID());
+        if (session != null) {
+            session.getWatchers().remove(state);
+        }
+
+        restoreWatcher(watcher, state);
+        return true;
+    }
+
+    /**
+     * Check if a player is watching someone else's camera
+     * @param player The player
+     * @return true if watching
+     */
+    public boolean isWatching(Player player) {
+        return watchers.containsKey(player.getUniqueId());
+    }
+
+    /**
+     * Keep every watcher locked onto the session's camera rig
+     * The rig is moved once per tick by the owner's update, so the server
+     * only has to send the rig's movement to each watcher
+     */
+    private void updateWatchers(CameraSession session) {
+        Entity rig = session.getCameraRig();
+        Iterator<Watcher> iterator = session.getWatchers().iterator();
+
+        while (iterator.hasNext()) {
+            Watcher state = iterator.next();
+            Player watcher = Bukkit.getPlayer(state.getWatcherUUID());
+
+            if (watcher == null || !watcher.isOnline()) {
+                iterator.remove();
+                watchers.remove(state.getWatcherUUID());
+                continue;
+            }
+
+            if (watcher.getSpectatorTarget() != rig) {
+                if (watcher.getGameMode() != GameMode.SPECTATOR) {
+                    watcher.setGameMode(GameMode.SPECTATOR);
+                }
+                watcher.setSpectatorTarget(rig);
+            }
+        }
+    }
+
+    /**
+     * Release all watchers of a session that is ending
+     */
+    private void releaseWatchers(CameraSession session) {
+        List<Watcher> sessionWatchers = new ArrayList<>(session.getWatchers());
+        session.getWatchers().clear();
+
+        for (Watcher state : sessionWatchers) {
+            watchers.remove(state.getWatcherUUID());
+
+            Player watcher = Bukkit.getPlayer(state.getWatcherUUID());
+            if (watcher != null && watcher.isOnline()) {
+                restoreWatcher(watcher, state);
+            }
+        }
+    }
+
+    /**
+     * Restore a watcher's original state
+     */
+    private void restoreWatcher(Player watcher, Watcher state) {
+        watcher.setSpectatorTarget(null);
+        watcher.setGameMode(state.getOriginalGameMode());
+        watcher.teleport(state.getOriginalLocation());
+    }
+
     /**
      * Disable all active cameras
      */
@@ -141,13 +541,18 @@ public class CameraManager {
                 // Player offline, force cleanup
                 CameraSession session = activeSessions.get(uuid);
                 if (session != null) {
+                    CameraSessionEndEvent event = new CameraSessionEndEvent();
+                    event.begin();
+                    releaseWatchers(session);
                     try {
-                        cameraImpl.destroySession(session);
+                        session.getImplementation().destroySession(session);
                     } catch (Exception e) {
                         plugin.getLogger().warning("Failed to cleanup session for UUID: " + uuid);
                     }
+                    commitEnd(event, session, "shutdown");
                 }
                 activeSessions.remove(uuid);
+                plugin.getSessionJournal().recordEnd(uuid);
             }
         }
     }
@@ -166,27 +571,87 @@ public class CameraManager {
 
     /**
      * Update all active cameras
+     * Each phase is timed into the metrics registry
      */
     private void updateAllCameras() {
-        for (Map.Entry<UUID, CameraSession> entry : activeSessions.entrySet()) {
+        long tickStart = System.nanoTime();
+        long updateNanos = 0;
+        long watcherNanos = 0;
+        long recordingNanos = 0;
+        currentTick++;
+        flightRecorder.setTick(currentTick);
+
+        Iterator<Map.Entry<UUID, CameraSession>> iterator = activeSessions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, CameraSession> entry = iterator.next();
             Player player = Bukkit.getPlayer(entry.getKey());
 
             if (player == null || !player.isOnline()) {
                 // Player left, cleanup
+                long cleanupStart = System.nanoTime();
+                CameraSessionEndEvent event = new CameraSessionEndEvent();
+                event.begin();
+                plugin.getRecordingManager().stopRecording(entry.getKey());
+                releaseWatchers(entry.getValue());
                 try {
-                    cameraImpl.destroySession(entry.getValue());
+                    entry.getValue().getImplementation().destroySession(entry.getValue());
                 } catch (Exception e) {
                     plugin.getLogger().warning("Failed to cleanup session for offline player");
                 }
-                activeSessions.remove(entry.getKey());
+                iterator.remove();
+                plugin.getSessionJournal().recordEnd(entry.getKey());
+                commitEnd(event, entry.getValue(), "offline");
+                cleanupTimer.record(System.nanoTime() - cleanupStart);
                 continue;
             }
 
             try {
-                cameraImpl.updateSession(entry.getValue(), player);
+                CameraSession session = entry.getValue();
+
+                // Profiles with a lower update rate skip ticks; recordings still get every tick
+                if (session.isUpdateDue(currentTick)) {
+                    session.tick();
+                    ICameraImplementation implementation = session.getImplementation();
+                    long updateStart = System.nanoTime();
+                    implementation.updateSession(session, player);
+                    long updated = System.nanoTime();
+                    implementationTimer(implementation).record(updated - updateStart);
+                    updateNanos += updated - updateStart;
+
+                    // Fan the computed camera out to watchers
+                    if (!session.getWatchers().isEmpty()) {
+                        updateWatchers(session);
+                        watcherNanos += System.nanoTime() - updated;
+                    }
+                }
+
+                long captureStart = System.nanoTime();
+                plugin.getRecordingManager().capture(session, player, session.getImplementation());
+                recordingNanos += System.nanoTime() - captureStart;
             } catch (Exception e) {
                 plugin.getLogger().warning("Failed to update camera for " + player.getName());
             }
         }
+
+        if (!activeSessions.isEmpty()) {
+            updateTimer.record(updateNanos);
+            watcherTimer.record(watcherNanos);
+            recordingTimer.record(recordingNanos);
+        }
+        long tickNanos = System.nanoTime() - tickStart;
+        tickTimer.record(tickNanos);
+        tickAverageNanos += (tickNanos - tickAverageNanos) * TICK_AVERAGE_WEIGHT;
+    }
+
+    /**
+     * Get the update timer of an implementation
+     */
+    private LatencyHistogram implementationTimer(ICameraImplementation implementation) {
+        LatencyHistogram timer = implementationTimers.get(implementation);
+        if (timer == null) {
+            timer = plugin.getMetrics().implementation(implementation.getName());
+            implementationTimers.put(implementation, timer);
+        }
+        return timer;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package my.pikrew.rideablecamera.camera;
 
 import my.pikrew.rideablecamera.models.CameraSession;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
 /**
@@ -29,6 +30,13 @@ public interface ICameraImplementation {
      */
     void destroySession(CameraSession session);
 
+    /**
+     * Get the current location of the session's body
+     * @param session The session
+     * @return Body location or null if the body is gone
+     */
+    Location getBodyLocation(CameraSession session);
+
     /**
      * Get the name of this implementation
      * @return Implementation name
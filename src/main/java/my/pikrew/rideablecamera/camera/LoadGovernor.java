@@ -0,0 +1,176 @@
+package my.pikrew.rideablecamera.camera;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.config.GovernorSettings;
+import my.pikrew.rideablecamera.models.CameraSession;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the camera tick inside its budget
+ * When the average tick runs over budget the costliest sessions are moved
+ * to the next cheaper implementation their profile allows. Once the tick
+ * is well below budget again they are moved back, as many as the measured
+ * cost of their implementation leaves room for
+ */
+public class LoadGovernor {
+
+    private final RideableCameraPlugin plugin;
+
+    // Implementation each downgraded session had before, by player
+    private final Map<UUID, String> downgraded;
+
+    private BukkitTask task;
+    private int interval;
+
+    public LoadGovernor(RideableCameraPlugin plugin) {
+        this.plugin = plugin;
+        this.downgraded = new HashMap<>();
+    }
+
+    /**
+     * Start checking, or restart with a changed interval after a reload
+     */
+    public void start() {
+        int checkInterval = plugin.getConfigManager().getGovernor().checkInterval();
+        if (task != null) {
+            if (checkInterval == interval) {
+                return;
+            }
+            task.cancel();
+        }
+
+        interval = checkInterval;
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::check, interval, interval);
+    }
+
+    /**
+     * Stop checking
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        downgraded.clear();
+    }
+
+    /**
+     * Forget a session the player moved themselves or ended
+     * @param playerUUID Player UUID
+     */
+    public void forget(UUID playerUUID) {
+        downgraded.remove(playerUUID);
+    }
+
+    /**
+     * Get the number of sessions running on a cheaper implementation
+     * @return Downgraded sessions
+     */
+    public int getDowngradedCount() {
+        return downgraded.size();
+    }
+
+    private void check() {
+        GovernorSettings settings = plugin.getConfigManager().getGovernor();
+        CameraManager cameraManager = plugin.getCameraManager();
+        double average = cameraManager.getTickAverageMicros();
+
+        // Sessions that ended no longer need to be moved back
+        downgraded.keySet().removeIf(uuid -> {
+            Player player = plugin.getServer().getPlayer(uuid);
+            return player == null || cameraManager.getSession(player) == null;
+        });
+
+        if (settings.enabled() && average > settings.budgetMicros()) {
+            downgrade(cameraManager, settings.sessionsPerCheck());
+        } else if (!downgraded.isEmpty()
+                && (!settings.enabled() || average < settings.budgetMicros() * settings.recoverBelow())) {
+            double headroom = settings.enabled()
+                    ? settings.budgetMicros() * settings.recoverBelow() - average
+                    : Double.MAX_VALUE;
+            upgrade(cameraManager, settings.sessionsPerCheck(), headroom);
+        }
+    }
+
+    /**
+     * Move the costliest sessions one step down
+     */
+    private void downgrade(CameraManager cameraManager, int limit) {
+        CameraImplementationRegistry registry = cameraManager.getRegistry();
+
+        List<CameraSession> candidates = new ArrayList<>();
+        for (CameraSession session : cameraManager.getActiveSessions().values()) {
+            String name = cameraManager.getImplementationName(session);
+            if (name != null && registry.cheaper(name, session.getProfile()) != null) {
+                candidates.add(session);
+            }
+        }
+        candidates.sort((a, b) -> Integer.compare(
+                registry.getCost(cameraManager.getImplementationName(b)),
+                registry.getCost(cameraManager.getImplementationName(a))));
+
+        int moved = 0;
+        for (CameraSession session : candidates) {
+            if (moved >= limit) {
+                break;
+            }
+
+            Player player = session.getPlayer();
+            String name = cameraManager.getImplementationName(session);
+            if (player != null && cameraManager.migrate(player, registry.cheaper(name, session.getProfile()))) {
+                downgraded.putIfAbsent(player.getUniqueId(), name);
+                moved++;
+            }
+        }
+
+        if (moved > 0) {
+            plugin.getLogger().info("Camera tick over budget, moved " + moved
+                    + " session(s) to a cheaper implementation");
+        }
+    }
+
+    /**
+     * Move downgraded sessions back while their measured cost fits the headroom
+     */
+    private void upgrade(CameraManager cameraManager, int limit, double headroom) {
+        CameraImplementationRegistry registry = cameraManager.getRegistry();
+        Iterator<Map.Entry<UUID, String>> iterator = downgraded.entrySet().iterator();
+        int moved = 0;
+
+        while (iterator.hasNext() && moved < limit) {
+            Map.Entry<UUID, String> entry = iterator.next();
+            Player player = plugin.getServer().getPlayer(entry.getKey());
+            CameraSession session = player != null ? cameraManager.getSession(player) : null;
+            ICameraImplementation current = session != null ? session.getImplementation() : null;
+            ICameraImplementation original = registry.get(entry.getValue());
+
+            // The player left or ended their camera since the downgrade
+            if (current == null || original == null) {
+                iterator.remove();
+                continue;
+            }
+
+            // Extra cost of one session going back, from the implementation timers
+            double cost = plugin.getMetrics().implementation(original.getName()).getMeanMicros()
+                    - plugin.getMetrics().implementation(current.getName()).getMeanMicros();
+            if (cost > headroom) {
+                break;
+            }
+
+            iterator.remove();
+            if (session.getProfile().allowsImplementation(entry.getValue())
+                    && cameraManager.migrate(player, entry.getValue())) {
+                headroom -= Math.max(cost, 0);
+                moved++;
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package my.pikrew.rideablecamera.camera;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.config.CameraProfile;
+import my.pikrew.rideablecamera.config.ConfigSnapshot;
+import my.pikrew.rideablecamera.models.CameraSession;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resolves camera profiles from permission nodes
+ * Permissions are only checked when a player's profile is first needed;
+ * the result is cached until the player's permissions change or the
+ * config is reloaded
+ */
+public class ProfileManager {
+
+    private final RideableCameraPlugin plugin;
+    private final Map<UUID, CameraProfile> resolved;
+
+    public ProfileManager(RideableCameraPlugin plugin) {
+        this.plugin = plugin;
+        this.resolved = new HashMap<>();
+    }
+
+    /**
+     * Get the profile of a player, resolving it if needed
+     * @param player The player
+     * @return Profile, never null
+     */
+    public CameraProfile getProfile(Player player) {
+        CameraProfile profile = resolved.get(player.getUniqueId());
+
+        if (profile == null) {
+            profile = resolve(player);
+            resolved.put(player.getUniqueId(), profile);
+        }
+
+        return profile;
+    }
+
+    /**
+     * Forget a player's profile after their permissions changed
+     * An active session is moved to the newly resolved profile right away,
+     * and to another implementation if that profile doesn't allow its own
+     * @param player The player
+     */
+    public void invalidate(Player player) {
+        if (resolved.remove(player.getUniqueId()) == null) {
+            return;
+        }
+
+        CameraSession session = plugin.getCameraManager().getSession(player);
+        if (session != null) {
+            applyProfile(player, session);
+        }
+    }
+
+    /**
+     * Forget every cached profile, e.g. after a reload
+     * Active sessions are resolved again right away
+     */
+    public void invalidateAll() {
+        resolved.clear();
+
+        // Migrations replace sessions in the map
+        for (CameraSession session : new ArrayList<>(plugin.getCameraManager().getActiveSessions().values())) {
+            Player player = Bukkit.getPlayer(session.getPlayerUUID());
+            if (player != null) {
+                applyProfile(player, session);
+            }
+        }
+    }
+
+    /**
+     * Move an active session to the player's current profile
+     */
+    private void applyProfile(Player player, CameraSession session) {
+        session.setProfile(getProfile(player));
+        plugin.getCameraManager().onProfileChanged(player, session);
+    }
+
+    /**
+     * Drop a player's cached profile
+     * @param uuid Player UUID
+     */
+    public void unload(UUID uuid) {
+        resolved.remove(uuid);
+    }
+
+    /**
+     * Pick the highest priority profile the player has permission for
+     */
+    private CameraProfile resolve(Player player) {
+        ConfigSnapshot snapshot = plugin.getConfigManager().getSnapshot();
+
+        for (CameraProfile profile : snapshot.profiles()) {
+            if (player.hasPermission(profile.permission())) {
+                return profile;
+            }
+        }
+
+        return snapshot.defaultProfile();
+    }
+}
@@ -0,0 +1,224 @@
+package my.pikrew.rideablecamera.camera.boom;
+
+import my.pikrew.rideablecamera.models.CameraSettings;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Third-person camera boom with occlusion avoidance
+ * Casts a ray from the body's eyes to the desired camera point and pulls the
+ * camera in when a block is in the way. The ray is only recast when the body
+ * changes block cell, the view direction changes bucket or the settings change
+ */
+public class CameraBoom {
+
+    // Eye height of a standing player
+    public static final double EYE_HEIGHT = 1.62;
+
+    // Keep the camera this far in front of the first solid block
+    private static final double PADDING = 0.25;
+
+    // View direction buckets (256 yaw steps, 128 pitch steps)
+    private static final float YAW_BUCKET = 360.0F / 256.0F;
+    private static final float PITCH_BUCKET = 180.0F / 128.0F;
+
+    // Drop cached blocks every 2 seconds so world edits are noticed
+    private static final int REFRESH_TICKS = 40;
+
+    private final SolidityBitmap bitmap = new SolidityBitmap();
+
+    // Cached raycast result
+    private long cachedKey = Long.MIN_VALUE;
+    private int cachedEpoch = -1;
+    private double cachedDistance;
+    private double cachedHeight;
+    private double cachedSideOffset;
+    private double cachedFraction = 1.0;
+
+    // Smoothed boom length (fraction of the full boom)
+    private double currentFraction = -1.0;
+    private int ticks;
+
+    /**
+     * Compute the camera position for a body pose
+     * @param body Body location (feet)
+     * @param yaw View yaw
+     * @param pitch View pitch
+     * @param settings Camera settings
+     * @param out Location to write the result to
+     * @return out, for chaining
+     */
+    public Location compute(Location body, float yaw, float pitch, CameraSettings settings, Location out) {
+        World world = body.getWorld();
+
+        if (++ticks >= REFRESH_TICKS) {
+            ticks = 0;
+            bitmap.invalidate();
+        }
+
+        double yawRad = Math.toRadians(yaw);
+        double pitchRad = Math.toRadians(pitch);
+        double sinYaw = Math.sin(yawRad);
+        double cosYaw = Math.cos(yawRad);
+        double cosPitch = Math.cos(pitchRad);
+
+        // Look direction and right-hand side of the view
+        double lookX = -sinYaw * cosPitch;
+        double lookY = -Math.sin(pitchRad);
+        double lookZ = cosYaw * cosPitch;
+        double rightX = -cosYaw;
+        double rightZ = -sinYaw;
+
+        // Boom pivot at eye level
+        double pivotX = body.getX();
+        double pivotY = body.getY() + EYE_HEIGHT;
+        double pivotZ = body.getZ();
+
+        // Desired camera point behind the body
+        double distance = settings.getDistance();
+        double side = settings.getSideOffset();
+        double boomX = -lookX * distance + rightX * side;
+        double boomY = -lookY * distance + settings.getHeight() - EYE_HEIGHT;
+        double boomZ = -lookZ * distance + rightZ * side;
+
+        double fraction = resolveFraction(world, pivotX, pivotY, pivotZ,
+                boomX, boomY, boomZ, yaw, pitch, settings);
+
+        // Pull in immediately, ease back out using smoothness
+        if (currentFraction < 0 || fraction <= currentFraction) {
+            currentFraction = fraction;
+        } else {
+            double smoothness = settings.getSmoothness();
+            currentFraction += (fraction - currentFraction) * (smoothness <= 0 ? 1.0 : smoothness);
+        }
+
+        out.setWorld(world);
+        out.setX(pivotX + boomX * currentFraction);
+        out.setY(pivotY + boomY * currentFraction);
+        out.setZ(pivotZ + boomZ * currentFraction);
+        out.setYaw(yaw);
+        out.setPitch(pitch);
+        return out;
+    }
+
+    /**
+     * Drop all cached state, e.g. after a teleport
+     */
+    public void reset() {
+        cachedKey = Long.MIN_VALUE;
+        currentFraction = -1.0;
+        bitmap.invalidate();
+    }
+
+    /**
+     * Get the cached boom fraction, raycasting only when the key changed
+     */
+    private double resolveFraction(World world, double pivotX, double pivotY, double pivotZ,
+                                   double boomX, double boomY, double boomZ,
+                                   float yaw, float pitch, CameraSettings settings) {
+        int cellX = floor(pivotX);
+        int cellY = floor(pivotY);
+        int cellZ = floor(pivotZ);
+
+        bitmap.recenter(world, cellX, cellY, cellZ);
+
+        long key = packKey(cellX, cellY, cellZ, yaw, pitch);
+        if (key == cachedKey
+                && cachedEpoch == bitmap.getEpoch()
+                && cachedDistance == settings.getDistance()
+                && cachedHeight == settings.getHeight()
+                && cachedSideOffset == settings.getSideOffset()) {
+            return cachedFraction;
+        }
+
+        double length = Math.sqrt(boomX * boomX + boomY * boomY + boomZ * boomZ);
+        double fraction = 1.0;
+
+        if (length > 1.0E-4) {
+            double hit = raycast(pivotX, pivotY, pivotZ,
+                    boomX / length, boomY / length, boomZ / length, length);
+            if (hit < length) {
+                fraction = Math.max(0.0, hit - PADDING) / length;
+            }
+        }
+
+        cachedKey = key;
+        cachedEpoch = bitmap.getEpoch();
+        cachedDistance = settings.getDistance();
+        cachedHeight = settings.getHeight();
+        cachedSideOffset = settings.getSideOffset();
+        cachedFraction = fraction;
+        return fraction;
+    }
+
+    /**
+     * Walk the voxels along a ray (Amanatides-Woo)
+     * @return Distance to the first solid block, or maxDistance if none
+     */
+    private double raycast(double x, double y, double z,
+                           double dirX, double dirY, double dirZ, double maxDistance) {
+        int cellX = floor(x);
+        int cellY = floor(y);
+        int cellZ = floor(z);
+
+        int stepX = dirX > 0 ? 1 : -1;
+        int stepY = dirY > 0 ? 1 : -1;
+        int stepZ = dirZ > 0 ? 1 : -1;
+
+        double deltaX = dirX == 0 ? Double.POSITIVE_INFINITY : Math.abs(1.0 / dirX);
+        double deltaY = dirY == 0 ? Double.POSITIVE_INFINITY : Math.abs(1.0 / dirY);
+        double deltaZ = dirZ == 0 ? Double.POSITIVE_INFINITY : Math.abs(1.0 / dirZ);
+
+        double maxX = dirX == 0 ? Double.POSITIVE_INFINITY
+                : (stepX > 0 ? cellX + 1 - x : x - cellX) * deltaX;
+        double maxY = dirY == 0 ? Double.POSITIVE_INFINITY
+                : (stepY > 0 ? cellY + 1 - y : y - cellY) * deltaY;
+        double maxZ = dirZ == 0 ? Double.POSITIVE_INFINITY
+                : (stepZ > 0 ? cellZ + 1 - z : z - cellZ) * deltaZ;
+
+        // The body's own cell never blocks
+        while (true) {
+            double t;
+            if (maxX < maxY && maxX < maxZ) {
+                t = maxX;
+                cellX += stepX;
+                maxX += deltaX;
+            } else if (maxY < maxZ) {
+                t = maxY;
+                cellY += stepY;
+                maxY += deltaY;
+            } else {
+                t = maxZ;
+                cellZ += stepZ;
+                maxZ += deltaZ;
+            }
+
+            if (t > maxDistance) {
+                return maxDistance;
+            }
+
+            if (bitmap.isSolid(cellX, cellY, cellZ)) {
+                return t;
+            }
+        }
+    }
+
+    /**
+     * Pack body cell and view direction bucket into one key
+     */
+    private static long packKey(int cellX, int cellY, int cellZ, float yaw, float pitch) {
+        long yawBucket = ((int) Math.floor(yaw / YAW_BUCKET)) & 0xFF;
+        long pitchBucket = ((int) Math.floor((pitch + 90.0F) / PITCH_BUCKET)) & 0xFF;
+
+        return ((long) (cellX & 0x3FFF) << 50)
+                | ((long) (cellZ & 0x3FFF) << 36)
+                | ((long) (cellY & 0xFFF) << 24)
+                | (yawBucket << 16)
+                | (pitchBucket << 8);
+    }
+
+    private static int floor(double value) {
+        int i = (int) value;
+        return value < i ? i - 1 : i;
+    }
+}
@@ -0,0 +1,117 @@
+package my.pikrew.rideablecamera.camera.boom;
+
+import org.bukkit.World;
+
+import java.util.Arrays;
+
+/**
+ * Per-session cache of block solidity around the camera body
+ * Covers a 32x32x32 block region and is filled lazily, one block at a time,
+ * the first time a raycast touches it
+ */
+public class SolidityBitmap {
+
+    private static final int SHIFT = 5;
+    private static final int SIZE = 1 << SHIFT;
+    private static final int MASK = SIZE - 1;
+    private static final int WORDS = (SIZE * SIZE * SIZE) >>> 6;
+
+    // Keep this many blocks between the body and the region edge before recentering
+    private static final int MARGIN = 12;
+
+    private final long[] known = new long[WORDS];
+    private final long[] solid = new long[WORDS];
+
+    private World world;
+    private int originX;
+    private int originY;
+    private int originZ;
+    private int epoch;
+
+    /**
+     * Make sure the region covers the given block, recentering if needed
+     * @param world World the body is in
+     * @param x Block X
+     * @param y Block Y
+     * @param z Block Z
+     */
+    public void recenter(World world, int x, int y, int z) {
+        if (this.world == world
+                && x - originX >= MARGIN && originX + SIZE - x > MARGIN
+                && y - originY >= MARGIN && originY + SIZE - y > MARGIN
+                && z - originZ >= MARGIN && originZ + SIZE - z > MARGIN) {
+            return;
+        }
+
+        this.world = world;
+        this.originX = x - (SIZE >> 1);
+        this.originY = y - (SIZE >> 1);
+        this.originZ = z - (SIZE >> 1);
+        invalidate();
+    }
+
+    /**
+     * Forget every cached block so changes in the world are picked up again
+     */
+    public void invalidate() {
+        Arrays.fill(known, 0L);
+        Arrays.fill(solid, 0L);
+        epoch++;
+    }
+
+    /**
+     * Check if a block stops the camera
+     * Blocks outside the region or in unloaded chunks count as open
+     * @param x Block X
+     * @param y Block Y
+     * @param z Block Z
+     * @return true if solid
+     */
+    public boolean isSolid(int x, int y, int z) {
+        int lx = x - originX;
+        int ly = y - originY;
+        int lz = z - originZ;
+
+        if ((lx | ly | lz) < 0 || lx > MASK || ly > MASK || lz > MASK || world == null) {
+            return false;
+        }
+
+        int index = (lx << (SHIFT << 1)) | (ly << SHIFT) | lz;
+        int word = index >>> 6;
+        long bit = 1L << index;
+
+        if ((known[word] & bit) == 0) {
+            known[word] |= bit;
+            if (sample(x, y, z)) {
+                solid[word] |= bit;
+            }
+        }
+
+        return (solid[word] & bit) != 0;
+    }
+
+    /**
+     * Get the current cache generation
+     * Changes every time cached blocks are dropped
+     * @return Epoch
+     */
+    public int getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Read a single block from the world
+     */
+    private boolean sample(int x, int y, int z) {
+        if (y < world.getMinHeight() || y >= world.getMaxHeight()) {
+            return false;
+        }
+
+        // Never load chunks just to position a camera
+        if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+            return false;
+        }
+
+        return !world.getBlockAt(x, y, z).isPassable();
+    }
+}
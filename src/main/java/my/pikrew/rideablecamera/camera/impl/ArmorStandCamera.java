@@ -2,11 +2,14 @@ package my.pikrew.rideablecamera.camera.impl;
 
 import my.pikrew.rideablecamera.RideableCameraPlugin;
 import my.pikrew.rideablecamera.camera.ICameraImplementation;
+import my.pikrew.rideablecamera.metrics.jfr.CameraUpdateEvent;
+import my.pikrew.rideablecamera.metrics.jfr.EquipmentSyncEvent;
 import my.pikrew.rideablecamera.models.CameraSession;
 import my.pikrew.rideablecamera.models.CameraSettings;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffect;
@@ -20,17 +23,26 @@ public class ArmorStandCamera implements ICameraImplementation {
 
     private final RideableCameraPlugin plugin;
 
+    // Locations read every tick, reused for every session (main thread only)
+    private final Location playerScratch;
+    private final Location standScratch;
+    private final Location anchorScratch;
+
     public ArmorStandCamera(RideableCameraPlugin plugin) {
         this.plugin = plugin;
+        this.playerScratch = new Location(null, 0, 0, 0);
+        this.standScratch = new Location(null, 0, 0, 0);
+        this.anchorScratch = new Location(null, 0, 0, 0);
     }
 
     @Override
     public CameraSession createSession(Player player) {
-        // Get settings from config
-        CameraSettings settings = plugin.getConfigManager().getDefaultCameraSettings();
+        // Get player's saved settings (or config defaults)
+        CameraSettings settings = plugin.getSettingsManager().getSettings(player);
 
         // Create session
-        CameraSession session = new CameraSession(player, settings);
+        CameraSession session = new CameraSession(player, settings,
+                plugin.getProfileManager().getProfile(player));
 
         // Spawn armor stand
         Location spawnLoc = player.getLocation();
@@ -45,9 +57,16 @@ public class ArmorStandCamera implements ICameraImplementation {
         // Set as camera entity
         session.setCameraEntity(armorStand);
 
+        // Spawn camera anchor behind the armor stand
+        Location anchorLoc = session.getBoom().compute(
+                spawnLoc, spawnLoc.getYaw(), spawnLoc.getPitch(), settings, spawnLoc.clone());
+        ArmorStand anchor = spawnAnchor(anchorLoc);
+        session.setAnchorEntity(anchor);
+
         // Setup player
-        setupPlayer(player, armorStand);
+        setupPlayer(player, armorStand, anchor);
 
+        session.setImplementation(this);
         return session;
     }
 
@@ -57,21 +76,68 @@ public class ArmorStandCamera implements ICameraImplementation {
             return;
         }
 
+        if (!CameraUpdateEvent.GATE.isEnabled()) {
+            update(session, player);
+            return;
+        }
+
+        CameraUpdateEvent event = new CameraUpdateEvent();
+        event.begin();
+
+        boolean moved = update(session, player);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.player = player.getName();
+            event.implementation = getName();
+            event.moved = moved;
+            event.commit();
+        }
+    }
+
+    /**
+     * Turn the armor stand and move the camera anchor for one tick
+     * @return true if the anchor moved
+     */
+    private boolean update(CameraSession session, Player player) {
         ArmorStand armorStand = (ArmorStand) session.getCameraEntity();
 
         // Update armor stand rotation to match player view
-        Location playerLoc = player.getLocation();
+        Location playerLoc = player.getLocation(playerScratch);
         armorStand.setRotation(playerLoc.getYaw(), playerLoc.getPitch());
 
-        // Sync equipment if enabled
-        if (session.getSettings().shouldCopyEquipment()) {
+        // Sync equipment if enabled, less often on lower detail profiles
+        int syncInterval = session.getProfile().getEquipmentSyncInterval(1);
+        if (session.getSettings().shouldCopyEquipment()
+                && syncInterval > 0 && session.getTicks() % syncInterval == 0) {
             syncEquipment(player, armorStand);
         }
 
+        // Move camera anchor, pulled in front of any blocks in the way
+        boolean moved = false;
+        Entity anchor = session.getAnchorEntity();
+        if (anchor != null && anchor.isValid()) {
+            Location anchorLoc = anchor.getLocation(anchorScratch);
+            Location target = session.getBoom().compute(
+                    armorStand.getLocation(standScratch), playerLoc.getYaw(), playerLoc.getPitch(),
+                    session.getSettings(), playerLoc);
+
+            if (anchorLoc.distanceSquared(target) > 1.0E-4
+                    || anchorLoc.getYaw() != target.getYaw()
+                    || anchorLoc.getPitch() != target.getPitch()) {
+                anchor.teleport(target);
+                moved = true;
+            }
+        } else {
+            anchor = armorStand;
+        }
+
         // Keep spectator target locked
-        if (player.getSpectatorTarget() != armorStand) {
-            player.setSpectatorTarget(armorStand);
+        if (player.getSpectatorTarget() != anchor) {
+            player.setSpectatorTarget(anchor);
         }
+
+        return moved;
     }
 
     @Override
@@ -110,9 +176,21 @@ public class ArmorStandCamera implements ICameraImplementation {
             armorStand.remove();
         }
 
+        // Remove camera anchor
+        Entity anchor = session.getAnchorEntity();
+        if (anchor != null && anchor.isValid()) {
+            anchor.remove();
+        }
+
         session.setActive(false);
     }
 
+    @Override
+    public Location getBodyLocation(CameraSession session) {
+        Entity armorStand = session.getCameraEntity();
+        return armorStand != null && armorStand.isValid() ? armorStand.getLocation() : null;
+    }
+
     @Override
     public String getName() {
         return "ArmorStand";
@@ -144,10 +222,33 @@ public class ArmorStandCamera implements ICameraImplementation {
         }
     }
 
+    /**
+     * Spawn an invisible camera anchor for players to spectate
+     * @param location Anchor location
+     * @return Anchor armor stand
+     */
+    public static ArmorStand spawnAnchor(Location location) {
+        ArmorStand anchor = (ArmorStand) location.getWorld().spawnEntity(
+                location,
+                EntityType.ARMOR_STAND
+        );
+
+        anchor.setVisible(false);
+        anchor.setGravity(false);
+        anchor.setInvulnerable(true);
+        anchor.setMarker(true);
+        anchor.setSmall(true);
+        anchor.setSilent(true);
+        anchor.setCustomNameVisible(false);
+        anchor.setPersistent(false);
+
+        return anchor;
+    }
+
     /**
      * Setup player for camera mode
      */
-    private void setupPlayer(Player player, ArmorStand armorStand) {
+    private void setupPlayer(Player player, ArmorStand armorStand, ArmorStand anchor) {
         // Make player invisible
         player.addPotionEffect(new PotionEffect(
                 PotionEffectType.INVISIBILITY,
@@ -163,14 +264,36 @@ public class ArmorStandCamera implements ICameraImplementation {
         // Set spectator mode
         player.setGameMode(GameMode.SPECTATOR);
 
-        // Set spectator target
-        player.setSpectatorTarget(armorStand);
+        // Spectate the anchor for a third-person view
+        player.setSpectatorTarget(anchor);
     }
 
     /**
      * Sync equipment from player to armor stand
      */
     private void syncEquipment(Player player, ArmorStand armorStand) {
+        if (!EquipmentSyncEvent.GATE.isEnabled()) {
+            copyEquipment(player, armorStand);
+            return;
+        }
+
+        EquipmentSyncEvent event = new EquipmentSyncEvent();
+        event.begin();
+
+        copyEquipment(player, armorStand);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.player = player.getName();
+            event.implementation = getName();
+            event.commit();
+        }
+    }
+
+    /**
+     * Put the player's armor and held items on the armor stand
+     */
+    private static void copyEquipment(Player player, ArmorStand armorStand) {
         armorStand.getEquipment().setHelmet(player.getInventory().getHelmet());
         armorStand.getEquipment().setChestplate(player.getInventory().getChestplate());
         armorStand.getEquipment().setLeggings(player.getInventory().getLeggings());
@@ -178,4 +301,4 @@ public class ArmorStandCamera implements ICameraImplementation {
         armorStand.getEquipment().setItemInMainHand(player.getInventory().getItemInMainHand());
         armorStand.getEquipment().setItemInOffHand(player.getInventory().getItemInOffHand());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package my.pikrew.rideablecamera.camera.impl;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.camera.CameraImplementationProvider;
+import my.pikrew.rideablecamera.camera.ICameraImplementation;
+
+/**
+ * Provides the ArmorStand camera
+ * Two server-side entities moved by the server, the cheapest option
+ */
+public class ArmorStandProvider implements CameraImplementationProvider {
+
+    @Override
+    public String getName() {
+        return "armorstand";
+    }
+
+    @Override
+    public int getCost() {
+        return 1;
+    }
+
+    @Override
+    public ICameraImplementation create(RideableCameraPlugin plugin) {
+        return new ArmorStandCamera(plugin);
+    }
+}
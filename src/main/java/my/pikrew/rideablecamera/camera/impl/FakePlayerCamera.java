@@ -1,19 +1,30 @@
 package my.pikrew.rideablecamera.camera.impl;
 
 import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.camera.CameraImplementationRegistry;
 import my.pikrew.rideablecamera.camera.ICameraImplementation;
+import my.pikrew.rideablecamera.config.CameraProfile;
 import my.pikrew.rideablecamera.controller.MovementController;
+import my.pikrew.rideablecamera.metrics.jfr.CameraBroadcastEvent;
+import my.pikrew.rideablecamera.metrics.jfr.CameraUpdateEvent;
+import my.pikrew.rideablecamera.metrics.jfr.EquipmentSyncEvent;
 import my.pikrew.rideablecamera.models.CameraSession;
 import my.pikrew.rideablecamera.models.CameraSettings;
 import my.pikrew.rideablecamera.nms.FakePlayerEntity;
+import my.pikrew.rideablecamera.nms.NMSUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
+import org.bukkit.Input;
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -27,66 +38,53 @@ public class FakePlayerCamera implements ICameraImplementation {
     private final RideableCameraPlugin plugin;
     private final Map<UUID, FakePlayerEntity> fakePlayerMap;
     private final Map<UUID, MovementController> movementControllers;
-    private final Map<UUID, Location> lastPlayerLocations;
-    private final ArmorStandCamera fallback;
+
+    // Viewers of the body being updated, refilled for every session (main thread only)
+    private final List<Player> viewerBuffer;
+
+    // Player, body and anchor locations of the session being updated (main thread only)
+    private final Location playerScratch;
+    private final Location bodyScratch;
+    private final Location anchorScratch;
+
+    // Looked up when a session first needs it
+    private ICameraImplementation fallback;
+    private boolean probed;
 
     public FakePlayerCamera(RideableCameraPlugin plugin) {
         this.plugin = plugin;
         this.fakePlayerMap = new HashMap<>();
         this.movementControllers = new HashMap<>();
-        this.lastPlayerLocations = new HashMap<>();
-        this.fallback = new ArmorStandCamera(plugin);
+        this.viewerBuffer = new ArrayList<>();
+        this.playerScratch = new Location(null, 0, 0, 0);
+        this.bodyScratch = new Location(null, 0, 0, 0);
+        this.anchorScratch = new Location(null, 0, 0, 0);
 
-        // Check if NMS is available
-        try {
-            Class.forName("net.minecraft.server.level.ServerPlayer");
-            plugin.getLogger().info("NMS detected! FakePlayer implementation is available.");
-            plugin.getLogger().info("Players can now control their fake player with WASD movement!");
-        } catch (ClassNotFoundException e) {
-            plugin.getLogger().warning("NMS not available! Falling back to ArmorStand implementation.");
-        }
+        // NMS is probed when the first session starts, not on enable
     }
 
     @Override
     public CameraSession createSession(Player player) {
         // Check if NMS is available
-        try {
-            Class.forName("net.minecraft.server.level.ServerPlayer");
-        } catch (ClassNotFoundException e) {
-            return fallback.createSession(player);
+        if (!isSupported()) {
+            return fallback().createSession(player);
+        }
+
+        // The player's profile may not allow fake players
+        CameraProfile profile = plugin.getProfileManager().getProfile(player);
+        if (!profile.allowsImplementation("fakeplayer")) {
+            return fallback().createSession(player);
         }
 
         try {
-            // Get settings from config
-            CameraSettings settings = plugin.getConfigManager().getDefaultCameraSettings();
+            // Get player's saved settings (or config defaults)
+            CameraSettings settings = plugin.getSettingsManager().getSettings(player);
 
             // Create session
-            CameraSession session = new CameraSession(player, settings);
-
-            // Spawn fake player
-            Location spawnLoc = player.getLocation();
-            FakePlayerEntity fakePlayer = new FakePlayerEntity(
-                    spawnLoc,
-                    player.getName(),
-                    player.getUniqueId()
-            );
-
-            // Store fake player and controller
-            fakePlayerMap.put(player.getUniqueId(), fakePlayer);
-            movementControllers.put(player.getUniqueId(), new MovementController());
-            lastPlayerLocations.put(player.getUniqueId(), player.getLocation().clone());
-
-            // Configure settings
-            configureFakePlayer(fakePlayer, player, settings);
-
-            // Spawn for all online players
-            spawnForAllPlayers(fakePlayer, player);
-
-            // Copy equipment
-            if (settings.shouldCopyEquipment()) {
-                fakePlayer.copyEquipment(player, player);
-                broadcastEquipmentUpdate(fakePlayer, player);
-            }
+            CameraSession session = new CameraSession(player, settings, profile);
+
+            // Spawn fake player and the camera anchor behind it
+            spawnBody(session, player, player.getLocation());
 
             // Setup player
             setupPlayer(player, session);
@@ -94,13 +92,18 @@ public class FakePlayerCamera implements ICameraImplementation {
             // Store fake player in session as "marker"
             session.setCameraEntity(null); // We don't use Bukkit entity
 
+            // Route hits on the body to the player
+            plugin.getInteractionInterceptor().start();
+
+            session.setImplementation(this);
+
             plugin.getLogger().info("Created FakePlayer camera for " + player.getName() + " with movement control!");
 
             return session;
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to create FakePlayer camera for " + player.getName());
             e.printStackTrace();
-            return fallback.createSession(player);
+            return fallback().createSession(player);
         }
     }
 
@@ -112,24 +115,57 @@ public class FakePlayerCamera implements ICameraImplementation {
 
         FakePlayerEntity fakePlayer = fakePlayerMap.get(player.getUniqueId());
         if (fakePlayer == null) {
-            fallback.updateSession(session, player);
+            fallback().updateSession(session, player);
             return;
         }
 
+        if (!CameraUpdateEvent.GATE.isEnabled()) {
+            update(session, player, fakePlayer);
+            return;
+        }
+
+        CameraUpdateEvent event = new CameraUpdateEvent();
+        event.begin();
+        long packetsBefore = fakePlayer.getPacketsSent();
+
+        boolean moved = update(session, player, fakePlayer);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.player = player.getName();
+            event.implementation = getName();
+            event.moved = moved;
+            event.packets = (int) (fakePlayer.getPacketsSent() - packetsBefore);
+            event.commit();
+        }
+    }
+
+    /**
+     * Move the fake player and the camera anchor for one tick
+     * @return true if the fake player moved
+     */
+    private boolean update(CameraSession session, Player player, FakePlayerEntity fakePlayer) {
         try {
-            MovementController controller = movementControllers.get(player.getUniqueId());
-            Location lastLocation = lastPlayerLocations.get(player.getUniqueId());
-            Location currentPlayerLoc = player.getLocation();
+            // The player was sent to another world, the body follows them there
+            if (player.getWorld() != fakePlayer.getWorld()) {
+                relocate(session, player, fakePlayer);
+                return false;
+            }
 
-            // Detect movement from player
-            boolean isMoving = controller.detectMovementFromPlayer(lastLocation, currentPlayerLoc);
+            MovementController controller = movementControllers.get(player.getUniqueId());
+            Location currentPlayerLoc = player.getLocation(playerScratch);
 
-            // Update controller states
-            controller.setSneak(player.isSneaking());
-            controller.setJump(false); // Jump is detected separately
+            // The player is pinned to the anchor, movement comes from their keys
+            Input input = player.getCurrentInput();
+            controller.setMovementState(input.isForward(), input.isBackward(), input.isLeft(), input.isRight(),
+                    input.isJump(), input.isSneak(), input.isSprint());
+            boolean isMoving = input.isForward() || input.isBackward() || input.isLeft() || input.isRight();
 
             // Get fake player's current location
-            Location fakePlayerLoc = fakePlayer.getLocation();
+            Location fakePlayerLoc = fakePlayer.getLocation(bodyScratch);
+
+            // The owner never has the body spawned, everyone else in its world gets each packet once
+            List<Player> viewers = collectViewers(player, fakePlayerLoc.getWorld());
 
             // Update rotation to match player's view
             float yaw = currentPlayerLoc.getYaw();
@@ -137,58 +173,74 @@ public class FakePlayerCamera implements ICameraImplementation {
 
             // Apply movement if player is moving
             Location newLocation;
-            if (isMoving || controller.getVelocity().lengthSquared() > 0.0001) {
-                newLocation = controller.applyMovement(fakePlayerLoc, yaw);
+            boolean moved = isMoving || controller.getVelocityLengthSquared() > 0.0001;
+            if (moved) {
+                // fakePlayerLoc is our scratch copy, move it in place
+                newLocation = controller.applyMovement(fakePlayerLoc, yaw, fakePlayerLoc);
                 newLocation.setYaw(yaw);
                 newLocation.setPitch(pitch);
 
                 // Move fake player with animation
-                fakePlayer.move(newLocation, controller.isOnGround(), player);
-                broadcastMovement(fakePlayer, newLocation, controller.isOnGround(), player);
+                broadcastMovement(fakePlayer, newLocation, controller.isOnGround(), viewers);
             } else {
                 // Just update rotation
                 if (Math.abs(fakePlayerLoc.getYaw() - yaw) > 0.5 ||
                         Math.abs(fakePlayerLoc.getPitch() - pitch) > 0.5) {
-                    fakePlayer.rotate(yaw, pitch, player);
-                    broadcastRotation(fakePlayer, yaw, pitch, player);
+                    broadcastRotation(fakePlayer, yaw, pitch, viewers);
                 }
             }
 
             // Update visual states
-            fakePlayer.setSneaking(controller.isSneak(), player);
-            fakePlayer.setSprinting(controller.isSprint(), player);
-            broadcastStates(fakePlayer, controller, player);
+            broadcastStates(fakePlayer, controller, viewers);
 
             // Sync equipment if enabled
             if (session.getSettings().shouldCopyEquipment()) {
-                // Check every 10 ticks to reduce packet spam
-                if (session.getDuration() % 500 < 50) { // Every ~0.5 seconds
-                    fakePlayer.copyEquipment(player, player);
-                    broadcastEquipmentUpdate(fakePlayer, player);
+                // Check every 10 updates to reduce packet spam, less often on lower detail profiles
+                int syncInterval = session.getProfile().getEquipmentSyncInterval(10);
+                if (syncInterval > 0 && session.getTicks() % syncInterval == 0) {
+                    syncEquipment(fakePlayer, player, viewers);
                 }
             }
 
-            // Keep spectator target locked (player stays invisible at fake player location)
             if (player.getGameMode() != GameMode.SPECTATOR) {
                 player.setGameMode(GameMode.SPECTATOR);
             }
 
-            // Update last location
-            lastPlayerLocations.put(player.getUniqueId(), currentPlayerLoc.clone());
+            // Move camera anchor behind the fake player, pulled in front of any blocks in the way
+            // The player is never teleported, their view follows the anchor and keeps their own mouse look
+            Entity anchor = session.getAnchorEntity();
+            if (anchor != null && anchor.isValid()) {
+                Location anchorLoc = anchor.getLocation(anchorScratch);
+                Location target = session.getBoom().compute(
+                        fakePlayerLoc, yaw, pitch, session.getSettings(), currentPlayerLoc);
+
+                if (anchorLoc.distanceSquared(target) > 1.0E-4
+                        || anchorLoc.getYaw() != target.getYaw()
+                        || anchorLoc.getPitch() != target.getPitch()) {
+                    anchor.teleport(target);
+                }
+
+                // Keep spectator target locked, sneaking lets go of it
+                if (player.getSpectatorTarget() != anchor) {
+                    player.setSpectatorTarget(anchor);
+                }
+            }
 
+            return moved;
         } catch (Exception e) {
             plugin.getLogger().warning("Failed to update FakePlayer camera for " + player.getName());
             e.printStackTrace();
+            return false;
         }
     }
 
     @Override
     public void destroySession(CameraSession session) {
         Player player = session.getPlayer();
-        FakePlayerEntity fakePlayer = fakePlayerMap.get(player.getUniqueId());
+        FakePlayerEntity fakePlayer = fakePlayerMap.get(session.getPlayerUUID());
 
         if (fakePlayer == null) {
-            fallback.destroySession(session);
+            fallback().destroySession(session);
             return;
         }
 
@@ -197,6 +249,9 @@ public class FakePlayerCamera implements ICameraImplementation {
             if (player != null && player.isOnline()) {
                 player.removePotionEffect(PotionEffectType.INVISIBILITY);
 
+                // Reset spectator target
+                player.setSpectatorTarget(null);
+
                 // Restore gamemode
                 player.setGameMode(session.getOriginalGameMode());
 
@@ -210,28 +265,138 @@ public class FakePlayerCamera implements ICameraImplementation {
             }
 
             // Despawn fake player for all players
+            plugin.getBodySnapshots().unregister(session.getPlayerUUID());
             despawnForAllPlayers(fakePlayer, player);
 
+            // Remove camera anchor
+            removeAnchor(session);
+
             // Cleanup
-            fakePlayerMap.remove(player.getUniqueId());
-            movementControllers.remove(player.getUniqueId());
-            lastPlayerLocations.remove(player.getUniqueId());
+            fakePlayerMap.remove(session.getPlayerUUID());
+            plugin.getCameraManager().getBodyIndex().remove(fakePlayer.getEntityId());
+            movementControllers.remove(session.getPlayerUUID());
 
             session.setActive(false);
 
-            plugin.getLogger().info("Destroyed FakePlayer camera for " + player.getName());
+            plugin.getLogger().info("Destroyed FakePlayer camera for " + session.getPlayerName());
 
         } catch (Exception e) {
-            plugin.getLogger().warning("Failed to destroy FakePlayer camera for " + player.getName());
+            plugin.getLogger().warning("Failed to destroy FakePlayer camera for " + session.getPlayerName());
             e.printStackTrace();
         }
     }
 
+    @Override
+    public Location getBodyLocation(CameraSession session) {
+        FakePlayerEntity fakePlayer = fakePlayerMap.get(session.getPlayerUUID());
+        if (fakePlayer == null) {
+            return fallback().getBodyLocation(session);
+        }
+        return fakePlayer.getLocation();
+    }
+
     @Override
     public String getName() {
         return "FakePlayer (NMS)";
     }
 
+    /**
+     * Probe NMS support, logging the result the first time
+     */
+    private boolean isSupported() {
+        boolean supported = NMSUtil.isFakePlayerSupported();
+        if (!probed) {
+            probed = true;
+            if (supported) {
+                plugin.getLogger().info("NMS detected! FakePlayer implementation is available.");
+            } else {
+                plugin.getLogger().warning("NMS not available (" + NMSUtil.getUnsupportedReason()
+                        + ")! Falling back to ArmorStand implementation.");
+            }
+        }
+        return supported;
+    }
+
+    /**
+     * Get the ArmorStand implementation used when a fake player can't be made
+     * Shared with the registry, so fallback sessions are counted as ArmorStand ones
+     */
+    private ICameraImplementation fallback() {
+        if (fallback == null) {
+            fallback = plugin.getCameraManager().getRegistry().get(CameraImplementationRegistry.DEFAULT);
+        }
+        return fallback;
+    }
+
+    /**
+     * Spawn a session's fake player and its camera anchor
+     * @param location Where the body stands
+     * @return Fake player
+     */
+    private FakePlayerEntity spawnBody(CameraSession session, Player player, Location location) {
+        FakePlayerEntity fakePlayer = new FakePlayerEntity(
+                plugin,
+                location,
+                player.getName(),
+                player.getUniqueId()
+        );
+        fakePlayer.setTrace(plugin.getFlightRecorder().getTrace(player.getUniqueId()));
+
+        // Store fake player and controller
+        fakePlayerMap.put(player.getUniqueId(), fakePlayer);
+        movementControllers.put(player.getUniqueId(), new MovementController());
+
+        // Configure settings
+        configureFakePlayer(fakePlayer, player, session.getSettings());
+
+        // Spawn for all online players, later arrivals get it from the snapshots
+        spawnForAllPlayers(fakePlayer, player);
+        plugin.getBodySnapshots().register(player.getUniqueId(), fakePlayer);
+
+        // Copy equipment
+        if (session.getSettings().shouldCopyEquipment()) {
+            broadcastEquipmentUpdate(fakePlayer, player, collectViewers(player, fakePlayer.getWorld()));
+        }
+
+        // Spawn camera anchor behind the fake player
+        Location anchorLoc = session.getBoom().compute(
+                location, location.getYaw(), location.getPitch(), session.getSettings(), location.clone());
+        session.setAnchorEntity(ArmorStandCamera.spawnAnchor(anchorLoc));
+
+        // Route hits on the body to the player
+        plugin.getCameraManager().getBodyIndex().put(fakePlayer.getEntityId(), session);
+
+        return fakePlayer;
+    }
+
+    /**
+     * Move a session into the world its player is now in
+     * The old body and anchor are removed, a new pair is spawned at the player
+     */
+    private void relocate(CameraSession session, Player player, FakePlayerEntity fakePlayer) {
+        plugin.getBodySnapshots().unregister(player.getUniqueId());
+        despawnForAllPlayers(fakePlayer, player);
+        plugin.getCameraManager().getBodyIndex().remove(fakePlayer.getEntityId());
+        removeAnchor(session);
+
+        spawnBody(session, player, player.getLocation());
+        player.setSpectatorTarget(session.getAnchorEntity());
+
+        plugin.getLogger().info("Moved FakePlayer camera of " + player.getName()
+                + " to " + player.getWorld().getName());
+    }
+
+    /**
+     * Remove a session's camera anchor
+     */
+    private void removeAnchor(CameraSession session) {
+        Entity anchor = session.getAnchorEntity();
+        if (anchor != null && anchor.isValid()) {
+            anchor.remove();
+        }
+        session.setAnchorEntity(null);
+    }
+
     /**
      * Configure fake player properties
      */
@@ -256,31 +421,52 @@ public class FakePlayerCamera implements ICameraImplementation {
         // Set spectator mode
         player.setGameMode(GameMode.SPECTATOR);
 
-        // Allow flying for smooth movement
-        player.setAllowFlight(true);
-        player.setFlying(true);
-
-        // Set fly speed for better control
-        player.setFlySpeed(0.05f);
+        // View through the camera anchor
+        player.setSpectatorTarget(session.getAnchorEntity());
     }
 
     /**
-     * Spawn fake player for all online players
+     * Collect the players who see a body, everyone in its world but its owner
+     * Same rule as the body snapshots, players elsewhere get it when they arrive
+     * @return Shared list, valid until the next call
      */
-    private void spawnForAllPlayers(FakePlayerEntity fakePlayer, Player owner) {
+    private List<Player> collectViewers(Player owner, World world) {
+        viewerBuffer.clear();
         for (Player viewer : Bukkit.getOnlinePlayers()) {
-            if (!viewer.equals(owner)) {
-                fakePlayer.spawn(viewer);
+            if (!viewer.equals(owner) && viewer.getWorld() == world) {
+                viewerBuffer.add(viewer);
             }
         }
+        return viewerBuffer;
+    }
+
+    /**
+     * Spawn fake player for all players in its world
+     */
+    private void spawnForAllPlayers(FakePlayerEntity fakePlayer, Player owner) {
+        CameraBroadcastEvent event = beginBroadcast();
+        long packetsBefore = fakePlayer.getPacketsSent();
+
+        List<Player> viewers = collectViewers(owner, fakePlayer.getWorld());
+        for (Player viewer : viewers) {
+            fakePlayer.spawn(viewer);
+        }
+
+        commitBroadcast(event, "spawn", viewers.size(), fakePlayer.getPacketsSent() - packetsBefore);
     }
 
     /**
      * Despawn fake player for all online players
+     * Not only its world, players who left it still have the tab list entry
      */
     private void despawnForAllPlayers(FakePlayerEntity fakePlayer, Player owner) {
+        CameraBroadcastEvent event = beginBroadcast();
+        long packetsBefore = fakePlayer.getPacketsSent();
+        int viewers = 0;
+
         for (Player viewer : Bukkit.getOnlinePlayers()) {
             if (!viewer.equals(owner)) {
+                viewers++;
                 try {
                     fakePlayer.despawn(viewer);
                 } catch (Exception e) {
@@ -288,69 +474,129 @@ public class FakePlayerCamera implements ICameraImplementation {
                 }
             }
         }
+
+        commitBroadcast(event, "despawn", viewers, fakePlayer.getPacketsSent() - packetsBefore);
     }
 
     /**
      * Broadcast movement to all viewers
+     * Always called, even without viewers, the body keeps its position here
      */
     private void broadcastMovement(FakePlayerEntity fakePlayer, Location location,
-                                   boolean onGround, Player owner) {
-        for (Player viewer : Bukkit.getOnlinePlayers()) {
-            if (!viewer.equals(owner)) {
-                try {
-                    fakePlayer.move(location, onGround, viewer);
-                } catch (Exception e) {
-                    // Ignore packet errors
-                }
-            }
+                                   boolean onGround, List<Player> viewers) {
+        CameraBroadcastEvent event = beginBroadcast();
+        long packetsBefore = fakePlayer.getPacketsSent();
+
+        try {
+            fakePlayer.move(location, onGround, viewers);
+        } catch (Exception e) {
+            // Ignore packet errors
         }
+
+        commitBroadcast(event, "movement", viewers.size(), fakePlayer.getPacketsSent() - packetsBefore);
     }
 
     /**
      * Broadcast rotation to all viewers
      */
     private void broadcastRotation(FakePlayerEntity fakePlayer, float yaw,
-                                   float pitch, Player owner) {
-        for (Player viewer : Bukkit.getOnlinePlayers()) {
-            if (!viewer.equals(owner)) {
-                try {
-                    fakePlayer.rotate(yaw, pitch, viewer);
-                } catch (Exception e) {
-                    // Ignore packet errors
-                }
-            }
+                                   float pitch, List<Player> viewers) {
+        CameraBroadcastEvent event = beginBroadcast();
+        long packetsBefore = fakePlayer.getPacketsSent();
+
+        try {
+            fakePlayer.rotate(yaw, pitch, viewers);
+        } catch (Exception e) {
+            // Ignore packet errors
         }
+
+        commitBroadcast(event, "rotation", viewers.size(), fakePlayer.getPacketsSent() - packetsBefore);
     }
 
     /**
      * Broadcast state changes to all viewers
      */
     private void broadcastStates(FakePlayerEntity fakePlayer, MovementController controller,
-                                 Player owner) {
-        for (Player viewer : Bukkit.getOnlinePlayers()) {
-            if (!viewer.equals(owner)) {
-                try {
-                    fakePlayer.setSneaking(controller.isSneak(), viewer);
-                    fakePlayer.setSprinting(controller.isSprint(), viewer);
-                } catch (Exception e) {
-                    // Ignore packet errors
-                }
-            }
+                                 List<Player> viewers) {
+        CameraBroadcastEvent event = beginBroadcast();
+        long packetsBefore = fakePlayer.getPacketsSent();
+
+        try {
+            fakePlayer.setSneaking(controller.isSneak(), viewers);
+            fakePlayer.setSprinting(controller.isSprint(), viewers);
+        } catch (Exception e) {
+            // Ignore packet errors
         }
+
+        commitBroadcast(event, "states", viewers.size(), fakePlayer.getPacketsSent() - packetsBefore);
     }
 
     /**
-     * Broadcast equipment update to all viewers
+     * Copy the owner's equipment once and broadcast it to all viewers
      */
-    private void broadcastEquipmentUpdate(FakePlayerEntity fakePlayer, Player owner) {
-        for (Player viewer : Bukkit.getOnlinePlayers()) {
-            if (!viewer.equals(owner)) {
-                try {
-                    fakePlayer.copyEquipment(owner, viewer);
-                } catch (Exception e) {
-                    // Ignore packet errors
-                }
-            }
+    private void broadcastEquipmentUpdate(FakePlayerEntity fakePlayer, Player owner, List<Player> viewers) {
+        CameraBroadcastEvent event = beginBroadcast();
+        long packetsBefore = fakePlayer.getPacketsSent();
+
+        try {
+            fakePlayer.copyEquipment(owner, viewers);
+        } catch (Exception e) {
+            // Ignore packet errors
+        }
+
+        commitBroadcast(event, "equipment", viewers.size(), fakePlayer.getPacketsSent() - packetsBefore);
+    }
+
+    /**
+     * Copy the owner's equipment to the body, timed as an equipment sync
+     */
+    private void syncEquipment(FakePlayerEntity fakePlayer, Player player, List<Player> viewers) {
+        if (!EquipmentSyncEvent.GATE.isEnabled()) {
+            broadcastEquipmentUpdate(fakePlayer, player, viewers);
+            return;
+        }
+
+        EquipmentSyncEvent event = new EquipmentSyncEvent();
+        event.begin();
+        broadcastEquipmentUpdate(fakePlayer, player, viewers);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.viewers = viewers.size();
+            event.player = player.getName();
+            event.implementation = getName();
+            event.commit();
+        }
+    }
+
+    /**
+     * Start a broadcast event, if a recording takes them
+     * @return Started event or null
+     */
+    private static CameraBroadcastEvent beginBroadcast() {
+        if (!CameraBroadcastEvent.GATE.isEnabled()) {
+            return null;
+        }
+
+        CameraBroadcastEvent event = new CameraBroadcastEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit a broadcast event once all viewers got their packets
+     */
+    private void commitBroadcast(CameraBroadcastEvent event, String kind, int viewers, long packets) {
+        if (event == null) {
+            return;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.viewers = viewers;
+            event.packets = (int) packets;
+            event.commit();
         }
     }
 
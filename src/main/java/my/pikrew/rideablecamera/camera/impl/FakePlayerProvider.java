@@ -0,0 +1,27 @@
+package my.pikrew.rideablecamera.camera.impl;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.camera.CameraImplementationProvider;
+import my.pikrew.rideablecamera.camera.ICameraImplementation;
+
+/**
+ * Provides the fake player camera
+ * Packets are built and sent per viewer every tick, the most expensive option
+ */
+public class FakePlayerProvider implements CameraImplementationProvider {
+
+    @Override
+    public String getName() {
+        return "fakeplayer";
+    }
+
+    @Override
+    public int getCost() {
+        return 4;
+    }
+
+    @Override
+    public ICameraImplementation create(RideableCameraPlugin plugin) {
+        return new FakePlayerCamera(plugin);
+    }
+}
@@ -1,9 +1,17 @@
 package my.pikrew.rideablecamera.commands;
 
 import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.camera.CameraImplementationRegistry;
 import my.pikrew.rideablecamera.camera.CameraManager;
 import my.pikrew.rideablecamera.config.ConfigManager;
+import my.pikrew.rideablecamera.config.MessageCatalog;
+import my.pikrew.rideablecamera.metrics.LatencyHistogram;
+import my.pikrew.rideablecamera.metrics.MetricsRegistry;
 import my.pikrew.rideablecamera.models.CameraSession;
+import my.pikrew.rideablecamera.models.CameraSettings;
+import my.pikrew.rideablecamera.nms.adapter.PacketType;
+import my.pikrew.rideablecamera.path.PathManager;
+import my.pikrew.rideablecamera.recording.RecordingManager;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -14,6 +22,9 @@ import org.bukkit.entity.Player;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -24,15 +35,17 @@ public class CameraCommandExecutor implements CommandExecutor, TabCompleter {
     private final RideableCameraPlugin plugin;
     private final CameraManager cameraManager;
     private final ConfigManager configManager;
+    private final PlayerNameIndex players;
 
     private static final List<String> SUBCOMMANDS = Arrays.asList(
-            "on", "off", "toggle", "info", "reload", "help"
+            "on", "off", "toggle", "info", "set", "mode", "watch", "unwatch", "path", "record", "replay", "stats", "trace", "reload", "help"
     );
 
     public CameraCommandExecutor(RideableCameraPlugin plugin) {
         this.plugin = plugin;
         this.cameraManager = plugin.getCameraManager();
         this.configManager = plugin.getConfigManager();
+        this.players = plugin.getPlayerNameIndex();
     }
 
     @Override
@@ -41,7 +54,7 @@ public class CameraCommandExecutor implements CommandExecutor, TabCompleter {
         // No args = toggle
         if (args.length == 0) {
             if (!(sender instanceof Player)) {
-                sender.sendMessage(configManager.getMessage("player-only"));
+                messages().send(sender, "player-only");
                 return true;
             }
 
@@ -66,6 +79,33 @@ public class CameraCommandExecutor implements CommandExecutor, TabCompleter {
             case "status":
                 return handleInfo(sender);
 
+            case "set":
+                return handleSet(sender, args);
+
+            case "mode":
+                return handleMode(sender, args);
+
+            case "watch":
+                return handleWatch(sender, args);
+
+            case "unwatch":
+                return handleUnwatch(sender);
+
+            case "path":
+                return handlePath(sender, args);
+
+            case "record":
+                return handleRecord(sender, args);
+
+            case "replay":
+                return handleReplay(sender, args);
+
+            case "stats":
+                return handleStats(sender);
+
+            case "trace":
+                return handleTrace(sender, args);
+
             case "reload":
                 return handleReload(sender);
 
@@ -78,53 +118,61 @@ public class CameraCommandExecutor implements CommandExecutor, TabCompleter {
         }
     }
 
+    /**
+     * Get the current message catalog
+     * Looked up on every use since reloads replace it
+     */
+    private MessageCatalog messages() {
+        return configManager.getMessages();
+    }
+
     private boolean handleEnable(CommandSender sender) {
         if (!(sender instanceof Player)) {
-            sender.sendMessage(configManager.getMessage("player-only"));
+            messages().send(sender, "player-only");
             return true;
         }
 
         Player player = (Player) sender;
 
         if (cameraManager.isActive(player)) {
-            player.sendMessage(configManager.getMessage("already-enabled"));
+            messages().send(player, "already-enabled");
             return true;
         }
 
         if (cameraManager.enableCamera(player)) {
-            player.sendMessage(configManager.getMessage("enabled"));
+            messages().send(player, "enabled");
             return true;
         } else {
-            player.sendMessage(configManager.getMessage("error"));
+            messages().send(player, "error");
             return true;
         }
     }
 
     private boolean handleDisable(CommandSender sender) {
         if (!(sender instanceof Player)) {
-            sender.sendMessage(configManager.getMessage("player-only"));
+            messages().send(sender, "player-only");
             return true;
         }
 
         Player player = (Player) sender;
 
         if (!cameraManager.isActive(player)) {
-            player.sendMessage(configManager.getMessage("not-enabled"));
+            messages().send(player, "not-enabled");
             return true;
         }
 
         if (cameraManager.disableCamera(player)) {
-            player.sendMessage(configManager.getMessage("disabled"));
+            messages().send(player, "disabled");
             return true;
         } else {
-            player.sendMessage(configManager.getMessage("error"));
+            messages().send(player, "error");
             return true;
         }
     }
 
     private boolean handleToggle(CommandSender sender) {
         if (!(sender instanceof Player)) {
-            sender.sendMessage(configManager.getMessage("player-only"));
+            messages().send(sender, "player-only");
             return true;
         }
 
@@ -132,9 +180,9 @@ public class CameraCommandExecutor implements CommandExecutor, TabCompleter {
         boolean enabled = cameraManager.toggleCamera(player);
 
         if (enabled) {
-            player.sendMessage(configManager.getMessage("enabled"));
+            messages().send(player, "enabled");
         } else {
-            player.sendMessage(configManager.getMessage("disabled"));
+            messages().send(player, "disabled");
         }
 
         return true;
@@ -142,83 +190,582 @@ public class CameraCommandExecutor implements CommandExecutor, TabCompleter {
 
     private boolean handleInfo(CommandSender sender) {
         if (!(sender instanceof Player)) {
-            sender.sendMessage(configManager.getMessage("player-only"));
+            messages().send(sender, "player-only");
             return true;
         }
 
         Player player = (Player) sender;
 
         if (!cameraManager.isActive(player)) {
-            player.sendMessage(configManager.getMessage("not-enabled"));
+            messages().send(player, "not-enabled");
             return true;
         }
 
         CameraSession session = cameraManager.getSession(player);
 
-        player.sendMessage("§6=== Camera Info ===");
-        player.sendMessage("§eStatus: §aActive");
-        player.sendMessage("§eDistance: §f" + session.getSettings().getDistance());
-        player.sendMessage("§eHeight: §f" + session.getSettings().getHeight());
-        player.sendMessage("§eSide Offset: §f" + session.getSettings().getSideOffset());
-        player.sendMessage("§eDuration: §f" + (session.getDuration() / 1000) + "s");
+        MessageCatalog messages = messages();
+        messages.sendRaw(player, "info-header");
+        messages.sendRaw(player, "info-status");
+        messages.sendRaw(player, "info-distance", "value", String.valueOf(session.getSettings().getDistance()));
+        messages.sendRaw(player, "info-height", "value", String.valueOf(session.getSettings().getHeight()));
+        messages.sendRaw(player, "info-side-offset", "value", String.valueOf(session.getSettings().getSideOffset()));
+        messages.sendRaw(player, "info-duration", "value", String.valueOf(session.getDuration() / 1000));
+
+        return true;
+    }
+
+    private boolean handleMode(CommandSender sender, String[] args) {
+        if (!(sender instanceof Player)) {
+            messages().send(sender, "player-only");
+            return true;
+        }
+
+        if (args.length < 2) {
+            messages().sendRaw(sender, "usage-mode",
+                    "modes", String.join("|", CameraImplementationRegistry.getNames()));
+            return true;
+        }
+
+        Player player = (Player) sender;
+        CameraSession session = cameraManager.getSession(player);
+        if (session == null) {
+            messages().send(player, "not-enabled");
+            return true;
+        }
+
+        String mode = args[1].toLowerCase();
+        if (!CameraImplementationRegistry.isKnown(mode)) {
+            messages().send(player, "mode-unknown", "mode", args[1]);
+            return true;
+        }
+
+        if (!session.getProfile().allowsImplementation(mode)) {
+            messages().send(player, "mode-not-allowed", "mode", mode);
+            return true;
+        }
+
+        // A mode the player picked is not undone by the load governor
+        plugin.getLoadGovernor().forget(player.getUniqueId());
+
+        if (cameraManager.migrate(player, mode)) {
+            messages().send(player, "mode-switched", "mode", mode);
+        } else {
+            messages().send(player, "error");
+        }
+        return true;
+    }
+
+    private boolean handleSet(CommandSender sender, String[] args) {
+        if (!(sender instanceof Player)) {
+            messages().send(sender, "player-only");
+            return true;
+        }
+
+        if (args.length < 3) {
+            messages().sendRaw(sender, "usage-set");
+            return true;
+        }
+
+        Player player = (Player) sender;
+        double value;
+        try {
+            value = Double.parseDouble(args[2]);
+        } catch (NumberFormatException e) {
+            messages().send(player, "invalid-value");
+            return true;
+        }
+
+        // NaN would slip through every clamp below
+        if (!Double.isFinite(value)) {
+            messages().send(player, "invalid-value");
+            return true;
+        }
+
+        // Start from the live session's settings, or the saved ones
+        // A sneak zoom is ended first so its distance isn't saved
+        plugin.getGestureEngine().endZoom(player);
+        CameraSession session = cameraManager.getSession(player);
+        CameraSettings settings = session != null
+                ? session.getSettings()
+                : plugin.getSettingsManager().getSettings(player);
+
+        String setting = args[1].toLowerCase();
+        switch (setting) {
+            case "distance":
+                // Capped by the player's profile
+                settings = settings.withDistance(
+                        Math.min(value, plugin.getProfileManager().getProfile(player).maxDistance()));
+                value = settings.getDistance();
+                break;
+            case "height":
+                settings = settings.withHeight(value);
+                value = settings.getHeight();
+                break;
+            case "side":
+                settings = settings.withSideOffset(value);
+                value = settings.getSideOffset();
+                break;
+            case "smoothness":
+                settings = settings.withSmoothness(value);
+                value = settings.getSmoothness();
+                break;
+            default:
+                messages().sendRaw(player, "usage-set");
+                return true;
+        }
+
+        if (session != null) {
+            session.setSettings(settings);
+        }
+        plugin.getSettingsManager().saveSettings(player.getUniqueId(), settings);
+        messages().send(player, "setting-updated",
+                "setting", setting,
+                "value", String.valueOf(value));
+
+        return true;
+    }
+
+    private boolean handleWatch(CommandSender sender, String[] args) {
+        if (!(sender instanceof Player)) {
+            messages().send(sender, "player-only");
+            return true;
+        }
+
+        if (!sender.hasPermission("rideablecamera.watch")) {
+            messages().send(sender, "no-permission");
+            return true;
+        }
+
+        Player player = (Player) sender;
+
+        // No target = stop watching
+        if (args.length < 2) {
+            return handleUnwatch(sender);
+        }
+
+        Player target = players.find(args[1]);
+
+        if (target == null) {
+            messages().send(player, "player-not-found");
+            return true;
+        }
+
+        if (!cameraManager.isActive(target)) {
+            messages().send(player, "target-not-enabled");
+            return true;
+        }
+
+        if (cameraManager.isActive(player)) {
+            messages().send(player, "already-enabled");
+            return true;
+        }
+
+        if (cameraManager.startWatching(player, target)) {
+            messages().send(player, "watching", "player", target.getName());
+        } else {
+            messages().send(player, "error");
+        }
+
+        return true;
+    }
+
+    private boolean handleUnwatch(CommandSender sender) {
+        if (!(sender instanceof Player)) {
+            messages().send(sender, "player-only");
+            return true;
+        }
+
+        if (cameraManager.stopWatching((Player) sender)) {
+            messages().send(sender, "watch-stopped");
+        } else {
+            messages().send(sender, "not-watching");
+        }
+
+        return true;
+    }
+
+    private boolean handlePath(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("rideablecamera.path")) {
+            messages().send(sender, "no-permission");
+            return true;
+        }
+
+        if (args.length < 2) {
+            messages().sendRaw(sender, "usage-path");
+            return true;
+        }
+
+        PathManager pathManager = plugin.getPathManager();
+
+        switch (args[1].toLowerCase()) {
+            case "list":
+                messages().sendRaw(sender, "path-list-header");
+                messages().sendRaw(sender, "path-list", "paths", String.join(", ", pathManager.getPathNames()));
+                return true;
+
+            case "play": {
+                if (args.length < 3) {
+                    messages().sendRaw(sender, "usage-path-play");
+                    return true;
+                }
+
+                List<Player> viewers = resolvePathViewers(sender, args.length > 3 ? args[3] : null);
+                if (viewers == null) {
+                    return true;
+                }
+
+                // Players riding or watching a camera keep their own view
+                viewers.removeIf(viewer -> cameraManager.isActive(viewer) || cameraManager.isWatching(viewer));
+
+                if (pathManager.play(args[2], viewers)) {
+                    messages().send(sender, "path-started",
+                            "name", args[2],
+                            "count", String.valueOf(viewers.size()));
+                } else {
+                    messages().send(sender, "path-not-found", "name", args[2]);
+                }
+                return true;
+            }
+
+            case "stop": {
+                List<Player> viewers = resolvePathViewers(sender, args.length > 2 ? args[2] : null);
+                if (viewers == null) {
+                    return true;
+                }
+
+                for (Player viewer : viewers) {
+                    pathManager.stop(viewer);
+                }
+                messages().send(sender, "path-stopped");
+                return true;
+            }
+
+            case "point": {
+                if (!(sender instanceof Player)) {
+                    messages().send(sender, "player-only");
+                    return true;
+                }
+                if (args.length < 3) {
+                    messages().sendRaw(sender, "usage-path-point");
+                    return true;
+                }
+
+                String name = PathManager.normalizeName(args[2]);
+                if (name == null) {
+                    messages().send(sender, "path-invalid-name", "name", args[2]);
+                    return true;
+                }
+
+                int points = pathManager.addPoint(name, ((Player) sender).getLocation());
+                messages().send(sender, "path-point-added",
+                        "name", name,
+                        "count", String.valueOf(Math.abs(points)));
+                return true;
+            }
+
+            default:
+                messages().sendRaw(sender, "usage-path");
+                return true;
+        }
+    }
+
+    /**
+     * Resolve the viewers of a path command
+     * @return Viewers, or null if a message was already sent
+     */
+    private List<Player> resolvePathViewers(CommandSender sender, String target) {
+        List<Player> viewers = new ArrayList<>();
+
+        if (target == null) {
+            if (!(sender instanceof Player)) {
+                messages().send(sender, "player-only");
+                return null;
+            }
+            viewers.add((Player) sender);
+        } else if (target.equalsIgnoreCase("all")) {
+            viewers.addAll(Bukkit.getOnlinePlayers());
+        } else {
+            Player player = players.find(target);
+            if (player == null) {
+                messages().send(sender, "player-not-found");
+                return null;
+            }
+            viewers.add(player);
+        }
+
+        return viewers;
+    }
+
+    private boolean handleRecord(CommandSender sender, String[] args) {
+        Player target;
+        if (args.length > 1) {
+            target = players.find(args[1]);
+            if (target == null) {
+                messages().send(sender, "player-not-found");
+                return true;
+            }
+        } else if (sender instanceof Player) {
+            target = (Player) sender;
+        } else {
+            messages().send(sender, "player-only");
+            return true;
+        }
+
+        // Profiles may let players record their own camera without the permission
+        if (!sender.hasPermission("rideablecamera.record")
+                && !(sender == target && plugin.getProfileManager().getProfile(target).canRecord())) {
+            messages().send(sender, "no-permission");
+            return true;
+        }
+
+        RecordingManager recordingManager = plugin.getRecordingManager();
+
+        // Toggle recording
+        if (recordingManager.stopRecording(target.getUniqueId())) {
+            messages().send(sender, "recording-stopped");
+            return true;
+        }
+
+        if (!cameraManager.isActive(target)) {
+            messages().send(sender, "not-enabled");
+            return true;
+        }
+
+        String name = recordingManager.startRecording(target);
+        messages().send(sender, "recording-started", "name", name);
+
+        return true;
+    }
+
+    private boolean handleReplay(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("rideablecamera.replay")) {
+            messages().send(sender, "no-permission");
+            return true;
+        }
+
+        if (args.length < 2) {
+            messages().sendRaw(sender, "usage-replay");
+            return true;
+        }
+
+        RecordingManager recordingManager = plugin.getRecordingManager();
+
+        if (args[1].equalsIgnoreCase("stop")) {
+            if (!(sender instanceof Player)) {
+                messages().send(sender, "player-only");
+                return true;
+            }
+
+            recordingManager.stopReplays((Player) sender);
+            messages().send(sender, "replay-stopped");
+            return true;
+        }
+
+        // Collect viewers (default: sender)
+        List<Player> viewers = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            Player viewer = Bukkit.getPlayerExact(args[i]);
+            if (viewer == null) {
+                messages().send(sender, "player-not-found");
+                return true;
+            }
+            viewers.add(viewer);
+        }
+
+        if (viewers.isEmpty()) {
+            if (!(sender instanceof Player)) {
+                messages().send(sender, "player-only");
+                return true;
+            }
+            viewers.add((Player) sender);
+        }
+
+        if (recordingManager.startReplay(args[1], viewers)) {
+            messages().send(sender, "replay-started", "name", args[1]);
+        } else {
+            messages().send(sender, "replay-not-found", "name", args[1]);
+        }
 
         return true;
     }
 
     private boolean handleReload(CommandSender sender) {
         if (!sender.hasPermission("rideablecamera.reload")) {
-            sender.sendMessage(configManager.getMessage("no-permission"));
+            messages().send(sender, "no-permission");
+            return true;
+        }
+
+        // Parsed off the main thread, a broken file keeps the current config
+        configManager.reloadConfiguration().thenAccept(applied ->
+                messages().send(sender, applied ? "reloaded" : "reload-failed"));
+
+        return true;
+    }
+
+    private boolean handleStats(CommandSender sender) {
+        if (!sender.hasPermission("rideablecamera.stats")) {
+            messages().send(sender, "no-permission");
             return true;
         }
 
-        configManager.reloadConfiguration();
-        sender.sendMessage(configManager.getMessage("reloaded"));
+        MetricsRegistry metrics = plugin.getMetrics();
+        MessageCatalog messages = messages();
+
+        messages.sendRaw(sender, "stats-header");
+        messages.sendRaw(sender, "stats-sessions",
+                "sessions", String.valueOf(metrics.getActiveSessions()),
+                "ticks", String.valueOf(metrics.getTicks()));
+
+        // Tick phases and implementations
+        sendTimer(sender, messages, "tick", metrics.getTickTimer());
+        for (Map.Entry<String, LatencyHistogram> entry : metrics.getPhases().entrySet()) {
+            sendTimer(sender, messages, entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : metrics.getImplementations().entrySet()) {
+            sendTimer(sender, messages, entry.getKey(), entry.getValue());
+        }
+
+        // Packets by type
+        messages.sendRaw(sender, "stats-packets",
+                "type", "total",
+                "packets", String.valueOf(metrics.getPacketsSent()),
+                "bytes", String.valueOf(metrics.getBytesSent()));
+        for (PacketType type : PacketType.values()) {
+            long packets = metrics.getPackets(type);
+            if (packets > 0) {
+                messages.sendRaw(sender, "stats-packets",
+                        "type", type.name().toLowerCase(),
+                        "packets", String.valueOf(packets),
+                        "bytes", String.valueOf(metrics.getBytes(type)));
+            }
+        }
+
+        // Busiest viewers
+        Map<UUID, Long> viewerBytes = metrics.getViewerBytes();
+        List<Map.Entry<UUID, Long>> viewers = new ArrayList<>(metrics.getViewerPackets().entrySet());
+        viewers.sort(Map.Entry.<UUID, Long>comparingByValue().reversed());
+        for (Map.Entry<UUID, Long> entry : viewers.subList(0, Math.min(5, viewers.size()))) {
+            Player viewer = Bukkit.getPlayer(entry.getKey());
+            messages.sendRaw(sender, "stats-viewer",
+                    "player", viewer != null ? viewer.getName() : entry.getKey().toString(),
+                    "packets", String.valueOf(entry.getValue()),
+                    "bytes", String.valueOf(viewerBytes.getOrDefault(entry.getKey(), 0L)));
+        }
+
+        return true;
+    }
+
+    private boolean handleTrace(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("rideablecamera.trace")) {
+            messages().send(sender, "no-permission");
+            return true;
+        }
+
+        if (args.length < 3 || !args[1].equalsIgnoreCase("dump")) {
+            messages().sendRaw(sender, "usage-trace");
+            return true;
+        }
+
+        Player target = players.find(args[2]);
+        if (target == null) {
+            messages().send(sender, "player-not-found");
+            return true;
+        }
+
+        String name = target.getName();
+        boolean dumping = plugin.getFlightRecorder().dump(target, file -> {
+            if (file != null) {
+                messages().send(sender, "trace-dumped", "player", name, "file", file.getName());
+            } else {
+                messages().send(sender, "trace-failed");
+            }
+        });
+
+        if (!dumping) {
+            messages().send(sender, "trace-empty", "player", name);
+        }
 
         return true;
     }
 
+    private void sendTimer(CommandSender sender, MessageCatalog messages, String name, LatencyHistogram timer) {
+        messages.sendRaw(sender, "stats-timer",
+                "name", name,
+                "mean", String.format(Locale.ROOT, "%.1f", timer.getMeanMicros()),
+                "p99", String.format(Locale.ROOT, "%.1f", timer.getPercentileMicros(0.99)),
+                "max", String.format(Locale.ROOT, "%.1f", timer.getMaxMicros()),
+                "count", String.valueOf(timer.getCount()));
+    }
+
     private boolean handleHelp(CommandSender sender) {
-        sender.sendMessage("§6=== RideableCamera Help ===");
-        sender.sendMessage("§e/ridecam §f- Toggle camera");
-        sender.sendMessage("§e/ridecam on §f- Enable camera");
-        sender.sendMessage("§e/ridecam off §f- Disable camera");
-        sender.sendMessage("§e/ridecam info §f- View camera info");
-        sender.sendMessage("§e/ridecam reload §f- Reload config");
-        sender.sendMessage("§e/ridecam help §f- Show this help");
+        MessageCatalog messages = messages();
+        messages.sendRaw(sender, "help-header");
+        messages.sendRaw(sender, "help-toggle");
+        messages.sendRaw(sender, "help-on");
+        messages.sendRaw(sender, "help-off");
+        messages.sendRaw(sender, "help-info");
+        messages.sendRaw(sender, "help-set");
+        messages.sendRaw(sender, "help-mode");
+
+        if (sender.hasPermission("rideablecamera.watch")) {
+            messages.sendRaw(sender, "help-watch");
+            messages.sendRaw(sender, "help-unwatch");
+        }
+
+        if (sender.hasPermission("rideablecamera.path")) {
+            messages.sendRaw(sender, "help-path");
+        }
+
+        if (sender.hasPermission("rideablecamera.record")) {
+            messages.sendRaw(sender, "help-record");
+        }
+
+        if (sender.hasPermission("rideablecamera.replay")) {
+            messages.sendRaw(sender, "help-replay");
+        }
+
+        if (sender.hasPermission("rideablecamera.stats")) {
+            messages.sendRaw(sender, "help-stats");
+        }
+
+        if (sender.hasPermission("rideablecamera.trace")) {
+            messages.sendRaw(sender, "help-trace");
+        }
+
+        messages.sendRaw(sender, "help-reload");
+        messages.sendRaw(sender, "help-help");
 
         if (sender.hasPermission("rideablecamera.others")) {
-            sender.sendMessage("§e/ridecam <player> §f- Toggle for other player");
+            messages.sendRaw(sender, "help-others");
         }
 
         sender.sendMessage("");
-        sender.sendMessage("§7Aliases: §f/rcam, /ridecamera, /npcam");
+        messages.sendRaw(sender, "help-aliases");
 
         return true;
     }
 
     private boolean handleToggleOther(CommandSender sender, String targetName) {
         if (!sender.hasPermission("rideablecamera.others")) {
-            sender.sendMessage(configManager.getMessage("no-permission"));
+            messages().send(sender, "no-permission");
             return true;
         }
 
-        Player target = Bukkit.getPlayer(targetName);
+        Player target = players.find(targetName);
 
         if (target == null) {
-            sender.sendMessage(configManager.getMessage("player-not-found"));
+            messages().send(sender, "player-not-found");
             return true;
         }
 
         boolean enabled = cameraManager.toggleCamera(target);
 
         if (enabled) {
-            sender.sendMessage("§aCamera enabled for " + target.getName());
-            target.sendMessage(configManager.getMessage("enabled-by-other")
-                    .replace("%player%", sender.getName()));
+            messages().sendRaw(sender, "enabled-for-other", "player", target.getName());
+            messages().send(target, "enabled-by-other", "player", sender.getName());
         } else {
-            sender.sendMessage("§cCamera disabled for " + target.getName());
-            target.sendMessage(configManager.getMessage("disabled-by-other")
-                    .replace("%player%", sender.getName()));
+            messages().sendRaw(sender, "disabled-for-other", "player", target.getName());
+            messages().send(target, "disabled-by-other", "player", sender.getName());
         }
 
         return true;
@@ -228,6 +775,60 @@ public class CameraCommandExecutor implements CommandExecutor, TabCompleter {
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         List<String> completions = new ArrayList<>();
 
+        if (args.length >= 2 && args[0].equalsIgnoreCase("path") && sender.hasPermission("rideablecamera.path")) {
+            if (args.length == 2) {
+                completions.addAll(Arrays.asList("list", "play", "stop", "point"));
+            } else if (args.length == 3 && (args[1].equalsIgnoreCase("play") || args[1].equalsIgnoreCase("point"))) {
+                completions.addAll(plugin.getPathManager().getPathNames());
+            }
+            String current = args[args.length - 1].toLowerCase();
+            completions.removeIf(name -> !name.toLowerCase().startsWith(current));
+            return completions;
+        }
+
+        if (args.length == 2 && args[0].equalsIgnoreCase("replay")
+                && sender.hasPermission("rideablecamera.replay")) {
+            // Suggest recordings
+            completions.add("stop");
+            completions.addAll(plugin.getRecordingManager().getRecordingNames());
+            completions.removeIf(name -> !name.toLowerCase().startsWith(args[1].toLowerCase()));
+            return completions;
+        }
+
+        if (args.length >= 2 && args[0].equalsIgnoreCase("trace") && sender.hasPermission("rideablecamera.trace")) {
+            if (args.length == 2) {
+                completions.add("dump");
+                completions.removeIf(name -> !name.startsWith(args[1].toLowerCase()));
+            } else if (args.length == 3 && args[1].equalsIgnoreCase("dump")) {
+                completions.addAll(players.complete(args[2], player -> true));
+            }
+            return completions;
+        }
+
+        if (args.length == 2 && args[0].equalsIgnoreCase("set")) {
+            for (String setting : Arrays.asList("distance", "height", "side", "smoothness")) {
+                if (setting.startsWith(args[1].toLowerCase())) {
+                    completions.add(setting);
+                }
+            }
+            return completions;
+        }
+
+        if (args.length == 2 && args[0].equalsIgnoreCase("mode")) {
+            for (String mode : CameraImplementationRegistry.getNames()) {
+                if (mode.startsWith(args[1].toLowerCase())) {
+                    completions.add(mode);
+                }
+            }
+            return completions;
+        }
+
+        if (args.length == 2 && args[0].equalsIgnoreCase("watch")
+                && sender.hasPermission("rideablecamera.watch")) {
+            // Suggest players with an active camera
+            return players.complete(args[1], cameraManager::isActive);
+        }
+
         if (args.length == 1) {
             // Suggest subcommands
             completions.addAll(SUBCOMMANDS.stream()
@@ -236,10 +837,7 @@ public class CameraCommandExecutor implements CommandExecutor, TabCompleter {
 
             // Suggest online players if has permission
             if (sender.hasPermission("rideablecamera.others")) {
-                completions.addAll(Bukkit.getOnlinePlayers().stream()
-                        .map(Player::getName)
-                        .filter(name -> name.toLowerCase().startsWith(args[0].toLowerCase()))
-                        .collect(Collectors.toList()));
+                completions.addAll(players.complete(args[0], player -> true));
             }
         }
 
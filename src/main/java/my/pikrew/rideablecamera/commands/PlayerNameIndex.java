@@ -0,0 +1,125 @@
+package my.pikrew.rideablecamera.commands;
+
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Online players sorted by lowercase name
+ * Kept up to date on join and quit, so a name prefix is a range lookup
+ * instead of a scan over every online player. Main thread only
+ */
+public class PlayerNameIndex {
+
+    // Sorts after every character a player name can hold
+    private static final char PREFIX_END = Character.MAX_VALUE;
+
+    private final TreeMap<String, Player> byName;
+
+    public PlayerNameIndex() {
+        this.byName = new TreeMap<>();
+    }
+
+    /**
+     * Add a player who joined
+     * @param player The player
+     */
+    public void add(Player player) {
+        byName.put(key(player.getName()), player);
+    }
+
+    /**
+     * Remove a player who quit
+     * @param player The player
+     */
+    public void remove(Player player) {
+        byName.remove(key(player.getName()), player);
+    }
+
+    /**
+     * Find a player by name, like Bukkit.getPlayer(String)
+     * @param name Full name or the start of one, any case
+     * @return The exact match, else the shortest name starting with it, else null
+     */
+    public Player find(String name) {
+        String key = key(name);
+        Player exact = byName.get(key);
+        if (exact != null) {
+            return exact;
+        }
+
+        Player closest = null;
+        for (Player player : startingWith(key)) {
+            if (closest == null || player.getName().length() < closest.getName().length()) {
+                closest = player;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Get the players whose name starts with a prefix
+     * @param prefix Name prefix, any case
+     * @return Live view sorted by name, don't keep it past the current tick
+     */
+    public Collection<Player> startingWith(String prefix) {
+        return range(key(prefix)).values();
+    }
+
+    /**
+     * Select players by name prefix and a condition
+     * @param prefix Name prefix, any case, empty for everyone
+     * @param filter Condition, for example an active camera or a world
+     * @return Matching players sorted by name
+     */
+    public List<Player> select(String prefix, Predicate<Player> filter) {
+        List<Player> players = new ArrayList<>();
+        for (Player player : startingWith(prefix)) {
+            if (filter.test(player)) {
+                players.add(player);
+            }
+        }
+        return players;
+    }
+
+    /**
+     * Complete a player name
+     * @param prefix What was typed so far
+     * @param filter Condition the suggested players must meet
+     * @return Names in their own case, sorted
+     */
+    public List<String> complete(String prefix, Predicate<Player> filter) {
+        List<String> names = new ArrayList<>();
+        for (Player player : startingWith(prefix)) {
+            if (filter.test(player)) {
+                names.add(player.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Get the number of indexed players
+     * @return Players
+     */
+    public int size() {
+        return byName.size();
+    }
+
+    private NavigableMap<String, Player> range(String key) {
+        if (key.isEmpty()) {
+            return byName;
+        }
+        return byName.subMap(key, true, key + PREFIX_END, false);
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
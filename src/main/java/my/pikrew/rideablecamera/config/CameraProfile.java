@@ -0,0 +1,149 @@
+package my.pikrew.rideablecamera.config;
+
+import my.pikrew.rideablecamera.camera.CameraImplementationRegistry;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Camera limits and features granted through a permission node
+ * Resolved once per session and read by the tick loop
+ *
+ * @param name Profile name
+ * @param permission Permission node, null for the default profile
+ * @param priority Higher priorities are checked first
+ * @param maxDistance Largest camera distance the player may use
+ * @param implementations Allowed camera implementations
+ * @param updateInterval Ticks between camera updates
+ * @param lodTier Body detail: 0 = full, 1 = reduced equipment sync, 2 = no live equipment sync
+ * @param canRecord Player may record their own camera
+ */
+public record CameraProfile(
+        String name,
+        String permission,
+        int priority,
+        double maxDistance,
+        Set<String> implementations,
+        long updateInterval,
+        int lodTier,
+        boolean canRecord
+) {
+
+    public static final String DEFAULT_NAME = "default";
+
+    /**
+     * Check if an implementation may be used with this profile
+     * @param implementation Implementation name
+     * @return true if allowed
+     */
+    public boolean allowsImplementation(String implementation) {
+        return implementations.contains(implementation);
+    }
+
+    /**
+     * Get camera updates between live equipment syncs of the body
+     * @param fullDetail Interval the implementation uses at full detail
+     * @return Interval, or 0 if equipment is only copied at session start
+     */
+    public int getEquipmentSyncInterval(int fullDetail) {
+        switch (lodTier) {
+            case 0:
+                return fullDetail;
+            case 1:
+                return 40;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Compile the configured profiles
+     * Settings a profile leaves out are taken from the default profile
+     * @param section The profiles section, may be null
+     * @param base Default profile
+     * @param warnings List to add validation warnings to
+     * @return Profiles sorted by priority, highest first
+     */
+    public static List<CameraProfile> compileProfiles(ConfigurationSection section, CameraProfile base,
+                                                      List<String> warnings) {
+        List<CameraProfile> profiles = new ArrayList<>();
+        if (section == null) {
+            return profiles;
+        }
+
+        for (String name : section.getKeys(false)) {
+            ConfigurationSection profile = section.getConfigurationSection(name);
+            if (profile == null) {
+                continue;
+            }
+
+            String permission = profile.getString("permission", "rideablecamera.profile." + name.toLowerCase());
+
+            double maxDistance = profile.getDouble("max-distance", base.maxDistance());
+            if (maxDistance < 0.5 || maxDistance > 10.0) {
+                warnings.add("profiles." + name + ".max-distance must be between 0.5 and 10.0, got " + maxDistance);
+                maxDistance = Math.max(0.5, Math.min(maxDistance, 10.0));
+            }
+
+            Set<String> implementations = base.implementations();
+            if (profile.isList("implementations")) {
+                implementations = parseImplementations(profile.getStringList("implementations"),
+                        "profiles." + name, warnings);
+            }
+
+            long updateInterval = profile.getLong("update-interval", base.updateInterval());
+            if (updateInterval < 1) {
+                warnings.add("profiles." + name + ".update-interval must be at least 1, using 1");
+                updateInterval = 1;
+            }
+
+            int lodTier = profile.getInt("lod-tier", base.lodTier());
+            if (lodTier < 0 || lodTier > 2) {
+                warnings.add("profiles." + name + ".lod-tier must be between 0 and 2, got " + lodTier);
+                lodTier = Math.max(0, Math.min(lodTier, 2));
+            }
+
+            profiles.add(new CameraProfile(
+                    name,
+                    permission,
+                    profile.getInt("priority", 0),
+                    maxDistance,
+                    implementations,
+                    updateInterval,
+                    lodTier,
+                    profile.getBoolean("record", base.canRecord())
+            ));
+        }
+
+        profiles.sort(Comparator.comparingInt(CameraProfile::priority).reversed());
+        return profiles;
+    }
+
+    /**
+     * Parse a list of implementation names, dropping unknown ones
+     */
+    static Set<String> parseImplementations(List<String> names, String path, List<String> warnings) {
+        Set<String> implementations = new HashSet<>();
+
+        for (String name : names) {
+            String implementation = name.toLowerCase();
+            if (CameraImplementationRegistry.isKnown(implementation)) {
+                implementations.add(implementation);
+            } else {
+                warnings.add("Unknown implementation '" + name + "' in " + path);
+            }
+        }
+
+        if (implementations.isEmpty()) {
+            warnings.add(path + " allows no implementation, allowing " + CameraImplementationRegistry.DEFAULT);
+            implementations.add(CameraImplementationRegistry.DEFAULT);
+        }
+
+        return Collections.unmodifiableSet(implementations);
+    }
+}
@@ -2,38 +2,238 @@ package my.pikrew.rideablecamera.config;
 
 import my.pikrew.rideablecamera.RideableCameraPlugin;
 import my.pikrew.rideablecamera.models.CameraSettings;
-import org.bukkit.configuration.file.FileConfiguration;
+import my.pikrew.rideablecamera.path.PathManager;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Manages plugin configuration
+ * The config is compiled into an immutable {@link ConfigSnapshot}; getters
+ * only read the current snapshot, reloads parse off the main thread and
+ * swap the snapshot in one step. Reloads and saves share one background
+ * thread, so they happen in the order they were asked for
  */
 public class ConfigManager {
 
     private final RideableCameraPlugin plugin;
-    private FileConfiguration config;
+    private final File configFile;
+    private final File langFolder;
+    private final List<Runnable> reloadListeners;
+    private final ExecutorService io;
+
+    // Contents of our own last save, so the watcher can skip it
+    private volatile String lastSaved;
+
+    // Current snapshot, replaced as a whole on reload
+    private volatile ConfigSnapshot snapshot;
+
+    // Last parsed config, only used for edits on the main thread
+    private YamlConfiguration config;
+    private YamlConfiguration defaults;
+    private ConfigWatcher watcher;
+
+    // Edits not known to be on disk yet, a reload parsed before their save gets them again (main thread only)
+    private final Deque<PendingEdit> pendingEdits = new ArrayDeque<>();
+    private long editCount;
+
+    // Last edit whose save has run, written on the config thread
+    private volatile long savedEdits;
+
+    /**
+     * An edit made on the main thread, numbered in the order of their saves
+     */
+    private record PendingEdit(long id, Consumer<YamlConfiguration> edit) {
+    }
 
     public ConfigManager(RideableCameraPlugin plugin) {
         this.plugin = plugin;
+        this.configFile = new File(plugin.getDataFolder(), "config.yml");
+        this.langFolder = new File(plugin.getDataFolder(), "lang");
+        this.reloadListeners = new ArrayList<>();
+        this.io = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RideableCamera-Config");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
      * Load configuration from file
+     * Runs on the main thread during enable, before anything reads the config
      */
     public void loadConfig() {
         plugin.saveDefaultConfig();
-        plugin.reloadConfig();
-        this.config = plugin.getConfig();
+        this.defaults = loadDefaults();
 
+        try {
+            YamlConfiguration parsed = parse();
+            List<String> warnings = new ArrayList<>();
+            ConfigSnapshot compiled = ConfigSnapshot.compile(parsed, langFolder, warnings);
+            logWarnings(warnings);
+
+            this.config = parsed;
+            this.snapshot = compiled;
+        } catch (IOException | InvalidConfigurationException | RuntimeException e) {
+            plugin.getLogger().severe("Failed to load config.yml, using defaults: " + e.getMessage());
+            this.config = new YamlConfiguration();
+            if (defaults != null) {
+                this.config.setDefaults(defaults);
+            }
+            this.snapshot = ConfigSnapshot.compile(config, langFolder, new ArrayList<>());
+        }
+
+        updateWatcher();
         plugin.getLogger().info("Configuration loaded successfully!");
     }
 
     /**
      * Reload configuration
+     * The file is parsed and validated asynchronously; the new snapshot is
+     * applied on the main thread. A broken file leaves the current config in place
+     * @return Future completed on the main thread, true if the reload was applied
+     */
+    public CompletableFuture<Boolean> reloadConfiguration() {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        io.execute(() -> reload(result));
+        return result;
+    }
+
+    /**
+     * Parse, compile and apply the config
+     * Runs on the config thread
      */
-    public void reloadConfiguration() {
-        plugin.reloadConfig();
-        this.config = plugin.getConfig();
-        plugin.getLogger().info("Configuration reloaded!");
+    private void reload(CompletableFuture<Boolean> result) {
+        YamlConfiguration parsed;
+        ConfigSnapshot compiled;
+        List<String> warnings = new ArrayList<>();
+
+        // Saves run on this thread too, the file has every edit up to here
+        long saved = savedEdits;
+
+        try {
+            parsed = parse();
+            compiled = ConfigSnapshot.compile(parsed, langFolder, warnings);
+        } catch (IOException | InvalidConfigurationException | RuntimeException e) {
+            plugin.getLogger().warning("Config reload failed, keeping the current config: " + e.getMessage());
+            completeOnMainThread(result, false);
+            return;
+        }
+
+        logWarnings(warnings);
+
+        runOnMainThread(() -> {
+            this.config = parsed;
+            this.snapshot = reapplyEdits(parsed, compiled, saved);
+            updateWatcher();
+
+            for (Runnable listener : reloadListeners) {
+                listener.run();
+            }
+
+            plugin.getLogger().info("Configuration reloaded!");
+            result.complete(true);
+        });
+    }
+
+    /**
+     * Apply the edits made since a reload read the file to its config
+     * Runs on the main thread, before the reloaded config is used
+     * @param saved Last edit the file had when it was read
+     * @return Snapshot of the config with those edits
+     */
+    private ConfigSnapshot reapplyEdits(YamlConfiguration parsed, ConfigSnapshot compiled, long saved) {
+        forgetSavedEdits(saved);
+        if (pendingEdits.isEmpty()) {
+            return compiled;
+        }
+
+        for (PendingEdit pending : pendingEdits) {
+            pending.edit().accept(parsed);
+        }
+        return ConfigSnapshot.compile(parsed, langFolder, new ArrayList<>());
+    }
+
+    /**
+     * Drop the pending edits a save has written
+     * @param saved Last saved edit
+     */
+    private void forgetSavedEdits(long saved) {
+        while (!pendingEdits.isEmpty() && pendingEdits.peekFirst().id() <= saved) {
+            pendingEdits.removeFirst();
+        }
+    }
+
+    /**
+     * Reload after the watcher saw config.yml change, unless it was our own save
+     * Runs on the watcher thread
+     */
+    private void onFileChanged() {
+        io.execute(() -> {
+            String saved = lastSaved;
+            try {
+                if (saved != null && saved.equals(Files.readString(configFile.toPath(), StandardCharsets.UTF_8))) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Let the reload report it
+            }
+            reload(new CompletableFuture<>());
+        });
+    }
+
+    /**
+     * Run a task on the main thread after every applied reload
+     * @param listener Task to run
+     */
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * Stop watching the config file and finish pending saves
+     */
+    public void shutdown() {
+        if (watcher != null) {
+            watcher.stop();
+            watcher = null;
+        }
+
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Config saves did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the current config snapshot
+     * @return Snapshot
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
     }
 
     /**
@@ -41,7 +241,7 @@ public class ConfigManager {
      * @return Implementation type (armorstand or fakeplayer)
      */
     public String getCameraImplementation() {
-        return config.getString("camera.implementation", "armorstand");
+        return snapshot.cameraImplementation();
     }
 
     /**
@@ -49,24 +249,15 @@ public class ConfigManager {
      * @return true if enabled
      */
     public boolean isAutoEnableOnJoin() {
-        return config.getBoolean("camera.auto-enable-on-join", false);
+        return snapshot.autoEnableOnJoin();
     }
 
     /**
      * Get default camera settings from config
-     * @return CameraSettings
+     * @return Shared CameraSettings instance
      */
     public CameraSettings getDefaultCameraSettings() {
-        CameraSettings settings = new CameraSettings();
-
-        settings.setDistance(config.getDouble("camera.distance", 3.5));
-        settings.setHeight(config.getDouble("camera.height", 1.5));
-        settings.setSideOffset(config.getDouble("camera.side-offset", 0.0));
-        settings.setSmoothness(config.getDouble("camera.smoothness", 0.15));
-        settings.setCopyEquipment(config.getBoolean("npc.copy-equipment", true));
-        settings.setShowNpcName(config.getBoolean("npc.show-name", false));
-
-        return settings;
+        return snapshot.defaultSettings();
     }
 
     /**
@@ -75,9 +266,7 @@ public class ConfigManager {
      * @return Formatted message
      */
     public String getMessage(String key) {
-        String prefix = config.getString("messages.prefix", "§a[RideCam]§f");
-        String message = config.getString("messages." + key, key);
-        return prefix + " " + message;
+        return snapshot.messages().get(key);
     }
 
     /**
@@ -86,7 +275,16 @@ public class ConfigManager {
      * @return Raw message
      */
     public String getRawMessage(String key) {
-        return config.getString("messages." + key, key);
+        return snapshot.messages().getRaw(key);
+    }
+
+    /**
+     * Get the precompiled message catalog
+     * Replaced on reload, so don't keep a reference to it
+     * @return Message catalog
+     */
+    public MessageCatalog getMessages() {
+        return snapshot.messages();
     }
 
     /**
@@ -94,7 +292,23 @@ public class ConfigManager {
      * @return true if enabled
      */
     public boolean isDoubleSneakToggle() {
-        return config.getBoolean("camera.double-sneak-toggle", false);
+        return snapshot.gestures().doubleSneakToggle();
+    }
+
+    /**
+     * Get gesture settings
+     * @return Gesture settings
+     */
+    public GestureSettings getGestures() {
+        return snapshot.gestures();
+    }
+
+    /**
+     * Get load governor settings
+     * @return Governor settings
+     */
+    public GovernorSettings getGovernor() {
+        return snapshot.governor();
     }
 
     /**
@@ -102,7 +316,7 @@ public class ConfigManager {
      * @return Update interval
      */
     public long getUpdateInterval() {
-        return config.getLong("camera.update-interval", 1L);
+        return snapshot.updateInterval();
     }
 
     /**
@@ -110,6 +324,133 @@ public class ConfigManager {
      * @return true if enabled
      */
     public boolean isSyncEquipment() {
-        return config.getBoolean("npc.sync-equipment", true);
+        return snapshot.syncEquipment();
+    }
+
+    /**
+     * Get the camera paths section of the last parsed config
+     * @return Paths section or null if none are defined
+     */
+    public ConfigurationSection getPathsSection() {
+        return config.getConfigurationSection("paths");
+    }
+
+    /**
+     * Append a control point to a camera path and save the config
+     * The file is written on the config thread, after earlier saves and reloads;
+     * a reload that read the file before this save applies the point again
+     * @param name Path name, see PathManager.normalizeName
+     * @param world World name
+     * @param point Point as "x,y,z"
+     * @return All control points of the path
+     */
+    public List<String> addPathPoint(String name, String world, String point) {
+        String key = PathManager.normalizeName(name);
+        if (key == null) {
+            throw new IllegalArgumentException("Invalid path name: " + name);
+        }
+
+        String path = "paths." + key;
+        Consumer<YamlConfiguration> edit = target -> {
+            List<String> points = target.getStringList(path + ".points");
+            points.add(point);
+
+            target.set(path + ".world", world);
+            target.set(path + ".points", points);
+        };
+        edit.accept(config);
+
+        long id = ++editCount;
+        forgetSavedEdits(savedEdits);
+        pendingEdits.addLast(new PendingEdit(id, edit));
+
+        String data = config.saveToString();
+        io.execute(() -> {
+            save(data);
+            savedEdits = id;
+        });
+
+        return config.getStringList(path + ".points");
+    }
+
+    /**
+     * Replace config.yml in one step, so a reader never sees half a file
+     * Runs on the config thread
+     */
+    private void save(String data) {
+        Path target = configFile.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try {
+            Files.writeString(temp, data, StandardCharsets.UTF_8);
+            lastSaved = data;
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to save config.yml: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parse config.yml from disk
+     * Safe to call off the main thread
+     */
+    private YamlConfiguration parse() throws IOException, InvalidConfigurationException {
+        YamlConfiguration parsed = new YamlConfiguration();
+        parsed.load(configFile);
+
+        if (defaults != null) {
+            parsed.setDefaults(defaults);
+        }
+
+        return parsed;
+    }
+
+    /**
+     * Load the default config bundled in the jar
+     */
+    private YamlConfiguration loadDefaults() {
+        InputStream stream = plugin.getResource("config.yml");
+        if (stream == null) {
+            return null;
+        }
+
+        try (InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return YamlConfiguration.loadConfiguration(reader);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Start or stop the file watcher to match the current config
+     */
+    private void updateWatcher() {
+        if (snapshot.watchConfig() && watcher == null) {
+            watcher = new ConfigWatcher(configFile.toPath(), this::onFileChanged, plugin.getLogger());
+            watcher.start();
+        } else if (!snapshot.watchConfig() && watcher != null) {
+            watcher.stop();
+            watcher = null;
+        }
+    }
+
+    private void logWarnings(List<String> warnings) {
+        for (String warning : warnings) {
+            plugin.getLogger().warning("Config: " + warning);
+        }
+    }
+
+    private void runOnMainThread(Runnable task) {
+        if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+
+    private void completeOnMainThread(CompletableFuture<Boolean> result, boolean value) {
+        runOnMainThread(() -> result.complete(value));
     }
 }
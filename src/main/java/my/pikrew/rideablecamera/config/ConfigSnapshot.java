@@ -0,0 +1,221 @@
+package my.pikrew.rideablecamera.config;
+
+import my.pikrew.rideablecamera.camera.CameraImplementationRegistry;
+import my.pikrew.rideablecamera.models.CameraSettings;
+import my.pikrew.rideablecamera.path.CameraPath;
+import my.pikrew.rideablecamera.path.PathManager;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, validated view of config.yml
+ * Built off the main thread and swapped in as a whole on reload
+ *
+ * @param cameraImplementation Camera implementation of new sessions
+ * @param autoEnableOnJoin Enable camera on join
+ * @param gestures Double-sneak, hold-to-zoom and scroll gestures
+ * @param governor Tick budget that moves sessions between implementations
+ * @param updateInterval Update interval in ticks
+ * @param syncEquipment Sync equipment changes in real time
+ * @param watchConfig Reload automatically when config.yml changes
+ * @param storageType Player settings backend (binary or sqlite)
+ * @param storageFlushInterval Seconds between player settings flushes
+ * @param skinCacheSize Owners whose skin texture is cached at most
+ * @param skinCacheTtl Seconds a cached skin texture is used
+ * @param defaultSettings Default camera settings
+ * @param prefix Message prefix
+ * @param messages Precompiled message catalog
+ * @param defaultProfile Profile for players without any profile permission
+ * @param profiles Permission profiles, highest priority first
+ * @param paths Sampled camera paths, by lower case name
+ */
+public record ConfigSnapshot(
+        String cameraImplementation,
+        boolean autoEnableOnJoin,
+        GestureSettings gestures,
+        GovernorSettings governor,
+        long updateInterval,
+        boolean syncEquipment,
+        boolean watchConfig,
+        String storageType,
+        long storageFlushInterval,
+        int skinCacheSize,
+        long skinCacheTtl,
+        CameraSettings defaultSettings,
+        String prefix,
+        MessageCatalog messages,
+        CameraProfile defaultProfile,
+        List<CameraProfile> profiles,
+        Map<String, CameraPath> paths
+) {
+
+    /**
+     * Compile a snapshot from a parsed config
+     * Values out of range are clamped and reported as warnings
+     * @param config Parsed config
+     * @param langFolder Folder with per-locale message files
+     * @param warnings List to add validation warnings to
+     * @return Snapshot
+     */
+    public static ConfigSnapshot compile(ConfigurationSection config, File langFolder, List<String> warnings) {
+        String implementation = config.getString("camera.implementation", CameraImplementationRegistry.DEFAULT).toLowerCase();
+        if (!CameraImplementationRegistry.isKnown(implementation)) {
+            warnings.add("Unknown camera.implementation '" + implementation + "', using " + CameraImplementationRegistry.DEFAULT);
+            implementation = CameraImplementationRegistry.DEFAULT;
+        }
+
+        long updateInterval = config.getLong("camera.update-interval", 1L);
+        if (updateInterval < 1) {
+            warnings.add("camera.update-interval must be at least 1, using 1");
+            updateInterval = 1;
+        }
+
+        String storageType = config.getString("storage.type", "binary").toLowerCase();
+        if (!storageType.equals("binary") && !storageType.equals("sqlite")) {
+            warnings.add("Unknown storage.type '" + storageType + "', using binary");
+            storageType = "binary";
+        }
+
+        long flushInterval = config.getLong("storage.flush-interval", 30L);
+        if (flushInterval < 1) {
+            warnings.add("storage.flush-interval must be at least 1, using 1");
+            flushInterval = 1;
+        }
+
+        // Default camera settings
+        CameraSettings settings = CameraSettings.of(
+                checkRange(config, "camera.distance", 3.5, 0.5, 10.0, warnings),
+                checkRange(config, "camera.height", 1.5, -2.0, 10.0, warnings),
+                checkRange(config, "camera.side-offset", 0.0, -5.0, 5.0, warnings),
+                checkRange(config, "camera.smoothness", 0.15, 0.0, 1.0, warnings),
+                config.getBoolean("npc.copy-equipment", true),
+                config.getBoolean("npc.show-name", false));
+
+        // Camera profiles, "default" applies to everyone without a profile permission
+        ConfigurationSection profileSection = config.getConfigurationSection("profiles");
+        CameraProfile defaultProfile = compileDefaultProfile(config, updateInterval, warnings);
+
+        List<CameraProfile> profiles = new ArrayList<>();
+        for (CameraProfile profile : CameraProfile.compileProfiles(profileSection, defaultProfile, warnings)) {
+            if (!profile.name().equalsIgnoreCase(CameraProfile.DEFAULT_NAME)) {
+                profiles.add(profile);
+            }
+        }
+
+        // Messages, parsed once here instead of on every send
+        String prefix = config.getString("messages.prefix", "§a[RideCam]§f");
+        Map<String, String> rawMessages = new HashMap<>();
+
+        ConfigurationSection messageSection = config.getConfigurationSection("messages");
+        if (messageSection != null) {
+            // Include bundled messages missing from the file
+            Set<String> keys = new HashSet<>(messageSection.getKeys(false));
+            ConfigurationSection defaultMessages = messageSection.getDefaultSection();
+            if (defaultMessages != null) {
+                keys.addAll(defaultMessages.getKeys(false));
+            }
+
+            for (String key : keys) {
+                String message = messageSection.getString(key);
+                if (message != null) {
+                    rawMessages.put(key, message);
+                }
+            }
+        }
+
+        return new ConfigSnapshot(
+                implementation,
+                config.getBoolean("camera.auto-enable-on-join", false),
+                compileGestures(config, warnings),
+                compileGovernor(config, warnings),
+                updateInterval,
+                config.getBoolean("npc.sync-equipment", true),
+                config.getBoolean("watch-config", false),
+                storageType,
+                flushInterval,
+                (int) checkRange(config, "npc.skin-cache.size", 256, 1, 10000, warnings),
+                (long) checkRange(config, "npc.skin-cache.ttl", 600, 10, 86400, warnings),
+                settings,
+                prefix,
+                MessageCatalog.compile(prefix, rawMessages, langFolder, warnings),
+                defaultProfile,
+                Collections.unmodifiableList(profiles),
+                Collections.unmodifiableMap(PathManager.compilePaths(config.getConfigurationSection("paths"), warnings))
+        );
+    }
+
+    /**
+     * Compile the gesture settings
+     */
+    private static GestureSettings compileGestures(ConfigurationSection config, List<String> warnings) {
+        return new GestureSettings(
+                config.getBoolean("camera.double-sneak-toggle", false),
+                (long) checkRange(config, "camera.gestures.double-sneak-window", 400, 100, 2000, warnings),
+                config.getBoolean("camera.gestures.hold-to-zoom", false),
+                (long) checkRange(config, "camera.gestures.hold-delay", 350, 100, 5000, warnings),
+                checkRange(config, "camera.gestures.zoom-distance", 1.5, 0.5, 10.0, warnings),
+                config.getBoolean("camera.gestures.scroll-distance", false),
+                checkRange(config, "camera.gestures.scroll-step", 0.5, 0.1, 5.0, warnings));
+    }
+
+    /**
+     * Compile the load governor settings
+     */
+    private static GovernorSettings compileGovernor(ConfigurationSection config, List<String> warnings) {
+        return new GovernorSettings(
+                config.getBoolean("camera.load-balancing.enabled", false),
+                checkRange(config, "camera.load-balancing.budget-micros", 2000, 100, 50000, warnings),
+                checkRange(config, "camera.load-balancing.recover-below", 0.5, 0.1, 0.9, warnings),
+                (int) checkRange(config, "camera.load-balancing.check-interval", 20, 5, 1200, warnings),
+                (int) checkRange(config, "camera.load-balancing.sessions-per-check", 4, 1, 100, warnings));
+    }
+
+    /**
+     * Compile the profile used when no permission profile matches
+     */
+    private static CameraProfile compileDefaultProfile(ConfigurationSection config, long updateInterval,
+                                                       List<String> warnings) {
+        ConfigurationSection section = config.getConfigurationSection("profiles." + CameraProfile.DEFAULT_NAME);
+        CameraProfile base = new CameraProfile(CameraProfile.DEFAULT_NAME, null, Integer.MIN_VALUE,
+                10.0, CameraImplementationRegistry.getNames(), updateInterval, 0, false);
+
+        if (section == null) {
+            return base;
+        }
+
+        double maxDistance = checkRange(config, "profiles.default.max-distance", base.maxDistance(), 0.5, 10.0, warnings);
+
+        Set<String> implementations = base.implementations();
+        if (section.isList("implementations")) {
+            implementations = CameraProfile.parseImplementations(section.getStringList("implementations"),
+                    "profiles.default", warnings);
+        }
+
+        long interval = Math.max(1L, section.getLong("update-interval", updateInterval));
+        int lodTier = Math.max(0, Math.min(section.getInt("lod-tier", 0), 2));
+
+        return new CameraProfile(CameraProfile.DEFAULT_NAME, null, Integer.MIN_VALUE,
+                maxDistance, implementations, interval, lodTier, section.getBoolean("record", false));
+    }
+
+    /**
+     * Read a number and clamp it to its allowed range
+     */
+    private static double checkRange(ConfigurationSection config, String path, double def,
+                                     double min, double max, List<String> warnings) {
+        double value = config.getDouble(path, def);
+        if (value < min || value > max) {
+            warnings.add(path + " must be between " + min + " and " + max + ", got " + value);
+            return Math.max(min, Math.min(value, max));
+        }
+        return value;
+    }
+}
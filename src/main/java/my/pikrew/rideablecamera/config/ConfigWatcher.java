@@ -0,0 +1,111 @@
+package my.pikrew.rideablecamera.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Watches config.yml and triggers a reload when it's edited
+ * Runs on its own daemon thread; bursts of events are debounced
+ */
+public class ConfigWatcher implements Runnable {
+
+    // Editors often write a file in several steps
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final Path file;
+    private final Runnable onChange;
+    private final Logger logger;
+    private WatchService watchService;
+    private Thread thread;
+
+    public ConfigWatcher(Path file, Runnable onChange, Logger logger) {
+        this.file = file;
+        this.onChange = onChange;
+        this.logger = logger;
+    }
+
+    /**
+     * Start watching
+     */
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            logger.warning("Could not watch " + file.getFileName() + ": " + e.getMessage());
+            return;
+        }
+
+        thread = new Thread(this, "RideableCamera-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop watching
+     */
+    public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+            watchService = null;
+        }
+        thread = null;
+    }
+
+    @Override
+    public void run() {
+        WatchService service = watchService;
+
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = pollChanged(key);
+
+                // Wait for the burst of events to end
+                while (changed) {
+                    WatchKey next = service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    pollChanged(next);
+                }
+
+                if (changed) {
+                    onChange.run();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher stopped
+        }
+    }
+
+    /**
+     * Drain a watch key
+     * @return true if it contained an event for the watched file
+     */
+    private boolean pollChanged(WatchKey key) {
+        boolean changed = false;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+
+        key.reset();
+        return changed;
+    }
+}
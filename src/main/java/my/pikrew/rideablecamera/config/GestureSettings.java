@@ -0,0 +1,31 @@
+package my.pikrew.rideablecamera.config;
+
+/**
+ * Timing and step sizes of the camera gestures
+ *
+ * @param doubleSneakToggle Toggle the camera by double sneaking
+ * @param doubleSneakWindow Milliseconds between the release of the first sneak and the second press
+ * @param holdToZoom Zoom in while sneak is held with the camera on
+ * @param holdDelay Milliseconds sneak must be held before zooming
+ * @param zoomDistance Camera distance while zoomed
+ * @param scrollDistance Change the camera distance with sneak + scroll or sneak + forward/back
+ * @param scrollStep Distance change per scroll notch or key press
+ */
+public record GestureSettings(
+        boolean doubleSneakToggle,
+        long doubleSneakWindow,
+        boolean holdToZoom,
+        long holdDelay,
+        double zoomDistance,
+        boolean scrollDistance,
+        double scrollStep
+) {
+
+    /**
+     * Check if any gesture is enabled
+     * @return true if gesture input has to be tracked
+     */
+    public boolean anyEnabled() {
+        return doubleSneakToggle || holdToZoom || scrollDistance;
+    }
+}
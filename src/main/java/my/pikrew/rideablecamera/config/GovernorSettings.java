@@ -0,0 +1,19 @@
+package my.pikrew.rideablecamera.config;
+
+/**
+ * Tick budget of the load governor
+ *
+ * @param enabled Move sessions to cheaper implementations when over budget
+ * @param budgetMicros Average camera tick time allowed, in microseconds
+ * @param recoverBelow Fraction of the budget the average must drop under before sessions move back
+ * @param checkInterval Ticks between checks
+ * @param sessionsPerCheck Sessions moved at most per check
+ */
+public record GovernorSettings(
+        boolean enabled,
+        double budgetMicros,
+        double recoverBelow,
+        int checkInterval,
+        int sessionsPerCheck
+) {
+}
@@ -0,0 +1,188 @@
+package my.pikrew.rideablecamera.config;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precompiled messages, one bundle per client locale
+ * Built off the main thread together with the config snapshot and only
+ * rebuilt on reload. Bundles are picked from Player#getLocale, falling back
+ * to the language and then to the messages in config.yml
+ */
+public class MessageCatalog {
+
+    private final Bundle defaultBundle;
+    private final Map<String, Bundle> bundles;
+
+    // Locale string -> bundle, filled on first use of each locale
+    private final Map<String, Bundle> resolved;
+
+    /**
+     * Templates of one locale
+     */
+    private static class Bundle {
+
+        private final Map<String, MessageTemplate> prefixed;
+        private final Map<String, MessageTemplate> raw;
+
+        private Bundle(Map<String, MessageTemplate> prefixed, Map<String, MessageTemplate> raw) {
+            this.prefixed = prefixed;
+            this.raw = raw;
+        }
+    }
+
+    private MessageCatalog(Bundle defaultBundle, Map<String, Bundle> bundles) {
+        this.defaultBundle = defaultBundle;
+        this.bundles = bundles;
+        this.resolved = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Compile the catalog
+     * @param prefix Default message prefix
+     * @param messages Default raw messages by key
+     * @param langFolder Folder with per-locale files (e.g. de_de.yml), may not exist
+     * @param warnings List to add load problems to
+     * @return Catalog
+     */
+    public static MessageCatalog compile(String prefix, Map<String, String> messages,
+                                         File langFolder, List<String> warnings) {
+        Bundle defaultBundle = compileBundle(prefix, messages);
+        Map<String, Bundle> bundles = new HashMap<>();
+
+        File[] files = langFolder.listFiles((dir, name) -> name.endsWith(".yml"));
+        if (files != null) {
+            for (File file : files) {
+                String locale = file.getName().substring(0, file.getName().length() - 4).toLowerCase();
+                YamlConfiguration yaml = new YamlConfiguration();
+
+                try {
+                    yaml.load(file);
+                } catch (Exception e) {
+                    warnings.add("Skipping language file " + file.getName() + ": " + e.getMessage());
+                    continue;
+                }
+
+                // Locale messages override the defaults key by key
+                Map<String, String> merged = new HashMap<>(messages);
+                ConfigurationSection section = yaml.isConfigurationSection("messages")
+                        ? yaml.getConfigurationSection("messages") : yaml;
+                for (String key : section.getKeys(false)) {
+                    if (!key.equals("prefix") && section.isString(key)) {
+                        merged.put(key, section.getString(key));
+                    }
+                }
+
+                bundles.put(locale, compileBundle(section.getString("prefix", prefix), merged));
+            }
+        }
+
+        return new MessageCatalog(defaultBundle, Collections.unmodifiableMap(bundles));
+    }
+
+    /**
+     * Send a prefixed message
+     * @param sender Receiver
+     * @param key Message key
+     * @param values Placeholder name/value pairs
+     */
+    public void send(CommandSender sender, String key, String... values) {
+        deliver(sender, resolve(sender).prefixed, key, values);
+    }
+
+    /**
+     * Send a message without prefix
+     * @param sender Receiver
+     * @param key Message key
+     * @param values Placeholder name/value pairs
+     */
+    public void sendRaw(CommandSender sender, String key, String... values) {
+        deliver(sender, resolve(sender).raw, key, values);
+    }
+
+    /**
+     * Get a prefixed message in the default locale
+     * @param key Message key
+     * @param values Placeholder name/value pairs
+     * @return Rendered message
+     */
+    public String get(String key, String... values) {
+        MessageTemplate template = defaultBundle.prefixed.get(key);
+        return template != null ? template.render(values) : key;
+    }
+
+    /**
+     * Get a message without prefix in the default locale
+     * @param key Message key
+     * @param values Placeholder name/value pairs
+     * @return Rendered message
+     */
+    public String getRaw(String key, String... values) {
+        MessageTemplate template = defaultBundle.raw.get(key);
+        return template != null ? template.render(values) : key;
+    }
+
+    private Bundle resolve(CommandSender sender) {
+        if (bundles.isEmpty() || !(sender instanceof Player)) {
+            return defaultBundle;
+        }
+
+        String locale = ((Player) sender).getLocale();
+        if (locale == null || locale.isEmpty()) {
+            return defaultBundle;
+        }
+
+        return resolved.computeIfAbsent(locale, this::findBundle);
+    }
+
+    private Bundle findBundle(String locale) {
+        String key = locale.toLowerCase();
+        Bundle bundle = bundles.get(key);
+
+        // Try the language alone (de_at -> de)
+        if (bundle == null && key.indexOf('_') > 0) {
+            bundle = bundles.get(key.substring(0, key.indexOf('_')));
+        }
+
+        return bundle != null ? bundle : defaultBundle;
+    }
+
+    private void deliver(CommandSender sender, Map<String, MessageTemplate> templates, String key, String[] values) {
+        MessageTemplate template = templates.get(key);
+
+        if (sender instanceof Player) {
+            ((Player) sender).spigot().sendMessage(template != null
+                    ? template.renderComponents(values)
+                    : missing(key));
+        } else {
+            sender.sendMessage(template != null ? template.render(values) : key);
+        }
+    }
+
+    private static BaseComponent[] missing(String key) {
+        return TextComponent.fromLegacyText(key);
+    }
+
+    private static Bundle compileBundle(String prefix, Map<String, String> messages) {
+        Map<String, MessageTemplate> prefixed = new HashMap<>();
+        Map<String, MessageTemplate> raw = new HashMap<>();
+
+        for (Map.Entry<String, String> entry : messages.entrySet()) {
+            prefixed.put(entry.getKey(), MessageTemplate.parse(prefix + " " + entry.getValue()));
+            raw.put(entry.getKey(), MessageTemplate.parse(entry.getValue()));
+        }
+
+        return new Bundle(prefixed, raw);
+    }
+}
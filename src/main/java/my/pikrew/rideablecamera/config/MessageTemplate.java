@@ -0,0 +1,125 @@
+package my.pikrew.rideablecamera.config;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message parsed once into literal and placeholder tokens
+ * Messages without placeholders are rendered (and converted to chat
+ * components) only once
+ */
+public class MessageTemplate {
+
+    private final String[] literals;
+    private final String[] placeholders;
+
+    // Pre-rendered text for messages without placeholders
+    private final String constant;
+    private volatile BaseComponent[] constantComponents;
+
+    private MessageTemplate(String[] literals, String[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.constant = placeholders.length == 0 ? literals[0] : null;
+    }
+
+    /**
+     * Parse a message with %name% placeholders
+     * @param text Message text
+     * @return Template
+     */
+    public static MessageTemplate parse(String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int end = c == '%' ? text.indexOf('%', i + 1) : -1;
+
+            if (end > i + 1 && isPlaceholderName(text, i + 1, end)) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                placeholders.add(text.substring(i + 1, end));
+                i = end + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+
+        return new MessageTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    /**
+     * Render the message
+     * @param values Placeholder name/value pairs, e.g. "player", "Steve"
+     * @return Rendered text
+     */
+    public String render(String... values) {
+        if (constant != null) {
+            return constant;
+        }
+
+        StringBuilder builder = new StringBuilder(64);
+        for (int i = 0; i < placeholders.length; i++) {
+            builder.append(literals[i]);
+            builder.append(lookup(placeholders[i], values));
+        }
+        builder.append(literals[placeholders.length]);
+
+        return builder.toString();
+    }
+
+    /**
+     * Render the message as chat components
+     * @param values Placeholder name/value pairs
+     * @return Components, cached for messages without placeholders
+     */
+    public BaseComponent[] renderComponents(String... values) {
+        if (constant == null) {
+            return TextComponent.fromLegacyText(render(values));
+        }
+
+        BaseComponent[] components = constantComponents;
+        if (components == null) {
+            components = TextComponent.fromLegacyText(constant);
+            constantComponents = components;
+        }
+        return components;
+    }
+
+    /**
+     * Check if the message has placeholders
+     * @return true if it has none
+     */
+    public boolean isConstant() {
+        return constant != null;
+    }
+
+    private String lookup(String name, String[] values) {
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            if (values[i].equals(name)) {
+                return values[i + 1];
+            }
+        }
+
+        // Unknown placeholders are left as they are
+        return "%" + name + "%";
+    }
+
+    private static boolean isPlaceholderName(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '-' && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
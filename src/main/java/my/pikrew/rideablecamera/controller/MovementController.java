@@ -28,6 +28,9 @@ public class MovementController {
     // Current velocity
     private Vector velocity = new Vector(0, 0, 0);
 
+    // Scratch vector for the per-tick movement, never handed out
+    private final Vector movement = new Vector(0, 0, 0);
+
     // Ground detection
     private boolean onGround = true;
 
@@ -73,7 +76,17 @@ public class MovementController {
      * @return Movement vector
      */
     public Vector calculateMovement(float yaw) {
-        Vector movement = new Vector(0, 0, 0);
+        return calculateMovement(yaw, new Vector(0, 0, 0));
+    }
+
+    /**
+     * Calculate movement direction into an existing vector
+     * @param yaw Player yaw rotation
+     * @param movement Vector to write the result to
+     * @return movement, for chaining
+     */
+    private Vector calculateMovement(float yaw, Vector movement) {
+        movement.setY(0);
 
         // Calculate forward/backward
         double forwardAmount = 0;
@@ -113,10 +126,29 @@ public class MovementController {
      * @return New location after applying movement
      */
     public Location applyMovement(Location currentLocation, float yaw) {
-        Location newLocation = currentLocation.clone();
+        return applyMovement(currentLocation, yaw, currentLocation.clone());
+    }
+
+    /**
+     * Update velocity and position without allocating
+     * @param currentLocation Current location
+     * @param yaw Current yaw
+     * @param newLocation Location to write the result to, may be currentLocation itself
+     * @return newLocation, for chaining
+     */
+    public Location applyMovement(Location currentLocation, float yaw, Location newLocation) {
+        double currentY = currentLocation.getY();
+        if (newLocation != currentLocation) {
+            newLocation.setWorld(currentLocation.getWorld());
+            newLocation.setX(currentLocation.getX());
+            newLocation.setY(currentY);
+            newLocation.setZ(currentLocation.getZ());
+            newLocation.setYaw(currentLocation.getYaw());
+            newLocation.setPitch(currentLocation.getPitch());
+        }
 
         // Calculate desired movement
-        Vector movement = calculateMovement(yaw);
+        calculateMovement(yaw, movement);
 
         // Apply acceleration
         velocity.setX(velocity.getX() + (movement.getX() - velocity.getX()) * acceleration);
@@ -144,8 +176,8 @@ public class MovementController {
         newLocation.add(velocity);
 
         // Ground check (simplified)
-        if (newLocation.getY() <= currentLocation.getY() && velocity.getY() <= 0) {
-            newLocation.setY(currentLocation.getY());
+        if (newLocation.getY() <= currentY && velocity.getY() <= 0) {
+            newLocation.setY(currentY);
             velocity.setY(0);
             onGround = true;
         }
@@ -241,6 +273,7 @@ public class MovementController {
     public void setOnGround(boolean onGround) { this.onGround = onGround; }
 
     public Vector getVelocity() { return velocity.clone(); }
+    public double getVelocityLengthSquared() { return velocity.lengthSquared(); }
     public void setVelocity(Vector velocity) { this.velocity = velocity.clone(); }
 
     public double getWalkSpeed() { return walkSpeed; }
@@ -0,0 +1,291 @@
+package my.pikrew.rideablecamera.input;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.camera.CameraManager;
+import my.pikrew.rideablecamera.config.GestureSettings;
+import my.pikrew.rideablecamera.config.MessageCatalog;
+import my.pikrew.rideablecamera.models.CameraSession;
+import my.pikrew.rideablecamera.models.CameraSettings;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Camera controls driven by sneak, scroll and movement input
+ * Double-sneak toggles the camera, holding sneak zooms in and sneak + scroll
+ * (or sneak + forward/back) changes the camera distance.
+ * All state lives in one primitive table; a single shared task runs only
+ * while someone is holding sneak and waiting for the zoom
+ */
+public class GestureEngine {
+
+    private static final double MIN_DISTANCE = 0.5;
+
+    private final RideableCameraPlugin plugin;
+    private final GestureTable table;
+
+    // Players waiting for the hold delay to pass
+    private int holding;
+    private BukkitTask holdTask;
+
+    public GestureEngine(RideableCameraPlugin plugin) {
+        this.plugin = plugin;
+        this.table = new GestureTable(64);
+    }
+
+    /**
+     * Handle the sneak key
+     * Safe to call again with the same state, both the toggle event and the
+     * input event report it
+     * @param player The player
+     * @param sneaking Whether sneak is now held
+     */
+    public void onSneak(Player player, boolean sneaking) {
+        GestureSettings gestures = plugin.getConfigManager().getGestures();
+        if (!gestures.anyEnabled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (sneaking) {
+            press(player, gestures, now);
+        } else {
+            release(player, gestures, now);
+        }
+    }
+
+    /**
+     * Handle a scroll of the hotbar
+     * @param player The player
+     * @param notches Slots scrolled, negative towards the start of the hotbar
+     * @return true if the scroll changed the camera and should not change the slot
+     */
+    public boolean onScroll(Player player, int notches) {
+        GestureSettings gestures = plugin.getConfigManager().getGestures();
+        if (!gestures.scrollDistance() || notches == 0) {
+            return false;
+        }
+
+        int slot = table.find(player.getEntityId());
+        if (slot < 0 || !table.has(slot, GestureTable.SNEAKING)) {
+            return false;
+        }
+
+        CameraSession session = plugin.getCameraManager().getSession(player);
+        if (session == null) {
+            return false;
+        }
+
+        // Adjusting takes over from a pending or active zoom
+        cancelHold(slot);
+        unzoom(slot, session);
+        table.set(slot, GestureTable.CONSUMED);
+
+        CameraSettings settings = session.getSettings();
+        double distance = settings.getDistance() + notches * gestures.scrollStep();
+        distance = Math.max(MIN_DISTANCE, Math.min(distance, session.getProfile().maxDistance()));
+        if (distance == settings.getDistance()) {
+            return true;
+        }
+
+        settings = settings.withDistance(distance);
+        session.setSettings(settings);
+        plugin.getSettingsManager().saveSettings(player.getUniqueId(), settings);
+        return true;
+    }
+
+    /**
+     * Handle the movement keys
+     * Forward and back act as a scroll while sneak is held
+     * @param player The player
+     * @param sneak Sneak key held
+     * @param forward Forward key held
+     * @param backward Back key held
+     */
+    public void onInput(Player player, boolean sneak, boolean forward, boolean backward) {
+        onSneak(player, sneak);
+
+        int slot = table.find(player.getEntityId());
+        if (slot < 0) {
+            return;
+        }
+
+        boolean pressedForward = forward && !table.has(slot, GestureTable.FORWARD);
+        boolean pressedBackward = backward && !table.has(slot, GestureTable.BACKWARD);
+        setFlag(slot, GestureTable.FORWARD, forward);
+        setFlag(slot, GestureTable.BACKWARD, backward);
+
+        if (pressedForward) {
+            onScroll(player, -1);
+        }
+        if (pressedBackward) {
+            onScroll(player, 1);
+        }
+    }
+
+    /**
+     * End a pending or active zoom, putting back the distance from before it
+     * Called before the session settings are changed and saved, so the
+     * temporary zoom distance is never persisted
+     * @param player The player
+     */
+    public void endZoom(Player player) {
+        int slot = table.find(player.getEntityId());
+        if (slot < 0) {
+            return;
+        }
+
+        cancelHold(slot);
+        CameraSession session = plugin.getCameraManager().getSession(player);
+        if (session != null) {
+            unzoom(slot, session);
+        } else {
+            table.unset(slot, GestureTable.ZOOMED);
+        }
+    }
+
+    /**
+     * Drop a player's gesture state
+     * @param player The player
+     */
+    public void remove(Player player) {
+        int slot = table.find(player.getEntityId());
+        if (slot < 0) {
+            return;
+        }
+
+        cancelHold(slot);
+        table.remove(player.getEntityId());
+    }
+
+    /**
+     * Stop the hold task
+     */
+    public void shutdown() {
+        if (holdTask != null) {
+            holdTask.cancel();
+            holdTask = null;
+        }
+        holding = 0;
+    }
+
+    private void press(Player player, GestureSettings gestures, long now) {
+        int slot = table.getOrAdd(player.getEntityId(), player.getUniqueId());
+        if (table.has(slot, GestureTable.SNEAKING)) {
+            return;
+        }
+        table.set(slot, GestureTable.SNEAKING);
+        table.unset(slot, GestureTable.CONSUMED);
+
+        // Second press shortly after a tap
+        if (gestures.doubleSneakToggle()
+                && table.has(slot, GestureTable.TAPPED)
+                && now - table.getReleasedAt(slot) <= gestures.doubleSneakWindow()
+                && player.hasPermission("rideablecamera.use")) {
+            table.unset(slot, GestureTable.TAPPED);
+            table.set(slot, GestureTable.CONSUMED);
+
+            boolean enabled = plugin.getCameraManager().toggleCamera(player);
+            messages().send(player, enabled ? "enabled" : "disabled");
+            return;
+        }
+
+        table.setPressedAt(slot, now);
+        if (gestures.holdToZoom() && plugin.getCameraManager().isActive(player)) {
+            table.set(slot, GestureTable.HOLD_PENDING);
+            holding++;
+            startHoldTask();
+        }
+    }
+
+    private void release(Player player, GestureSettings gestures, long now) {
+        int slot = table.find(player.getEntityId());
+        if (slot < 0 || !table.has(slot, GestureTable.SNEAKING)) {
+            return;
+        }
+        table.unset(slot, GestureTable.SNEAKING);
+        cancelHold(slot);
+
+        CameraSession session = plugin.getCameraManager().getSession(player);
+        if (session != null) {
+            unzoom(slot, session);
+        } else {
+            table.unset(slot, GestureTable.ZOOMED);
+        }
+
+        // Only a short press that did nothing else counts as a tap
+        boolean tap = !table.has(slot, GestureTable.CONSUMED) && now - table.getPressedAt(slot) < gestures.holdDelay();
+        setFlag(slot, GestureTable.TAPPED, tap);
+        table.setReleasedAt(slot, now);
+        table.unset(slot, GestureTable.CONSUMED);
+    }
+
+    private void startHoldTask() {
+        if (holdTask == null) {
+            holdTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tickHolds, 1L, 1L);
+        }
+    }
+
+    /**
+     * Zoom in for everyone who has held sneak long enough
+     */
+    private void tickHolds() {
+        GestureSettings gestures = plugin.getConfigManager().getGestures();
+        CameraManager cameraManager = plugin.getCameraManager();
+        long now = System.currentTimeMillis();
+
+        for (int slot = 0; slot < table.capacity() && holding > 0; slot++) {
+            if (!table.isUsed(slot) || !table.has(slot, GestureTable.HOLD_PENDING)
+                    || now - table.getPressedAt(slot) < gestures.holdDelay()) {
+                continue;
+            }
+            cancelHold(slot);
+
+            Player player = plugin.getServer().getPlayer(table.getPlayer(slot));
+            CameraSession session = player != null ? cameraManager.getSession(player) : null;
+            if (session == null || !gestures.holdToZoom()) {
+                continue;
+            }
+
+            CameraSettings settings = session.getSettings();
+            table.setZoomFrom(slot, settings.getDistance());
+            table.set(slot, GestureTable.ZOOMED | GestureTable.CONSUMED);
+            session.setSettings(settings.withDistance(
+                    Math.min(gestures.zoomDistance(), session.getProfile().maxDistance())));
+        }
+
+        if (holding == 0 && holdTask != null) {
+            holdTask.cancel();
+            holdTask = null;
+        }
+    }
+
+    private void cancelHold(int slot) {
+        if (table.has(slot, GestureTable.HOLD_PENDING)) {
+            table.unset(slot, GestureTable.HOLD_PENDING);
+            holding--;
+        }
+    }
+
+    /**
+     * Go back to the distance from before the zoom
+     */
+    private void unzoom(int slot, CameraSession session) {
+        if (!table.has(slot, GestureTable.ZOOMED)) {
+            return;
+        }
+        table.unset(slot, GestureTable.ZOOMED);
+        session.setSettings(session.getSettings().withDistance(table.getZoomFrom(slot)));
+    }
+
+    private void setFlag(int slot, int flag, boolean value) {
+        if (value) {
+            table.set(slot, flag);
+        } else {
+            table.unset(slot, flag);
+        }
+    }
+
+    private MessageCatalog messages() {
+        return plugin.getConfigManager().getMessages();
+    }
+}
@@ -0,0 +1,226 @@
+package my.pikrew.rideablecamera.input;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Per-player gesture state in parallel primitive arrays
+ * Open addressing with linear probing on the player's entity id; removal
+ * shifts the following entries back so no tombstones are left behind.
+ * Slots move when the table grows, so callers look up a slot again after
+ * every insert. Main thread only
+ */
+public class GestureTable {
+
+    // Entity ids are never negative
+    private static final int EMPTY = -1;
+
+    // Flags
+    public static final int SNEAKING = 1;
+    public static final int ZOOMED = 1 << 1;
+    public static final int HOLD_PENDING = 1 << 2;
+    public static final int CONSUMED = 1 << 3;
+    public static final int TAPPED = 1 << 4;
+    public static final int FORWARD = 1 << 5;
+    public static final int BACKWARD = 1 << 6;
+
+    private int[] keys;
+    private UUID[] players;
+    private long[] pressedAt;
+    private long[] releasedAt;
+    private double[] zoomFrom;
+    private int[] flags;
+    private int size;
+
+    public GestureTable(int capacity) {
+        allocate(Integer.highestOneBit(Math.max(16, capacity - 1) << 1));
+    }
+
+    /**
+     * Find the slot of a player
+     * @param entityId Player entity id
+     * @return Slot, or -1 if the player has no state
+     */
+    public int find(int entityId) {
+        int mask = keys.length - 1;
+        for (int slot = mix(entityId) & mask; ; slot = (slot + 1) & mask) {
+            int key = keys[slot];
+            if (key == entityId) {
+                return slot;
+            }
+            if (key == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Find the slot of a player, adding empty state if there is none
+     * @param entityId Player entity id
+     * @param player Player UUID
+     * @return Slot
+     */
+    public int getOrAdd(int entityId, UUID player) {
+        int slot = find(entityId);
+        if (slot >= 0) {
+            return slot;
+        }
+
+        // Keep the load factor at or below one half
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+
+        int mask = keys.length - 1;
+        slot = mix(entityId) & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = entityId;
+        players[slot] = player;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Drop the state of a player
+     * @param entityId Player entity id
+     */
+    public void remove(int entityId) {
+        int slot = find(entityId);
+        if (slot < 0) {
+            return;
+        }
+
+        int mask = keys.length - 1;
+        clear(slot);
+        size--;
+
+        // Shift later entries of the probe run back into the hole
+        int hole = slot;
+        for (int next = (slot + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                move(next, hole);
+                hole = next;
+            }
+        }
+    }
+
+    /**
+     * Get the number of slots, for iterating with isUsed
+     * @return Slot count
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    public boolean isUsed(int slot) {
+        return keys[slot] != EMPTY;
+    }
+
+    public UUID getPlayer(int slot) {
+        return players[slot];
+    }
+
+    public boolean has(int slot, int flag) {
+        return (flags[slot] & flag) != 0;
+    }
+
+    public void set(int slot, int flag) {
+        flags[slot] |= flag;
+    }
+
+    public void unset(int slot, int flag) {
+        flags[slot] &= ~flag;
+    }
+
+    public long getPressedAt(int slot) {
+        return pressedAt[slot];
+    }
+
+    public void setPressedAt(int slot, long time) {
+        pressedAt[slot] = time;
+    }
+
+    public long getReleasedAt(int slot) {
+        return releasedAt[slot];
+    }
+
+    public void setReleasedAt(int slot, long time) {
+        releasedAt[slot] = time;
+    }
+
+    public double getZoomFrom(int slot) {
+        return zoomFrom[slot];
+    }
+
+    public void setZoomFrom(int slot, double distance) {
+        zoomFrom[slot] = distance;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        players = new UUID[capacity];
+        pressedAt = new long[capacity];
+        releasedAt = new long[capacity];
+        zoomFrom = new double[capacity];
+        flags = new int[capacity];
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        UUID[] oldPlayers = players;
+        long[] oldPressedAt = pressedAt;
+        long[] oldReleasedAt = releasedAt;
+        double[] oldZoomFrom = zoomFrom;
+        int[] oldFlags = flags;
+
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+            int slot = mix(oldKeys[i]) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            players[slot] = oldPlayers[i];
+            pressedAt[slot] = oldPressedAt[i];
+            releasedAt[slot] = oldReleasedAt[i];
+            zoomFrom[slot] = oldZoomFrom[i];
+            flags[slot] = oldFlags[i];
+        }
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        players[to] = players[from];
+        pressedAt[to] = pressedAt[from];
+        releasedAt[to] = releasedAt[from];
+        zoomFrom[to] = zoomFrom[from];
+        flags[to] = flags[from];
+        clear(from);
+    }
+
+    private void clear(int slot) {
+        keys[slot] = EMPTY;
+        players[slot] = null;
+        pressedAt[slot] = 0L;
+        releasedAt[slot] = 0L;
+        zoomFrom[slot] = 0.0;
+        flags[slot] = 0;
+    }
+
+    /**
+     * Spread sequential entity ids over the table
+     */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,55 @@
+package my.pikrew.rideablecamera.listeners;
+
+import my.pikrew.rideablecamera.input.GestureEngine;
+import org.bukkit.Input;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerInputEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerToggleSneakEvent;
+
+/**
+ * Feeds player input into the gesture engine
+ */
+public class GestureListener implements Listener {
+
+    private final GestureEngine gestures;
+
+    public GestureListener(GestureEngine gestures) {
+        this.gestures = gestures;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onToggleSneak(PlayerToggleSneakEvent event) {
+        gestures.onSneak(event.getPlayer(), event.isSneaking());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInput(PlayerInputEvent event) {
+        // Also reports sneak while spectating, where the toggle event is unreliable
+        Input input = event.getInput();
+        gestures.onInput(event.getPlayer(), input.isSneak(), input.isForward(), input.isBackward());
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        // Shortest way around the nine hotbar slots
+        int notches = event.getNewSlot() - event.getPreviousSlot();
+        if (notches > 4) {
+            notches -= 9;
+        } else if (notches < -4) {
+            notches += 9;
+        }
+
+        if (gestures.onScroll(event.getPlayer(), notches)) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        gestures.remove(event.getPlayer());
+    }
+}
@@ -6,8 +6,12 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
 
 /**
  * Handles player-related events
@@ -22,9 +26,34 @@ public class PlayerListener implements Listener {
         this.cameraManager = plugin.getCameraManager();
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        // Load saved camera settings off the main thread
+        plugin.getSettingsManager().preload(event.getUniqueId());
+    }
+
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
+        plugin.getPlayerNameIndex().add(player);
+
+        // Watch for hits on fake bodies
+        plugin.getInteractionInterceptor().inject(player);
+
+        // The skin may have changed since the last visit
+        plugin.getSkinCache().invalidate(player.getUniqueId());
+
+        // Show the fake bodies spawned before the player arrived
+        plugin.getBodySnapshots().enqueue(player);
+
+        // Undo a camera session that was cut off by a crash
+        if (cameraManager.restoreCrashedSession(player)) {
+            plugin.getLogger().info("Restored " + player.getName() + " after an unfinished camera session");
+        }
 
         // Auto-enable if configured
         if (plugin.getConfigManager().isAutoEnableOnJoin()) {
@@ -40,9 +69,44 @@ public class PlayerListener implements Listener {
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
 
+        // Stop watching someone else's camera
+        cameraManager.stopWatching(player);
+        plugin.getPathManager().stop(player);
+
         // Disable camera if active
         if (cameraManager.isActive(player)) {
             cameraManager.disableCamera(player);
         }
+
+        // Write pending settings changes
+        plugin.getSettingsManager().unload(player.getUniqueId());
+        plugin.getProfileManager().unload(player.getUniqueId());
+        plugin.getMetrics().removeViewer(player.getUniqueId());
+        plugin.getFlightRecorder().remove(player.getUniqueId());
+        plugin.getInteractionInterceptor().eject(player);
+        plugin.getPlayerNameIndex().remove(player);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCommandsSent(PlayerCommandSendEvent event) {
+        // Permission plugins resend the command tree whenever a player's permissions change
+        plugin.getProfileManager().invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        // Permissions may be set per world
+        plugin.getProfileManager().invalidate(event.getPlayer());
+
+        // The client dropped every entity of the old world
+        plugin.getBodySnapshots().enqueue(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        // Respawning clears the client's entities too, world changes are handled above
+        if (event.getRespawnLocation().getWorld() == event.getPlayer().getWorld()) {
+            plugin.getBodySnapshots().enqueue(event.getPlayer());
+        }
     }
 }
\ No newline at end of file
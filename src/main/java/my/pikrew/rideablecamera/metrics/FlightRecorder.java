@@ -0,0 +1,129 @@
+package my.pikrew.rideablecamera.metrics;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Always-on packet flight recorder
+ * Keeps a PacketTrace per online player for the camera packets sent about
+ * their session, and dumps it to a file on request
+ */
+public class FlightRecorder {
+
+    // Records kept per player, 48 KiB off-heap each
+    private static final int CAPACITY = 2048;
+
+    private final RideableCameraPlugin plugin;
+    private final File tracesFolder;
+    private final Map<UUID, PacketTrace> traces;
+
+    // Camera tick stamped on new records
+    private long tick;
+
+    public FlightRecorder(RideableCameraPlugin plugin) {
+        this.plugin = plugin;
+        this.tracesFolder = new File(plugin.getDataFolder(), "traces");
+        this.traces = new HashMap<>();
+    }
+
+    /**
+     * Get the trace of a player, created on first use
+     * @param playerUUID Player UUID
+     * @return Trace
+     */
+    public PacketTrace getTrace(UUID playerUUID) {
+        return traces.computeIfAbsent(playerUUID, key -> new PacketTrace(CAPACITY));
+    }
+
+    /**
+     * Drop the trace of a player that left
+     * @param playerUUID Player UUID
+     */
+    public void remove(UUID playerUUID) {
+        traces.remove(playerUUID);
+    }
+
+    /**
+     * Set the current camera tick
+     * @param tick Tick
+     */
+    public void setTick(long tick) {
+        this.tick = tick;
+    }
+
+    /**
+     * Get the current camera tick
+     * @return Tick
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Write the trace of a player to a file
+     * The trace is copied right away, the file is written asynchronously
+     * @param player The player
+     * @param callback Called on the main thread with the file, or null if writing failed
+     * @return false if there is nothing traced for the player
+     */
+    public boolean dump(Player player, Consumer<File> callback) {
+        PacketTrace trace = traces.get(player.getUniqueId());
+        if (trace == null || trace.size() == 0) {
+            return false;
+        }
+
+        ByteBuffer snapshot = trace.snapshot();
+        int count = trace.size();
+
+        // Viewers are recorded by entity id, resolve the ones still online
+        StringBuilder header = new StringBuilder();
+        header.append("# Packet trace of ").append(player.getName()).append(" (").append(player.getUniqueId()).append(")\n");
+        header.append("# ").append(count).append(" record(s), oldest first\n");
+        for (Player viewer : plugin.getServer().getOnlinePlayers()) {
+            header.append("# viewer ").append(viewer.getEntityId()).append(" = ").append(viewer.getName()).append('\n');
+        }
+        header.append("# tick viewer type entity dx dy dz yaw pitch size\n");
+
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        File file = new File(tracesFolder, player.getName() + "-" + stamp + ".trace");
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            File written = write(file, header, snapshot, count);
+            plugin.getServer().getScheduler().runTask(plugin, () -> callback.accept(written));
+        });
+        return true;
+    }
+
+    private File write(File file, StringBuilder header, ByteBuffer snapshot, int count) {
+        try {
+            Files.createDirectories(tracesFolder.toPath());
+            try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                writer.append(header);
+
+                StringBuilder line = new StringBuilder();
+                for (int i = 0; i < count; i++) {
+                    line.setLength(0);
+                    PacketTrace.format(snapshot, i, line);
+                    writer.append(line).append('\n');
+                }
+            }
+            return file;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to write packet trace " + file.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
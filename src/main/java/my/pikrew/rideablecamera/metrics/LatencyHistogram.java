@@ -0,0 +1,113 @@
+package my.pikrew.rideablecamera.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with fixed power-of-two buckets
+ * Recording is a few striped adds and never allocates; percentiles are
+ * estimated from the bucket bounds when read
+ */
+public class LatencyHistogram {
+
+    // Bucket i holds values below 2^i nanoseconds, the last one everything else (~0.5 s)
+    private static final int BUCKETS = 30;
+
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    public LatencyHistogram() {
+        this.buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0L);
+    }
+
+    /**
+     * Record one sample
+     * @param nanos Duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        int bucket = 64 - Long.numberOfLeadingZeros(nanos);
+        buckets[Math.min(bucket, BUCKETS - 1)].increment();
+        count.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * Get the number of samples
+     * @return Sample count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the mean in microseconds
+     * @return Mean, 0 without samples
+     */
+    public double getMeanMicros() {
+        long samples = count.sum();
+        return samples == 0 ? 0.0 : sum.sum() / (double) samples / 1000.0;
+    }
+
+    /**
+     * Get the largest sample in microseconds
+     * @return Maximum
+     */
+    public double getMaxMicros() {
+        return max.get() / 1000.0;
+    }
+
+    /**
+     * Estimate a percentile in microseconds
+     * Returns the upper bound of the bucket holding the percentile
+     * @param percentile Percentile between 0 and 1
+     * @return Estimated value, 0 without samples
+     */
+    public double getPercentileMicros(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+
+        if (total == 0) {
+            return 0.0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(1L << i, max.get()) / 1000.0;
+            }
+        }
+
+        return getMaxMicros();
+    }
+
+    /**
+     * Drop all samples
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+}
@@ -0,0 +1,38 @@
+package my.pikrew.rideablecamera.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the camera metrics
+ * Registered as my.pikrew.rideablecamera:type=Metrics
+ */
+public interface MetricsMXBean {
+
+    int getActiveSessions();
+
+    long getTicks();
+
+    double getTickMeanMicros();
+
+    double getTickP99Micros();
+
+    double getTickMaxMicros();
+
+    Map<String, Double> getPhaseP99Micros();
+
+    Map<String, Double> getImplementationP99Micros();
+
+    long getPacketsSent();
+
+    long getBytesSent();
+
+    Map<String, Long> getPacketsByType();
+
+    Map<String, Long> getBytesByType();
+
+    Map<String, Long> getPacketsByViewer();
+
+    Map<String, Long> getBytesByViewer();
+
+    void reset();
+}
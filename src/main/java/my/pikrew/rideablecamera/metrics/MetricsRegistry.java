@@ -0,0 +1,324 @@
+package my.pikrew.rideablecamera.metrics;
+
+import my.pikrew.rideablecamera.nms.adapter.PacketType;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.logging.Logger;
+
+/**
+ * In-process camera metrics
+ * Writers only bump striped counters and histogram buckets; all aggregation
+ * happens when the metrics are read through JMX or /ridecam stats
+ */
+public class MetricsRegistry implements MetricsMXBean {
+
+    public static final String OBJECT_NAME = "my.pikrew.rideablecamera:type=Metrics";
+
+    private final Logger logger;
+    private final LatencyHistogram tickTimer;
+    private final Map<String, LatencyHistogram> phases;
+    private final Map<String, LatencyHistogram> implementations;
+    private final LongAdder[] packets;
+    private final LongAdder[] bytes;
+    private final Map<UUID, ViewerCounters> viewers;
+
+    private volatile IntSupplier sessionCount = () -> 0;
+    private ObjectName registeredName;
+
+    public MetricsRegistry(Logger logger) {
+        this.logger = logger;
+        this.tickTimer = new LatencyHistogram();
+        this.phases = new ConcurrentHashMap<>();
+        this.implementations = new ConcurrentHashMap<>();
+        this.packets = new LongAdder[PacketType.values().length];
+        this.bytes = new LongAdder[PacketType.values().length];
+        for (int i = 0; i < packets.length; i++) {
+            packets[i] = new LongAdder();
+            bytes[i] = new LongAdder();
+        }
+        this.viewers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Packets and bytes received by one viewer
+     */
+    private static final class ViewerCounters {
+
+        private final LongAdder packets = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+    }
+
+    /**
+     * Set where the active session count is read from
+     * @param sessionCount Session count supplier
+     */
+    public void setSessionCount(IntSupplier sessionCount) {
+        this.sessionCount = sessionCount;
+    }
+
+    /**
+     * Get the timer of a whole camera tick
+     * @return Histogram
+     */
+    public LatencyHistogram getTickTimer() {
+        return tickTimer;
+    }
+
+    /**
+     * Get the timer of a tick phase
+     * Look it up once and keep it, the lookup itself is not free
+     * @param name Phase name
+     * @return Histogram
+     */
+    public LatencyHistogram phase(String name) {
+        return phases.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Get the per-session update timer of a camera implementation
+     * @param name Implementation name
+     * @return Histogram
+     */
+    public LatencyHistogram implementation(String name) {
+        return implementations.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Count a packet sent to a viewer
+     * @param type Packet type
+     * @param viewer Receiving player
+     * @param size Encoded size in bytes (estimated from the packet layout)
+     */
+    public void recordPacket(PacketType type, UUID viewer, int size) {
+        packets[type.ordinal()].increment();
+        bytes[type.ordinal()].add(size);
+
+        ViewerCounters counters = viewers.get(viewer);
+        if (counters == null) {
+            counters = viewers.computeIfAbsent(viewer, key -> new ViewerCounters());
+        }
+        counters.packets.increment();
+        counters.bytes.add(size);
+    }
+
+    /**
+     * Forget a viewer that left
+     * @param viewer Player UUID
+     */
+    public void removeViewer(UUID viewer) {
+        viewers.remove(viewer);
+    }
+
+    /**
+     * Get packets sent per viewer
+     * @return Packet counts by player UUID
+     */
+    public Map<UUID, Long> getViewerPackets() {
+        Map<UUID, Long> result = new HashMap<>();
+        for (Map.Entry<UUID, ViewerCounters> entry : viewers.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().packets.sum());
+        }
+        return result;
+    }
+
+    /**
+     * Get bytes sent per viewer
+     * @return Byte counts by player UUID
+     */
+    public Map<UUID, Long> getViewerBytes() {
+        Map<UUID, Long> result = new HashMap<>();
+        for (Map.Entry<UUID, ViewerCounters> entry : viewers.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().bytes.sum());
+        }
+        return result;
+    }
+
+    /**
+     * Get all phase timers
+     * @return Histograms by phase name
+     */
+    public Map<String, LatencyHistogram> getPhases() {
+        return new TreeMap<>(phases);
+    }
+
+    /**
+     * Get all implementation timers
+     * @return Histograms by implementation name
+     */
+    public Map<String, LatencyHistogram> getImplementations() {
+        return new TreeMap<>(implementations);
+    }
+
+    /**
+     * Get the packet count of one type
+     * @param type Packet type
+     * @return Packets sent
+     */
+    public long getPackets(PacketType type) {
+        return packets[type.ordinal()].sum();
+    }
+
+    /**
+     * Get the byte count of one type
+     * @param type Packet type
+     * @return Bytes sent
+     */
+    public long getBytes(PacketType type) {
+        return bytes[type.ordinal()].sum();
+    }
+
+    /**
+     * Expose the metrics as an MBean
+     */
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+
+            // Left over from a reload of the plugin
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+
+            server.registerMBean(this, name);
+            registeredName = name;
+        } catch (JMException e) {
+            logger.warning("Failed to register metrics MBean: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Remove the MBean again
+     */
+    public void unregisterMBean() {
+        if (registeredName == null) {
+            return;
+        }
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            logger.warning("Failed to unregister metrics MBean: " + e.getMessage());
+        }
+        registeredName = null;
+    }
+
+    @Override
+    public int getActiveSessions() {
+        return sessionCount.getAsInt();
+    }
+
+    @Override
+    public long getTicks() {
+        return tickTimer.getCount();
+    }
+
+    @Override
+    public double getTickMeanMicros() {
+        return tickTimer.getMeanMicros();
+    }
+
+    @Override
+    public double getTickP99Micros() {
+        return tickTimer.getPercentileMicros(0.99);
+    }
+
+    @Override
+    public double getTickMaxMicros() {
+        return tickTimer.getMaxMicros();
+    }
+
+    @Override
+    public Map<String, Double> getPhaseP99Micros() {
+        Map<String, Double> result = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : phases.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getPercentileMicros(0.99));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getImplementationP99Micros() {
+        Map<String, Double> result = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : implementations.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getPercentileMicros(0.99));
+        }
+        return result;
+    }
+
+    @Override
+    public long getPacketsSent() {
+        long total = 0;
+        for (LongAdder counter : packets) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getBytesSent() {
+        long total = 0;
+        for (LongAdder counter : bytes) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getPacketsByType() {
+        Map<String, Long> result = new TreeMap<>();
+        for (PacketType type : PacketType.values()) {
+            result.put(type.name(), getPackets(type));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getBytesByType() {
+        Map<String, Long> result = new TreeMap<>();
+        for (PacketType type : PacketType.values()) {
+            result.put(type.name(), getBytes(type));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getPacketsByViewer() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<UUID, ViewerCounters> entry : viewers.entrySet()) {
+            result.put(entry.getKey().toString(), entry.getValue().packets.sum());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getBytesByViewer() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<UUID, ViewerCounters> entry : viewers.entrySet()) {
+            result.put(entry.getKey().toString(), entry.getValue().bytes.sum());
+        }
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        tickTimer.reset();
+        phases.values().forEach(LatencyHistogram::reset);
+        implementations.values().forEach(LatencyHistogram::reset);
+        for (int i = 0; i < packets.length; i++) {
+            packets[i].reset();
+            bytes[i].reset();
+        }
+        viewers.clear();
+    }
+}
@@ -0,0 +1,119 @@
+package my.pikrew.rideablecamera.metrics;
+
+import my.pikrew.rideablecamera.nms.adapter.PacketType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size ring of the camera packets sent for one player's session
+ * Records live off-heap and are written with absolute puts, so recording
+ * never allocates; once full, the oldest records are overwritten.
+ * Written and snapshotted on the main thread only, so no locking is needed
+ */
+public class PacketTrace {
+
+    // Tick (4) + viewer (4) + entity (4) + dx, dy, dz (3 x 2) + yaw, pitch (2) + size (2) + type (1), padded
+    public static final int RECORD_SIZE = 24;
+
+    private static final int TICK = 0;
+    private static final int VIEWER = 4;
+    private static final int ENTITY = 8;
+    private static final int DELTA_X = 12;
+    private static final int DELTA_Y = 14;
+    private static final int DELTA_Z = 16;
+    private static final int YAW = 18;
+    private static final int PITCH = 19;
+    private static final int SIZE = 20;
+    private static final int TYPE = 22;
+
+    private final ByteBuffer buffer;
+    private final int mask;
+
+    // Records written so far, the ring holds the last capacity of them
+    private long written;
+
+    /**
+     * Create a trace
+     * @param capacity Number of records kept, a power of two
+     */
+    public PacketTrace(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.buffer = ByteBuffer.allocateDirect(capacity * RECORD_SIZE);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Record a packet
+     * @param tick Camera tick it was sent in
+     * @param viewer Entity id of the receiving player
+     * @param type Packet type
+     * @param entityId Entity the packet is about
+     * @param deltaX Quantised X movement (1/4096 block)
+     * @param deltaY Quantised Y movement
+     * @param deltaZ Quantised Z movement
+     * @param yaw Quantised yaw (1/256 turn)
+     * @param pitch Quantised pitch
+     * @param size Estimated size on the wire in bytes
+     */
+    public void record(long tick, int viewer, PacketType type, int entityId,
+                       short deltaX, short deltaY, short deltaZ, byte yaw, byte pitch, int size) {
+        int offset = (int) (written & mask) * RECORD_SIZE;
+        buffer.putInt(offset + TICK, (int) tick);
+        buffer.putInt(offset + VIEWER, viewer);
+        buffer.putInt(offset + ENTITY, entityId);
+        buffer.putShort(offset + DELTA_X, deltaX);
+        buffer.putShort(offset + DELTA_Y, deltaY);
+        buffer.putShort(offset + DELTA_Z, deltaZ);
+        buffer.put(offset + YAW, yaw);
+        buffer.put(offset + PITCH, pitch);
+        buffer.putShort(offset + SIZE, (short) Math.min(size, 0xFFFF));
+        buffer.put(offset + TYPE, (byte) type.ordinal());
+        written++;
+    }
+
+    /**
+     * Get the number of records kept
+     * @return Record count, at most the capacity
+     */
+    public int size() {
+        return (int) Math.min(written, mask + 1L);
+    }
+
+    /**
+     * Copy the kept records, oldest first
+     * @return Heap buffer of size() records
+     */
+    public ByteBuffer snapshot() {
+        int count = size();
+        ByteBuffer copy = ByteBuffer.allocate(count * RECORD_SIZE);
+        int start = (int) ((written - count) & mask);
+        int firstPart = Math.min(count, mask + 1 - start);
+
+        copy.put(0, buffer, start * RECORD_SIZE, firstPart * RECORD_SIZE);
+        copy.put(firstPart * RECORD_SIZE, buffer, 0, (count - firstPart) * RECORD_SIZE);
+        return copy;
+    }
+
+    /**
+     * Format one record of a snapshot
+     * @param snapshot Buffer from snapshot()
+     * @param index Record index
+     * @param out Builder to append to
+     */
+    public static void format(ByteBuffer snapshot, int index, StringBuilder out) {
+        int offset = index * RECORD_SIZE;
+        int type = snapshot.get(offset + TYPE);
+        out.append(Integer.toUnsignedString(snapshot.getInt(offset + TICK))).append(' ')
+                .append(snapshot.getInt(offset + VIEWER)).append(' ')
+                .append(type >= 0 && type < PacketType.values().length ? PacketType.values()[type].name() : "?")
+                .append(' ').append(snapshot.getInt(offset + ENTITY))
+                .append(' ').append(snapshot.getShort(offset + DELTA_X))
+                .append(' ').append(snapshot.getShort(offset + DELTA_Y))
+                .append(' ').append(snapshot.getShort(offset + DELTA_Z))
+                .append(' ').append(snapshot.get(offset + YAW))
+                .append(' ').append(snapshot.get(offset + PITCH))
+                .append(' ').append(Short.toUnsignedInt(snapshot.getShort(offset + SIZE)));
+    }
+}
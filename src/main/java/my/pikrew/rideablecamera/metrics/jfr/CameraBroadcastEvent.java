@@ -0,0 +1,34 @@
+package my.pikrew.rideablecamera.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Fan-out of a fake body change to every viewer
+ */
+@Name("my.pikrew.rideablecamera.Broadcast")
+@Label("Camera Broadcast")
+@Category({"RideableCamera", "Tick"})
+@Description("Packets for one fake body sent to all viewers")
+@Threshold("100 us")
+@StackTrace(false)
+public class CameraBroadcastEvent extends Event {
+
+    // Checked before creating one on the tick
+    public static final EventGate GATE = new EventGate(CameraBroadcastEvent.class);
+
+    @Label("Kind")
+    @Description("spawn, despawn, movement, rotation, states or equipment")
+    public String kind;
+
+    @Label("Viewers")
+    public int viewers;
+
+    @Label("Packets")
+    public int packets;
+}
@@ -0,0 +1,34 @@
+package my.pikrew.rideablecamera.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A camera session being torn down, including the entity removal
+ */
+@Name("my.pikrew.rideablecamera.SessionEnd")
+@Label("Camera Session End")
+@Category({"RideableCamera", "Session"})
+@Description("Teardown of a camera session")
+@StackTrace(true)
+public class CameraSessionEndEvent extends Event {
+
+    @Label("Player")
+    public String player;
+
+    @Label("Implementation")
+    public String implementation;
+
+    @Label("Reason")
+    @Description("disabled, offline or shutdown")
+    public String reason;
+
+    @Label("Session Length")
+    @Timespan(Timespan.MILLISECONDS)
+    public long sessionLength;
+}
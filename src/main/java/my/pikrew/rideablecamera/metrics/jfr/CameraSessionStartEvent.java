@@ -0,0 +1,28 @@
+package my.pikrew.rideablecamera.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A camera session being created, including the entity spawns
+ */
+@Name("my.pikrew.rideablecamera.SessionStart")
+@Label("Camera Session Start")
+@Category({"RideableCamera", "Session"})
+@Description("Creation of a camera session")
+@StackTrace(true)
+public class CameraSessionStartEvent extends Event {
+
+    @Label("Player")
+    public String player;
+
+    @Label("Implementation")
+    public String implementation;
+
+    @Label("Success")
+    public boolean success;
+}
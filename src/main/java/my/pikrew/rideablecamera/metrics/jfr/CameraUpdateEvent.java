@@ -0,0 +1,39 @@
+package my.pikrew.rideablecamera.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One tick of one camera session
+ * Emitted for every session on every update, so only slow ones are kept by default
+ */
+@Name("my.pikrew.rideablecamera.Update")
+@Label("Camera Update")
+@Category({"RideableCamera", "Tick"})
+@Description("Per-session camera update")
+@Threshold("100 us")
+@StackTrace(false)
+public class CameraUpdateEvent extends Event {
+
+    // Checked before creating one on the tick
+    public static final EventGate GATE = new EventGate(CameraUpdateEvent.class);
+
+    @Label("Player")
+    public String player;
+
+    @Label("Implementation")
+    public String implementation;
+
+    @Label("Moved")
+    @Description("Whether the body moved, otherwise it only turned or stood still")
+    public boolean moved;
+
+    @Label("Packets")
+    @Description("Packets sent by the plugin, 0 for entities tracked by the server")
+    public int packets;
+}
@@ -0,0 +1,34 @@
+package my.pikrew.rideablecamera.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Copy of a player's equipment onto their camera body
+ */
+@Name("my.pikrew.rideablecamera.EquipmentSync")
+@Label("Camera Equipment Sync")
+@Category({"RideableCamera", "Tick"})
+@Description("Equipment copied from a player to their camera body")
+@Threshold("50 us")
+@StackTrace(false)
+public class EquipmentSyncEvent extends Event {
+
+    // Checked before creating one on the tick
+    public static final EventGate GATE = new EventGate(EquipmentSyncEvent.class);
+
+    @Label("Player")
+    public String player;
+
+    @Label("Implementation")
+    public String implementation;
+
+    @Label("Viewers")
+    @Description("Viewers sent the new equipment, 0 for entities tracked by the server")
+    public int viewers;
+}
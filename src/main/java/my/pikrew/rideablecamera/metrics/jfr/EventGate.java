@@ -0,0 +1,33 @@
+package my.pikrew.rideablecamera.metrics.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+
+/**
+ * Tells if any running recording takes an event type
+ * The per-tick events are only created when one does, so ticks without a
+ * recording allocate nothing for them
+ */
+public final class EventGate {
+
+    // Null when the JVM has no flight recorder
+    private final EventType type;
+
+    public EventGate(Class<? extends Event> eventClass) {
+        EventType lookedUp;
+        try {
+            lookedUp = EventType.getEventType(eventClass);
+        } catch (IllegalStateException | SecurityException e) {
+            lookedUp = null;
+        }
+        this.type = lookedUp;
+    }
+
+    /**
+     * Check if the event is enabled in a running recording
+     * @return true if worth creating
+     */
+    public boolean isEnabled() {
+        return type != null && type.isEnabled();
+    }
+}
@@ -1,44 +1,87 @@
 package my.pikrew.rideablecamera.models;
 
+import my.pikrew.rideablecamera.camera.ICameraImplementation;
+import my.pikrew.rideablecamera.camera.boom.CameraBoom;
+import my.pikrew.rideablecamera.config.CameraProfile;
+import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * Represents a camera session for a player
  * Contains all data needed for camera operation
+ * The player is only referenced by UUID, so a session that outlives its
+ * player doesn't keep the player object alive
  */
 public class CameraSession {
 
     private final UUID playerUUID;
-    private final Player player;
+    private final String playerName;
+
+    // Offset of the ticks this session is updated on, from the player UUID
+    private final int updatePhase;
 
     // Original player data (for restoration)
     private final GameMode originalGameMode;
-    private final Location originalLocation;
+    private final UUID originalWorld;
+    private final double originalX;
+    private final double originalY;
+    private final double originalZ;
+    private final float originalYaw;
+    private final float originalPitch;
     private final boolean originalFlying;
 
     // Camera entity (ArmorStand, FakePlayer, etc)
     private Entity cameraEntity;
 
+    // Entity the player spectates (third-person camera point)
+    private Entity anchorEntity;
+
+    // Implementation that created the session and updates it
+    private ICameraImplementation implementation;
+
+    // Third-person boom with cached occlusion raycasts
+    private final CameraBoom boom;
+
+    // Players watching this session's camera
+    private final List<Watcher> watchers;
+
     // Camera settings
     private CameraSettings settings;
 
+    // Resolved permission profile (limits read by the tick loop)
+    private CameraProfile profile;
+
     // Session metadata
-    private final long startTime;
+    private long startTime;
     private boolean active;
+    private long ticks;
 
-    public CameraSession(Player player, CameraSettings settings) {
+    public CameraSession(Player player, CameraSettings settings, CameraProfile profile) {
         this.playerUUID = player.getUniqueId();
-        this.player = player;
+        this.playerName = player.getName();
+        this.updatePhase = playerUUID.hashCode() & Integer.MAX_VALUE;
         this.settings = settings;
+        setProfile(profile);
+        this.boom = new CameraBoom();
+        this.watchers = new ArrayList<>();
 
         // Save original state
+        Location location = player.getLocation();
         this.originalGameMode = player.getGameMode();
-        this.originalLocation = player.getLocation().clone();
+        this.originalWorld = location.getWorld().getUID();
+        this.originalX = location.getX();
+        this.originalY = location.getY();
+        this.originalZ = location.getZ();
+        this.originalYaw = location.getYaw();
+        this.originalPitch = location.getPitch();
         this.originalFlying = player.isFlying();
 
         this.startTime = System.currentTimeMillis();
@@ -50,16 +93,29 @@ public class CameraSession {
         return playerUUID;
     }
 
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /**
+     * Look up the session's player
+     * @return The player, or null if offline
+     */
     public Player getPlayer() {
-        return player;
+        return Bukkit.getPlayer(playerUUID);
     }
 
     public GameMode getOriginalGameMode() {
         return originalGameMode;
     }
 
+    /**
+     * Get where the player was when the session started
+     * @return New Location, with a null world if that world is unloaded
+     */
     public Location getOriginalLocation() {
-        return originalLocation;
+        World world = Bukkit.getWorld(originalWorld);
+        return new Location(world, originalX, originalY, originalZ, originalYaw, originalPitch);
     }
 
     public boolean wasFlying() {
@@ -70,10 +126,34 @@ public class CameraSession {
         return cameraEntity;
     }
 
+    public Entity getAnchorEntity() {
+        return anchorEntity;
+    }
+
+    public ICameraImplementation getImplementation() {
+        return implementation;
+    }
+
+    public CameraBoom getBoom() {
+        return boom;
+    }
+
+    public List<Watcher> getWatchers() {
+        return watchers;
+    }
+
     public CameraSettings getSettings() {
         return settings;
     }
 
+    public CameraProfile getProfile() {
+        return profile;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
     public long getStartTime() {
         return startTime;
     }
@@ -87,14 +167,69 @@ public class CameraSession {
         this.cameraEntity = entity;
     }
 
+    public void setAnchorEntity(Entity entity) {
+        this.anchorEntity = entity;
+    }
+
     public void setSettings(CameraSettings settings) {
         this.settings = settings;
+        if (profile != null) {
+            setProfile(profile);
+        }
+    }
+
+    public void setImplementation(ICameraImplementation implementation) {
+        this.implementation = implementation;
     }
 
     public void setActive(boolean active) {
         this.active = active;
     }
 
+    /**
+     * Apply a resolved profile, pulling the settings into its limits
+     * @param profile Profile
+     */
+    public void setProfile(CameraProfile profile) {
+        this.profile = profile;
+        if (settings.getDistance() > profile.maxDistance()) {
+            settings = settings.withDistance(profile.maxDistance());
+        }
+    }
+
+    /**
+     * Take over the state of a session this one replaces
+     * Used when a session moves to another implementation, so the player
+     * keeps their settings, watchers and session length
+     * @param previous The replaced session
+     */
+    public void carryOver(CameraSession previous) {
+        this.settings = previous.settings;
+        setProfile(profile);
+        this.watchers.addAll(previous.watchers);
+        this.startTime = previous.startTime;
+        this.ticks = previous.ticks;
+    }
+
+    /**
+     * Count one camera update
+     * @return Number of updates so far, including this one
+     */
+    public long tick() {
+        return ++ticks;
+    }
+
+    /**
+     * Check if the session is updated on a camera tick
+     * Sessions of a profile with a lower update rate are spread over its
+     * interval, instead of all updating on the same tick
+     * @param tick Camera tick
+     * @return true if due
+     */
+    public boolean isUpdateDue(long tick) {
+        return (tick + updatePhase) % profile.updateInterval() == 0;
+    }
+
     /**
      * Get session duration in milliseconds
      * @return Duration
@@ -103,11 +238,21 @@ public class CameraSession {
         return System.currentTimeMillis() - startTime;
     }
 
+    /**
+     * Get the entity the camera is anchored to
+     * Watchers spectate this entity so they share the owner's view
+     * @return Anchor entity, or the player when the player is the camera
+     */
+    public Entity getCameraRig() {
+        return anchorEntity != null ? anchorEntity : getPlayer();
+    }
+
     /**
      * Check if session is valid
+     * Sessions without a Bukkit camera entity (packet-only bodies) only need to be active
      * @return true if valid
      */
     public boolean isValid() {
-        return active && player != null && player.isOnline() && cameraEntity != null && cameraEntity.isValid();
+        return active && (cameraEntity == null || cameraEntity.isValid());
     }
 }
\ No newline at end of file
@@ -1,40 +1,72 @@
 package my.pikrew.rideablecamera.models;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Camera settings model
  * Contains all configurable camera parameters
+ * Instances are immutable and interned, so sessions with the same settings
+ * share one object; changing a value returns another instance
  */
-public class CameraSettings {
+public final class CameraSettings {
+
+    // Stop interning past this many distinct settings, values are still correct without it
+    private static final int MAX_INTERNED = 4096;
 
-    private double distance;
-    private double height;
-    private double sideOffset;
-    private double smoothness;
-    private boolean copyEquipment;
-    private boolean showNpcName;
+    private static final Map<CameraSettings, CameraSettings> INTERNED = new ConcurrentHashMap<>();
 
     /**
-     * Default constructor with default values
+     * Built-in default settings
      */
-    public CameraSettings() {
-        this.distance = 3.5;
-        this.height = 1.5;
-        this.sideOffset = 0.0;
-        this.smoothness = 0.15;
-        this.copyEquipment = true;
-        this.showNpcName = false;
+    public static final CameraSettings DEFAULT = of(3.5, 1.5, 0.0, 0.15, true, false);
+
+    private final double distance;
+    private final double height;
+    private final double sideOffset;
+    private final double smoothness;
+    private final boolean copyEquipment;
+    private final boolean showNpcName;
+
+    private CameraSettings(double distance, double height, double sideOffset, double smoothness,
+                           boolean copyEquipment, boolean showNpcName) {
+        this.distance = Math.max(0.5, Math.min(distance, 10.0));
+        this.height = Math.max(-2.0, Math.min(height, 10.0));
+        this.sideOffset = Math.max(-5.0, Math.min(sideOffset, 5.0));
+        this.smoothness = Math.max(0.0, Math.min(smoothness, 1.0));
+        this.copyEquipment = copyEquipment;
+        this.showNpcName = showNpcName;
     }
 
     /**
-     * Constructor with custom values
+     * Get settings with the given values
+     * Values out of range are clamped
+     * @return Shared CameraSettings instance
      */
-    public CameraSettings(double distance, double height, double sideOffset) {
-        this.distance = distance;
-        this.height = height;
-        this.sideOffset = sideOffset;
-        this.smoothness = 0.15;
-        this.copyEquipment = true;
-        this.showNpcName = false;
+    public static CameraSettings of(double distance, double height, double sideOffset, double smoothness,
+                                    boolean copyEquipment, boolean showNpcName) {
+        CameraSettings settings = new CameraSettings(distance, height, sideOffset, smoothness,
+                copyEquipment, showNpcName);
+
+        CameraSettings interned = INTERNED.get(settings);
+        if (interned != null) {
+            return interned;
+        }
+
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return settings;
+        }
+
+        interned = INTERNED.putIfAbsent(settings, settings);
+        return interned != null ? interned : settings;
+    }
+
+    /**
+     * Get settings with the given camera values and default NPC options
+     * @return Shared CameraSettings instance
+     */
+    public static CameraSettings of(double distance, double height, double sideOffset, double smoothness) {
+        return of(distance, height, sideOffset, smoothness, DEFAULT.copyEquipment, DEFAULT.showNpcName);
     }
 
     // Getters
@@ -62,41 +94,59 @@ public class CameraSettings {
         return showNpcName;
     }
 
-    // Setters
-    public void setDistance(double distance) {
-        this.distance = Math.max(0.5, Math.min(distance, 10.0));
+    // Copy-on-write modifiers
+    public CameraSettings withDistance(double distance) {
+        return of(distance, height, sideOffset, smoothness, copyEquipment, showNpcName);
     }
 
-    public void setHeight(double height) {
-        this.height = Math.max(-2.0, Math.min(height, 10.0));
+    public CameraSettings withHeight(double height) {
+        return of(distance, height, sideOffset, smoothness, copyEquipment, showNpcName);
     }
 
-    public void setSideOffset(double sideOffset) {
-        this.sideOffset = Math.max(-5.0, Math.min(sideOffset, 5.0));
+    public CameraSettings withSideOffset(double sideOffset) {
+        return of(distance, height, sideOffset, smoothness, copyEquipment, showNpcName);
     }
 
-    public void setSmoothness(double smoothness) {
-        this.smoothness = Math.max(0.0, Math.min(smoothness, 1.0));
+    public CameraSettings withSmoothness(double smoothness) {
+        return of(distance, height, sideOffset, smoothness, copyEquipment, showNpcName);
     }
 
-    public void setCopyEquipment(boolean copyEquipment) {
-        this.copyEquipment = copyEquipment;
+    /**
+     * Take the player adjustable values from other settings, keeping the NPC options
+     * @param other Settings to take distance, height, side offset and smoothness from
+     * @return Shared CameraSettings instance
+     */
+    public CameraSettings withCameraValues(CameraSettings other) {
+        return of(other.distance, other.height, other.sideOffset, other.smoothness, copyEquipment, showNpcName);
     }
 
-    public void setShowNpcName(boolean showNpcName) {
-        this.showNpcName = showNpcName;
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CameraSettings)) {
+            return false;
+        }
+
+        CameraSettings other = (CameraSettings) o;
+        return Double.compare(distance, other.distance) == 0
+                && Double.compare(height, other.height) == 0
+                && Double.compare(sideOffset, other.sideOffset) == 0
+                && Double.compare(smoothness, other.smoothness) == 0
+                && copyEquipment == other.copyEquipment
+                && showNpcName == other.showNpcName;
     }
 
-    /**
-     * Create a copy of these settings
-     * @return New CameraSettings instance
-     */
-    public CameraSettings copy() {
-        CameraSettings copy = new CameraSettings(distance, height, sideOffset);
-        copy.setSmoothness(smoothness);
-        copy.setCopyEquipment(copyEquipment);
-        copy.setShowNpcName(showNpcName);
-        return copy;
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(distance);
+        result = 31 * result + Double.hashCode(height);
+        result = 31 * result + Double.hashCode(sideOffset);
+        result = 31 * result + Double.hashCode(smoothness);
+        result = 31 * result + (copyEquipment ? 1 : 0);
+        result = 31 * result + (showNpcName ? 1 : 0);
+        return result;
     }
 
     @Override
@@ -104,4 +154,4 @@ public class CameraSettings {
         return String.format("CameraSettings{distance=%.1f, height=%.1f, side=%.1f}",
                 distance, height, sideOffset);
     }
-}
\ No newline at end of file
+}
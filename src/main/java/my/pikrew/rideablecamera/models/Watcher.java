@@ -0,0 +1,45 @@
+package my.pikrew.rideablecamera.models;
+
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+
+/**
+ * A player watching someone else's camera session
+ * Holds the state needed to restore the watcher afterwards
+ */
+public class Watcher {
+
+    private final UUID watcherUUID;
+    private final UUID targetUUID;
+
+    // Original watcher data (for restoration)
+    private final GameMode originalGameMode;
+    private final Location originalLocation;
+
+    public Watcher(Player watcher, UUID targetUUID) {
+        this.watcherUUID = watcher.getUniqueId();
+        this.targetUUID = targetUUID;
+        this.originalGameMode = watcher.getGameMode();
+        this.originalLocation = watcher.getLocation().clone();
+    }
+
+    // Getters
+    public UUID getWatcherUUID() {
+        return watcherUUID;
+    }
+
+    public UUID getTargetUUID() {
+        return targetUUID;
+    }
+
+    public GameMode getOriginalGameMode() {
+        return originalGameMode;
+    }
+
+    public Location getOriginalLocation() {
+        return originalLocation;
+    }
+}
@@ -0,0 +1,147 @@
+package my.pikrew.rideablecamera.nms;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends the fake bodies already in a world to players who just arrived in it
+ * Bodies are only spawned for the players online when they are created, so
+ * anyone joining, changing world or respawning later would never see them.
+ * Arrivals are queued and served a few bodies per tick, each batch as one
+ * player info packet and one bundle, so a join storm is spread out
+ */
+public class BodySnapshots {
+
+    // Bodies per player info packet and bundle
+    private static final int BATCH_SIZE = 32;
+
+    // Bodies sent per tick to all waiting viewers together
+    private static final int BODIES_PER_TICK = 128;
+
+    /**
+     * A viewer still waiting for part of their snapshot
+     */
+    private static final class Pending {
+
+        private final UUID viewer;
+        private final UUID[] owners;
+        private int next;
+
+        private Pending(UUID viewer, UUID[] owners) {
+            this.viewer = viewer;
+            this.owners = owners;
+        }
+    }
+
+    private final RideableCameraPlugin plugin;
+
+    // Live bodies by owner, oldest first
+    private final Map<UUID, FakePlayerEntity> bodies;
+    private final ArrayDeque<Pending> queue;
+    private BukkitTask task;
+
+    public BodySnapshots(RideableCameraPlugin plugin) {
+        this.plugin = plugin;
+        this.bodies = new LinkedHashMap<>();
+        this.queue = new ArrayDeque<>();
+    }
+
+    /**
+     * Include a body in future snapshots
+     * @param owner Owning player UUID
+     * @param body The body
+     */
+    public void register(UUID owner, FakePlayerEntity body) {
+        bodies.put(owner, body);
+    }
+
+    /**
+     * Leave a removed body out of snapshots, including ones already queued
+     * @param owner Owning player UUID
+     */
+    public void unregister(UUID owner) {
+        bodies.remove(owner);
+    }
+
+    /**
+     * Queue the bodies of the viewer's world for a viewer
+     * Delivery starts next tick, after the client has switched worlds
+     * @param viewer Player who just joined, changed world or respawned
+     */
+    public void enqueue(Player viewer) {
+        UUID viewerUUID = viewer.getUniqueId();
+        queue.removeIf(pending -> pending.viewer.equals(viewerUUID));
+
+        // The owner never sees their own body
+        List<UUID> owners = new ArrayList<>(bodies.keySet());
+        owners.remove(viewerUUID);
+        if (owners.isEmpty()) {
+            return;
+        }
+
+        queue.add(new Pending(viewerUUID, owners.toArray(new UUID[0])));
+        if (task == null) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::deliver, 1L, 1L);
+        }
+    }
+
+    /**
+     * Stop delivering
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        queue.clear();
+        bodies.clear();
+    }
+
+    /**
+     * Send up to the per-tick budget of bodies, oldest arrival first
+     */
+    private void deliver() {
+        int budget = BODIES_PER_TICK;
+        List<FakePlayerEntity> batch = new ArrayList<>(BATCH_SIZE);
+
+        while (budget > 0 && !queue.isEmpty()) {
+            Pending pending = queue.peek();
+            Player viewer = plugin.getServer().getPlayer(pending.viewer);
+            if (viewer == null) {
+                queue.poll();
+                continue;
+            }
+
+            // Bodies removed or moved to another world since the viewer was queued are skipped
+            batch.clear();
+            int limit = Math.min(BATCH_SIZE, budget);
+            while (pending.next < pending.owners.length && batch.size() < limit) {
+                FakePlayerEntity body = bodies.get(pending.owners[pending.next++]);
+                if (body != null && body.getWorld() == viewer.getWorld()) {
+                    batch.add(body);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                FakePlayerEntity.spawnAll(viewer, batch);
+                budget -= batch.size();
+            }
+            if (pending.next == pending.owners.length) {
+                queue.poll();
+            }
+        }
+
+        if (queue.isEmpty()) {
+            task.cancel();
+            task = null;
+        }
+    }
+}
@@ -1,79 +1,57 @@
 package my.pikrew.rideablecamera.nms;
 
-import com.mojang.authlib.GameProfile;
-import net.minecraft.network.protocol.game.*;
-import net.minecraft.network.syncher.EntityDataAccessor;
-import net.minecraft.network.syncher.EntityDataSerializers;
-import net.minecraft.network.syncher.SynchedEntityData;
-import net.minecraft.server.level.ServerLevel;
-import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.server.network.ServerGamePacketListenerImpl;
-import net.minecraft.world.entity.Pose;
-import org.bukkit.Bukkit;
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.metrics.FlightRecorder;
+import my.pikrew.rideablecamera.metrics.MetricsRegistry;
+import my.pikrew.rideablecamera.metrics.PacketTrace;
+import my.pikrew.rideablecamera.nms.adapter.FakeBody;
+import my.pikrew.rideablecamera.nms.adapter.PacketType;
+import my.pikrew.rideablecamera.nms.adapter.PlayerSkin;
 import org.bukkit.Location;
-import org.bukkit.craftbukkit.v1_21_R2.CraftServer;
-import org.bukkit.craftbukkit.v1_21_R2.CraftWorld;
-import org.bukkit.craftbukkit.v1_21_R2.entity.CraftPlayer;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Wrapper for creating and managing fake player entities
- * Uses NMS for Minecraft 1.21.4
+ * The packets come from the NMS adapter of the running server; this class
+ * keeps the location and does the metrics and trace accounting
  */
 public class FakePlayerEntity {
 
-    private static final EntityDataAccessor<Byte> DATA_PLAYER_MODE_CUSTOMISATION;
+    private final FakeBody body;
+    private final MetricsRegistry metrics;
+    private final FlightRecorder flightRecorder;
+    private Location currentLocation;
 
-    static {
-        // Player skin layer flags
-        DATA_PLAYER_MODE_CUSTOMISATION = EntityDataAccessor.createKey(
-                net.minecraft.world.entity.player.Player.class,
-                EntityDataSerializers.BYTE
-        );
-    }
+    // Flight recorder trace of the owning player, null if not traced
+    private PacketTrace trace;
 
-    private final ServerPlayer nmsPlayer;
-    private final GameProfile gameProfile;
-    private Location currentLocation;
+    // Packets sent for this fake player, to all viewers
+    private long packetsSent;
 
     /**
      * Create a new fake player
+     * @param plugin Plugin whose metrics and flight recorder count the packets
      * @param location Spawn location
      * @param name Display name
-     * @param skinUUID UUID for skin (use player's UUID to copy skin)
+     * @param skinUUID Player whose skin and skin layers the body wears
+     * @throws IllegalStateException if the server has no NMS adapter
      */
-    public FakePlayerEntity(Location location, String name, UUID skinUUID) {
-        this.currentLocation = location.clone();
-
-        // Create game profile
-        this.gameProfile = new GameProfile(UUID.randomUUID(), name);
-
-        // Get NMS world
-        ServerLevel world = ((CraftWorld) location.getWorld()).getHandle();
-
-        // Create fake player entity
-        this.nmsPlayer = new ServerPlayer(
-                ((CraftServer) Bukkit.getServer()).getServer(),
-                world,
-                gameProfile,
-                net.minecraft.world.entity.player.ClientInformation.createDefault()
-        );
-
-        // Set position
-        nmsPlayer.setPos(location.getX(), location.getY(), location.getZ());
-        nmsPlayer.setYRot(location.getYaw());
-        nmsPlayer.setXRot(location.getPitch());
-        nmsPlayer.setYHeadRot(location.getYaw());
-
-        // Set properties
-        nmsPlayer.setInvulnerable(true);
-        nmsPlayer.setNoGravity(false);
+    public FakePlayerEntity(RideableCameraPlugin plugin, Location location, String name, UUID skinUUID) {
+        if (!NMSUtil.isFakePlayerSupported()) {
+            throw new IllegalStateException("Fake players are not supported: " + NMSUtil.getUnsupportedReason());
+        }
 
-        // Enable all skin layers
-        setSkinLayers(true, true, true, true, true, true, true);
+        this.metrics = plugin.getMetrics();
+        this.flightRecorder = plugin.getFlightRecorder();
+        this.currentLocation = location.clone();
+        PlayerSkin skin = plugin.getSkinCache().get(skinUUID);
+        this.body = NMSUtil.getAdapter().createBody(location, name, skin, this::onPacketSent);
     }
 
     /**
@@ -81,32 +59,20 @@ public class FakePlayerEntity {
      * @param viewer Player who will see this fake player
      */
     public void spawn(Player viewer) {
-        ServerPlayer nmsViewer = ((CraftPlayer) viewer).getHandle();
-        ServerGamePacketListenerImpl connection = nmsViewer.connection;
-
-        // Send spawn packet
-        connection.send(new ClientboundPlayerInfoUpdatePacket(
-                ClientboundPlayerInfoUpdatePacket.Action.ADD_PLAYER,
-                nmsPlayer
-        ));
-
-        // Send entity spawn packet
-        connection.send(new ClientboundAddEntityPacket(nmsPlayer));
-
-        // Send metadata
-        connection.send(new ClientboundSetEntityDataPacket(
-                nmsPlayer.getId(),
-                nmsPlayer.getEntityData().getNonDefaultValues()
-        ));
-
-        // Send head rotation
-        connection.send(new ClientboundRotateHeadPacket(
-                nmsPlayer,
-                (byte) ((nmsPlayer.getYHeadRot() * 256.0F) / 360.0F)
-        ));
+        body.spawn(viewer);
+    }
 
-        // Send equipment if any
-        sendEquipment(viewer);
+    /**
+     * Spawn many fake players for one viewer in one player info packet and one bundle
+     * @param viewer Player who will see the fake players
+     * @param fakePlayers Fake players to spawn
+     */
+    public static void spawnAll(Player viewer, List<FakePlayerEntity> fakePlayers) {
+        List<FakeBody> bodies = new ArrayList<>(fakePlayers.size());
+        for (FakePlayerEntity fakePlayer : fakePlayers) {
+            bodies.add(fakePlayer.body);
+        }
+        NMSUtil.getAdapter().spawnAll(viewer, bodies);
     }
 
     /**
@@ -114,249 +80,165 @@ public class FakePlayerEntity {
      * @param viewer Player who will no longer see this fake player
      */
     public void despawn(Player viewer) {
-        ServerPlayer nmsViewer = ((CraftPlayer) viewer).getHandle();
-        ServerGamePacketListenerImpl connection = nmsViewer.connection;
-
-        // Send remove entity packet
-        connection.send(new ClientboundRemoveEntitiesPacket(nmsPlayer.getId()));
-
-        // Remove from player info
-        connection.send(new ClientboundPlayerInfoRemovePacket(List.of(nmsPlayer.getUUID())));
+        body.despawn(viewer);
     }
 
     /**
      * Teleport fake player to location
      * @param location New location
-     * @param viewer Player who will see the teleport
+     * @param viewers Players who will see the teleport
      */
-    public void teleport(Location location, Player viewer) {
+    public void teleport(Location location, Collection<? extends Player> viewers) {
         this.currentLocation = location.clone();
-
-        nmsPlayer.setPos(location.getX(), location.getY(), location.getZ());
-        nmsPlayer.setYRot(location.getYaw());
-        nmsPlayer.setXRot(location.getPitch());
-        nmsPlayer.setYHeadRot(location.getYaw());
-
-        ServerPlayer nmsViewer = ((CraftPlayer) viewer).getHandle();
-        ServerGamePacketListenerImpl connection = nmsViewer.connection;
-
-        // Send teleport packet
-        connection.send(new ClientboundTeleportEntityPacket(nmsPlayer));
-
-        // Send head rotation
-        connection.send(new ClientboundRotateHeadPacket(
-                nmsPlayer,
-                (byte) ((location.getYaw() * 256.0F) / 360.0F)
-        ));
+        body.teleport(location, viewers);
     }
 
     /**
      * Move fake player with animation
+     * Call once per change with every viewer, the position is only updated here
      * @param location New location
      * @param onGround Is on ground
-     * @param viewer Player who will see the movement
+     * @param viewers Players who will see the movement
      */
-    public void move(Location location, boolean onGround, Player viewer) {
-        this.currentLocation = location.clone();
-
-        // Calculate deltas
-        double deltaX = (location.getX() * 32 - nmsPlayer.getX() * 32) * 128;
-        double deltaY = (location.getY() * 32 - nmsPlayer.getY() * 32) * 128;
-        double deltaZ = (location.getZ() * 32 - nmsPlayer.getZ() * 32) * 128;
-
-        // Update position
-        nmsPlayer.setPos(location.getX(), location.getY(), location.getZ());
-        nmsPlayer.setYRot(location.getYaw());
-        nmsPlayer.setXRot(location.getPitch());
-        nmsPlayer.setYHeadRot(location.getYaw());
-        nmsPlayer.setOnGround(onGround);
-
-        ServerPlayer nmsViewer = ((CraftPlayer) viewer).getHandle();
-        ServerGamePacketListenerImpl connection = nmsViewer.connection;
-
-        // Send movement packet if delta is small enough
-        if (Math.abs(deltaX) < 32768 && Math.abs(deltaY) < 32768 && Math.abs(deltaZ) < 32768) {
-            connection.send(new ClientboundMoveEntityPacket.PosRot(
-                    nmsPlayer.getId(),
-                    (short) deltaX,
-                    (short) deltaY,
-                    (short) deltaZ,
-                    (byte) ((location.getYaw() * 256.0F) / 360.0F),
-                    (byte) ((location.getPitch() * 256.0F) / 360.0F),
-                    onGround
-            ));
-        } else {
-            // Too far, use teleport
-            connection.send(new ClientboundTeleportEntityPacket(nmsPlayer));
-        }
+    public void move(Location location, boolean onGround, Collection<? extends Player> viewers) {
+        // Copied, the caller keeps reusing its location
+        currentLocation.setWorld(location.getWorld());
+        currentLocation.setX(location.getX());
+        currentLocation.setY(location.getY());
+        currentLocation.setZ(location.getZ());
+        currentLocation.setYaw(location.getYaw());
+        currentLocation.setPitch(location.getPitch());
 
-        // Send head rotation
-        connection.send(new ClientboundRotateHeadPacket(
-                nmsPlayer,
-                (byte) ((location.getYaw() * 256.0F) / 360.0F)
-        ));
+        body.move(location, onGround, viewers);
     }
 
     /**
      * Update only rotation
      * @param yaw New yaw
      * @param pitch New pitch
-     * @param viewer Player who will see the rotation
+     * @param viewers Players who will see the rotation
      */
-    public void rotate(float yaw, float pitch, Player viewer) {
-        nmsPlayer.setYRot(yaw);
-        nmsPlayer.setXRot(pitch);
-        nmsPlayer.setYHeadRot(yaw);
-
+    public void rotate(float yaw, float pitch, Collection<? extends Player> viewers) {
         currentLocation.setYaw(yaw);
         currentLocation.setPitch(pitch);
 
-        ServerPlayer nmsViewer = ((CraftPlayer) viewer).getHandle();
-        ServerGamePacketListenerImpl connection = nmsViewer.connection;
-
-        // Send rotation packet
-        connection.send(new ClientboundMoveEntityPacket.Rot(
-                nmsPlayer.getId(),
-                (byte) ((yaw * 256.0F) / 360.0F),
-                (byte) ((pitch * 256.0F) / 360.0F),
-                nmsPlayer.onGround()
-        ));
-
-        // Send head rotation
-        connection.send(new ClientboundRotateHeadPacket(
-                nmsPlayer,
-                (byte) ((yaw * 256.0F) / 360.0F)
-        ));
+        body.rotate(yaw, pitch, viewers);
     }
 
     /**
      * Copy equipment from real player
      * @param player Source player
-     * @param viewer Player who will see the equipment
+     * @param viewers Players who will see the equipment
      */
-    public void copyEquipment(Player player, Player viewer) {
-        ServerPlayer nmsSource = ((CraftPlayer) player).getHandle();
-
-        // Copy inventory
-        nmsPlayer.getInventory().replaceWith(nmsSource.getInventory());
-
-        // Send equipment update
-        sendEquipment(viewer);
+    public void copyEquipment(Player player, Collection<? extends Player> viewers) {
+        body.copyEquipment(player, viewers);
     }
 
     /**
-     * Send equipment packets
-     * @param viewer Player who will see the equipment
+     * Set a single equipment slot without sending it
+     * @param slot Equipment slot
+     * @param item Item or null to clear
      */
-    private void sendEquipment(Player viewer) {
-        ServerPlayer nmsViewer = ((CraftPlayer) viewer).getHandle();
-        ServerGamePacketListenerImpl connection = nmsViewer.connection;
-
-        // Send equipment packet
-        connection.send(new ClientboundSetEquipmentPacket(
-                nmsPlayer.getId(),
-                List.of(
-                        com.mojang.datafixers.util.Pair.of(
-                                net.minecraft.world.entity.EquipmentSlot.MAINHAND,
-                                nmsPlayer.getInventory().getItem(nmsPlayer.getInventory().selected)
-                        ),
-                        com.mojang.datafixers.util.Pair.of(
-                                net.minecraft.world.entity.EquipmentSlot.OFFHAND,
-                                nmsPlayer.getInventory().offhand.get(0)
-                        ),
-                        com.mojang.datafixers.util.Pair.of(
-                                net.minecraft.world.entity.EquipmentSlot.HEAD,
-                                nmsPlayer.getInventory().armor.get(3)
-                        ),
-                        com.mojang.datafixers.util.Pair.of(
-                                net.minecraft.world.entity.EquipmentSlot.CHEST,
-                                nmsPlayer.getInventory().armor.get(2)
-                        ),
-                        com.mojang.datafixers.util.Pair.of(
-                                net.minecraft.world.entity.EquipmentSlot.LEGS,
-                                nmsPlayer.getInventory().armor.get(1)
-                        ),
-                        com.mojang.datafixers.util.Pair.of(
-                                net.minecraft.world.entity.EquipmentSlot.FEET,
-                                nmsPlayer.getInventory().armor.get(0)
-                        )
-                )
-        ));
+    public void setEquipment(org.bukkit.inventory.EquipmentSlot slot, org.bukkit.inventory.ItemStack item) {
+        body.setEquipment(slot, item);
     }
 
     /**
-     * Set skin layer visibility
+     * Send the current equipment to viewers
+     * @param viewers Players who will see the equipment
      */
-    private void setSkinLayers(boolean cape, boolean jacket, boolean leftSleeve,
-                               boolean rightSleeve, boolean leftPants,
-                               boolean rightPants, boolean hat) {
-        byte b = 0;
-        if (cape) b |= 0x01;
-        if (jacket) b |= 0x02;
-        if (leftSleeve) b |= 0x04;
-        if (rightSleeve) b |= 0x08;
-        if (leftPants) b |= 0x10;
-        if (rightPants) b |= 0x20;
-        if (hat) b |= 0x40;
-
-        nmsPlayer.getEntityData().set(DATA_PLAYER_MODE_CUSTOMISATION, b);
+    public void updateEquipment(Collection<? extends Player> viewers) {
+        body.updateEquipment(viewers);
     }
 
     /**
      * Set sneaking state
      * @param sneaking Is sneaking
-     * @param viewer Player who will see the change
+     * @param viewers Players who will see the change
      */
-    public void setSneaking(boolean sneaking, Player viewer) {
-        nmsPlayer.setShiftKeyDown(sneaking);
-        nmsPlayer.setPose(sneaking ? Pose.CROUCHING : Pose.STANDING);
-
-        ServerPlayer nmsViewer = ((CraftPlayer) viewer).getHandle();
-        nmsViewer.connection.send(new ClientboundSetEntityDataPacket(
-                nmsPlayer.getId(),
-                nmsPlayer.getEntityData().getNonDefaultValues()
-        ));
+    public void setSneaking(boolean sneaking, Collection<? extends Player> viewers) {
+        body.setSneaking(sneaking, viewers);
     }
 
     /**
      * Set sprinting state
      * @param sprinting Is sprinting
-     * @param viewer Player who will see the change
+     * @param viewers Players who will see the change
      */
-    public void setSprinting(boolean sprinting, Player viewer) {
-        nmsPlayer.setSprinting(sprinting);
-
-        ServerPlayer nmsViewer = ((CraftPlayer) viewer).getHandle();
-        nmsViewer.connection.send(new ClientboundSetEntityDataPacket(
-                nmsPlayer.getId(),
-                nmsPlayer.getEntityData().getNonDefaultValues()
-        ));
+    public void setSprinting(boolean sprinting, Collection<? extends Player> viewers) {
+        body.setSprinting(sprinting, viewers);
     }
 
     /**
      * Play animation
      * @param animation Animation type (0=swing main hand, 3=leave bed, 4=swing offhand, etc)
-     * @param viewer Player who will see the animation
+     * @param viewers Players who will see the animation
      */
-    public void playAnimation(int animation, Player viewer) {
-        ServerPlayer nmsViewer = ((CraftPlayer) viewer).getHandle();
-        nmsViewer.connection.send(new ClientboundAnimatePacket(nmsPlayer, animation));
+    public void playAnimation(int animation, Collection<? extends Player> viewers) {
+        body.playAnimation(animation, viewers);
     }
 
-    // Getters
-    public ServerPlayer getNmsPlayer() {
-        return nmsPlayer;
+    /**
+     * Count a packet in the metrics and record it in the trace
+     */
+    private void onPacketSent(Player viewer, PacketType type, int size,
+                              short deltaX, short deltaY, short deltaZ, byte yaw, byte pitch) {
+        packetsSent++;
+
+        // Length prefix and packet id
+        if (metrics != null) {
+            metrics.recordPacket(type, viewer.getUniqueId(), size + 2);
+        }
+
+        if (trace != null) {
+            trace.record(flightRecorder.getTick(), viewer.getEntityId(), type, body.getEntityId(),
+                    deltaX, deltaY, deltaZ, yaw, pitch, size + 2);
+        }
+    }
+
+    /**
+     * Record every packet sent for this fake player into a trace
+     * @param trace Trace of the owning player
+     */
+    public void setTrace(PacketTrace trace) {
+        this.trace = trace;
     }
 
+    /**
+     * Get the number of packets sent for this fake player
+     * @return Packets sent to all viewers so far
+     */
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    // Getters
     public int getEntityId() {
-        return nmsPlayer.getId();
+        return body.getEntityId();
     }
 
     public Location getLocation() {
         return currentLocation.clone();
     }
 
-    public GameProfile getGameProfile() {
-        return gameProfile;
+    /**
+     * Copy the location into an existing one, like Entity.getLocation(Location)
+     * @param out Location to write to
+     * @return out, or null if out is null
+     */
+    public Location getLocation(Location out) {
+        if (out != null) {
+            out.setWorld(currentLocation.getWorld());
+            out.setX(currentLocation.getX());
+            out.setY(currentLocation.getY());
+            out.setZ(currentLocation.getZ());
+            out.setYaw(currentLocation.getYaw());
+            out.setPitch(currentLocation.getPitch());
+        }
+        return out;
+    }
+
+    public World getWorld() {
+        return currentLocation.getWorld();
     }
-}
\ No newline at end of file
+}
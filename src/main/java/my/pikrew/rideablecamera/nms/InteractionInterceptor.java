@@ -0,0 +1,223 @@
+package my.pikrew.rideablecamera.nms;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.camera.BodyIndex;
+import my.pikrew.rideablecamera.models.CameraSession;
+import my.pikrew.rideablecamera.nms.adapter.InteractionHandler;
+import my.pikrew.rideablecamera.nms.adapter.NMSAdapter;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.damage.DamageSource;
+import org.bukkit.damage.DamageType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerInteractAtEntityEvent;
+import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.util.Vector;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes hits and clicks on packet-only bodies to their owners
+ * The NMS adapter puts a handler in each player's network pipeline which
+ * looks the target of every interact packet up in the body index. Packets
+ * for other entities pass through untouched; packets for a body are
+ * swallowed and replayed on the main thread as Bukkit events on the owning
+ * player. Each player has at most one interaction waiting for the main
+ * thread, anything they send before it runs is dropped
+ */
+public class InteractionInterceptor implements InteractionHandler {
+
+    // Vanilla interaction reach plus some slack for latency
+    private static final double MAX_REACH_SQUARED = 8.0 * 8.0;
+
+    private final RideableCameraPlugin plugin;
+    private final BodyIndex bodies;
+
+    // Interaction waiting for the main thread, by source player
+    private final Map<UUID, Pending> pending;
+
+    // Set when the first body appears, to keep NMS off the enable path
+    private NMSAdapter adapter;
+    private boolean failed;
+
+    public InteractionInterceptor(RideableCameraPlugin plugin, BodyIndex bodies) {
+        this.plugin = plugin;
+        this.bodies = bodies;
+        this.pending = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Inject every online player, and every player joining from now on
+     * Called when the first body is spawned; does nothing after that
+     */
+    public void start() {
+        if (adapter != null || failed) {
+            return;
+        }
+
+        try {
+            NMSAdapter started = NMSUtil.getAdapter();
+            if (started == null) {
+                failed = true;
+                return;
+            }
+            for (Player player : plugin.getServer().getOnlinePlayers()) {
+                started.injectInteractions(player, this);
+            }
+            adapter = started;
+        } catch (IllegalStateException | LinkageError e) {
+            failed = true;
+            plugin.getLogger().warning("Interaction proxying is not available: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Start watching a player's interact packets
+     * @param player The player
+     */
+    public void inject(Player player) {
+        if (adapter != null) {
+            adapter.injectInteractions(player, this);
+        }
+    }
+
+    /**
+     * Stop watching a player's interact packets
+     * @param player The player
+     */
+    public void eject(Player player) {
+        if (adapter != null) {
+            adapter.ejectInteractions(player);
+        }
+    }
+
+    @Override
+    public boolean isTarget(int entityId) {
+        return bodies.size() > 0 && bodies.get(entityId) != null;
+    }
+
+    @Override
+    public void onAttack(UUID source, int entityId) {
+        schedule(source, entityId, Action.ATTACK, EquipmentSlot.HAND, null);
+    }
+
+    @Override
+    public void onInteract(UUID source, int entityId, boolean offHand) {
+        schedule(source, entityId, Action.INTERACT, toSlot(offHand), null);
+    }
+
+    @Override
+    public void onInteractAt(UUID source, int entityId, boolean offHand, double x, double y, double z) {
+        schedule(source, entityId, Action.INTERACT_AT, toSlot(offHand), new Vector(x, y, z));
+    }
+
+    /**
+     * Queue an interaction for the main thread (network thread)
+     * Dropped if the player already has one waiting, so a client spamming
+     * interact packets costs one task per tick at most
+     */
+    private void schedule(UUID source, int entityId, Action action, EquipmentSlot hand, Vector position) {
+        Pending request = new Pending(entityId, action, hand, position);
+        if (pending.putIfAbsent(source, request) != null) {
+            return;
+        }
+
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            pending.remove(source);
+            dispatch(source, request);
+        });
+    }
+
+    /**
+     * Turn a confirmed hit on a body into events on its owner (main thread)
+     */
+    private void dispatch(UUID sourceUUID, Pending request) {
+        int entityId = request.entityId();
+        EquipmentSlot hand = request.hand();
+        Player source = plugin.getServer().getPlayer(sourceUUID);
+        CameraSession session = bodies.get(entityId);
+        if (source == null || session == null || !session.isActive()) {
+            return;
+        }
+
+        Player owner = session.getPlayer();
+        if (owner == null || owner.equals(source)) {
+            return;
+        }
+
+        // The server never validated the packet, check the reach ourselves
+        Location body = session.getImplementation().getBodyLocation(session);
+        if (body == null || body.getWorld() != source.getWorld()
+                || body.distanceSquared(source.getEyeLocation()) > MAX_REACH_SQUARED) {
+            return;
+        }
+
+        switch (request.action()) {
+            case ATTACK -> attack(source, owner, session, body);
+            case INTERACT -> plugin.getServer().getPluginManager().callEvent(
+                    new PlayerInteractEntityEvent(source, owner, hand));
+            case INTERACT_AT -> plugin.getServer().getPluginManager().callEvent(
+                    new PlayerInteractAtEntityEvent(source, owner, request.position(), hand));
+        }
+    }
+
+    /**
+     * Hurt the owner of a body that was hit
+     * Checked and scaled like a real melee hit, then applied with
+     * Player.damage, which fires the damage event and keeps the owner's
+     * invulnerability window. Spectators can't be hurt, so the owner is put
+     * back in their own game mode for the hit
+     */
+    private void attack(Player source, Player owner, CameraSession session, Location body) {
+        if (!body.getWorld().getPVP() || source.getGameMode() == GameMode.SPECTATOR
+                || source.isInvulnerable() || owner.isInvulnerable()) {
+            return;
+        }
+
+        // A swing before the attack cooldown recharged hits weaker, like vanilla
+        AttributeInstance attribute = source.getAttribute(Attribute.ATTACK_DAMAGE);
+        double damage = attribute != null ? attribute.getValue() : 1.0;
+        float cooldown = source.getAttackCooldown();
+        damage *= 0.2F + cooldown * cooldown * 0.8F;
+
+        DamageSource damageSource = DamageSource.builder(DamageType.PLAYER_ATTACK)
+                .withCausingEntity(source)
+                .withDirectEntity(source)
+                .withDamageLocation(body)
+                .build();
+
+        if (damage >= owner.getHealth()) {
+            // Could be fatal, take it as the real player where the body stood
+            plugin.getCameraManager().disableCamera(owner);
+            owner.damage(damage, damageSource);
+            return;
+        }
+
+        GameMode cameraMode = owner.getGameMode();
+        owner.setGameMode(session.getOriginalGameMode());
+        owner.damage(damage, damageSource);
+        owner.setGameMode(cameraMode);
+        owner.setSpectatorTarget(session.getCameraRig());
+    }
+
+    private static EquipmentSlot toSlot(boolean offHand) {
+        return offHand ? EquipmentSlot.OFF_HAND : EquipmentSlot.HAND;
+    }
+
+    /**
+     * Interaction waiting for the main thread
+     */
+    private record Pending(int entityId, Action action, EquipmentSlot hand, Vector position) {
+    }
+
+    private enum Action {
+        ATTACK,
+        INTERACT,
+        INTERACT_AT
+    }
+}
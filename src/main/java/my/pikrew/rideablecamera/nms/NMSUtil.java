@@ -1,26 +1,110 @@
 package my.pikrew.rideablecamera.nms;
 
+import my.pikrew.rideablecamera.nms.adapter.NMSAdapter;
 import org.bukkit.Bukkit;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+
 /**
  * NMS Utility class for version detection and abstraction
+ * Nothing is parsed or probed until first asked for, so loading this class
+ * on enable costs nothing
  */
 public class NMSUtil {
 
-    private static final String VERSION;
-    private static final int MAJOR_VERSION;
-    private static final int MINOR_VERSION;
-    private static final int PATCH_VERSION;
+    // Adapters live in a sub-package named after the CraftBukkit package
+    private static final String ADAPTER_PACKAGE = "my.pikrew.rideablecamera.nms";
+
+    // Adapter package to use instead of the detected one, e.g. -Drideablecamera.nms=v1_21_R3
+    // for a fork whose version isn't recognised, or a stub adapter in headless runs
+    private static final String ADAPTER_PROPERTY = "rideablecamera.nms";
+
+    // CraftBukkit package of each supported release, for servers whose
+    // package carries no version (Paper 1.20.5+)
+    private static final Map<String, String> CRAFTBUKKIT_BY_RELEASE = Map.of(
+            "1.21.2", "v1_21_R2",
+            "1.21.3", "v1_21_R2",
+            "1.21.4", "v1_21_R3"
+    );
+
+    /**
+     * Server version, parsed on first use
+     */
+    private static final class Version {
+
+        private static final String VERSION;
+        private static final int MAJOR_VERSION;
+        private static final int MINOR_VERSION;
+        private static final int PATCH_VERSION;
+
+        static {
+            // Parse version like "1.21.4"
+            String release = Bukkit.getBukkitVersion().split("-")[0];
+            String[] versionParts = release.split("\\.");
+            MAJOR_VERSION = Integer.parseInt(versionParts[0]);
+            MINOR_VERSION = Integer.parseInt(versionParts[1]);
+            PATCH_VERSION = versionParts.length > 2 ? Integer.parseInt(versionParts[2]) : 0;
+
+            // "v1_21_R3" on Spigot, plain "craftbukkit" on Paper 1.20.5+
+            String packageName = Bukkit.getServer().getClass().getPackage().getName();
+            String suffix = packageName.substring(packageName.lastIndexOf('.') + 1);
+            String detected = suffix.startsWith("v") ? suffix : CRAFTBUKKIT_BY_RELEASE.getOrDefault(release, release);
+            VERSION = System.getProperty(ADAPTER_PROPERTY, detected);
+        }
+    }
+
+    /**
+     * Adapter of the running server, selected once on first use
+     */
+    private static final class Adapter {
 
-    static {
-        String packageName = Bukkit.getServer().getClass().getPackage().getName();
-        VERSION = packageName.substring(packageName.lastIndexOf('.') + 1);
+        private static final NMSAdapter INSTANCE;
+        private static final String REASON;
 
-        // Parse version like "1.21.4"
-        String[] versionParts = Bukkit.getBukkitVersion().split("-")[0].split("\\.");
-        MAJOR_VERSION = Integer.parseInt(versionParts[0]);
-        MINOR_VERSION = Integer.parseInt(versionParts[1]);
-        PATCH_VERSION = versionParts.length > 2 ? Integer.parseInt(versionParts[2]) : 0;
+        static {
+            NMSAdapter adapter = null;
+            String reason = null;
+            String name = ADAPTER_PACKAGE + "." + Version.VERSION + ".NMSAdapterImpl";
+            try {
+                Class<?> type = Class.forName(name, true, NMSUtil.class.getClassLoader());
+                MethodHandle constructor = MethodHandles.publicLookup()
+                        .findConstructor(type, MethodType.methodType(void.class));
+                adapter = (NMSAdapter) constructor.invoke();
+            } catch (ClassNotFoundException e) {
+                reason = "no adapter for " + Version.VERSION;
+            } catch (Throwable e) {
+                reason = "adapter for " + Version.VERSION + " failed to load: " + e;
+            }
+            INSTANCE = adapter;
+            REASON = reason;
+        }
+    }
+
+    /**
+     * Check if packet-only fake players can be used on this server
+     * @return true if an NMS adapter matches the running server
+     */
+    public static boolean isFakePlayerSupported() {
+        return Adapter.INSTANCE != null;
+    }
+
+    /**
+     * Get the NMS adapter of the running server
+     * @return Adapter, or null if there is none for this version
+     */
+    public static NMSAdapter getAdapter() {
+        return Adapter.INSTANCE;
+    }
+
+    /**
+     * Get why fake players are not supported
+     * @return Reason, or null if they are supported
+     */
+    public static String getUnsupportedReason() {
+        return Adapter.REASON;
     }
 
     /**
@@ -28,7 +112,7 @@ public class NMSUtil {
      * @return Version string (e.g., "v1_21_R1")
      */
     public static String getVersion() {
-        return VERSION;
+        return Version.VERSION;
     }
 
     /**
@@ -36,7 +120,7 @@ public class NMSUtil {
      * @return Major version (e.g., 1)
      */
     public static int getMajorVersion() {
-        return MAJOR_VERSION;
+        return Version.MAJOR_VERSION;
     }
 
     /**
@@ -44,7 +128,7 @@ public class NMSUtil {
      * @return Minor version (e.g., 21)
      */
     public static int getMinorVersion() {
-        return MINOR_VERSION;
+        return Version.MINOR_VERSION;
     }
 
     /**
@@ -52,7 +136,7 @@ public class NMSUtil {
      * @return Patch version (e.g., 4)
      */
     public static int getPatchVersion() {
-        return PATCH_VERSION;
+        return Version.PATCH_VERSION;
     }
 
     /**
@@ -60,7 +144,7 @@ public class NMSUtil {
      * @return true if 1.21+
      */
     public static boolean is1_21OrHigher() {
-        return MINOR_VERSION >= 21;
+        return Version.MINOR_VERSION >= 21;
     }
 
     /**
@@ -68,7 +152,7 @@ public class NMSUtil {
      * @return true if 1.20+
      */
     public static boolean is1_20OrHigher() {
-        return MINOR_VERSION >= 20;
+        return Version.MINOR_VERSION >= 20;
     }
 
     /**
@@ -76,6 +160,6 @@ public class NMSUtil {
      * @return Full version (e.g., "1.21.4")
      */
     public static String getFullVersion() {
-        return MAJOR_VERSION + "." + MINOR_VERSION + "." + PATCH_VERSION;
+        return Version.MAJOR_VERSION + "." + Version.MINOR_VERSION + "." + Version.PATCH_VERSION;
     }
-}
\ No newline at end of file
+}
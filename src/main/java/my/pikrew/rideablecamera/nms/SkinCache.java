@@ -0,0 +1,101 @@
+package my.pikrew.rideablecamera.nms;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.config.ConfigSnapshot;
+import my.pikrew.rideablecamera.nms.adapter.PlayerSkin;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signed skin textures of body owners, least recently used dropped first
+ * Read from the owner's live profile once and reused by every body made
+ * for them until the entry expires, so re-toggling the camera or replaying
+ * a recording never looks up a profile. Skin layers are client settings
+ * that change any time, so they are read from the owner for every body.
+ * Main thread only
+ */
+public class SkinCache {
+
+    private final RideableCameraPlugin plugin;
+    private final LinkedHashMap<UUID, Entry> entries;
+    private int capacity;
+    private long ttlMillis;
+
+    private record Entry(String texture, String signature, long expires) {
+    }
+
+    public SkinCache(RideableCameraPlugin plugin) {
+        this.plugin = plugin;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+        onReload();
+    }
+
+    /**
+     * Take the size and lifetime from the config, dropping the oldest entries over the size
+     */
+    public void onReload() {
+        ConfigSnapshot snapshot = plugin.getConfigManager().getSnapshot();
+        capacity = snapshot.skinCacheSize();
+        ttlMillis = snapshot.skinCacheTtl() * 1000L;
+
+        Iterator<UUID> eldest = entries.keySet().iterator();
+        while (entries.size() > capacity && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Get the skin of an owner
+     * An expired texture is only replaced while the owner is online, an
+     * offline owner (a replayed recording) keeps the last texture seen and
+     * shows every layer
+     * @param owner Owner UUID
+     * @return Skin, or null if the owner was never seen and is offline
+     */
+    public PlayerSkin get(UUID owner) {
+        Player player = Bukkit.getPlayer(owner);
+        boolean live = player != null && NMSUtil.isFakePlayerSupported();
+
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(owner);
+        if (entry == null || (entry.expires() <= now && live)) {
+            if (!live) {
+                return null;
+            }
+
+            PlayerSkin skin = NMSUtil.getAdapter().getSkin(player);
+            entries.put(owner, new Entry(skin.texture(), skin.signature(), now + ttlMillis));
+            return skin;
+        }
+
+        byte layers = live ? NMSUtil.getAdapter().getSkinLayers(player) : PlayerSkin.ALL_LAYERS;
+        return new PlayerSkin(entry.texture(), entry.signature(), layers);
+    }
+
+    /**
+     * Drop an owner's skin, read again on next use
+     * @param owner Owner UUID
+     */
+    public void invalidate(UUID owner) {
+        entries.remove(owner);
+    }
+
+    /**
+     * Get the number of cached skins
+     * @return Entries
+     */
+    public int size() {
+        return entries.size();
+    }
+}
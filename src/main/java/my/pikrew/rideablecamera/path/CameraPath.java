@@ -0,0 +1,175 @@
+package my.pikrew.rideablecamera.path;
+
+import org.bukkit.Location;
+
+/**
+ * A cinematic camera path, sampled once into one pose per tick
+ * Playback only indexes into the sample arrays
+ */
+public class CameraPath {
+
+    // Dense samples per segment used for arc-length parameterisation
+    private static final int SUBDIVISIONS = 32;
+
+    private final String name;
+    private final String worldName;
+    private final int durationTicks;
+
+    // One sample per tick (durationTicks + 1 entries)
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final float[] yaw;
+    private final float[] pitch;
+
+    private CameraPath(String name, String worldName, int durationTicks,
+                       double[] x, double[] y, double[] z, float[] yaw, float[] pitch) {
+        this.name = name;
+        this.worldName = worldName;
+        this.durationTicks = durationTicks;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+    }
+
+    /**
+     * Sample a path definition
+     * Speed along the path is constant before easing is applied
+     * @param name Path name
+     * @param worldName World the path is in
+     * @param pointsX Control point X values
+     * @param pointsY Control point Y values
+     * @param pointsZ Control point Z values
+     * @param type Spline type
+     * @param easing Easing along the path
+     * @param lookAt Point to look at, or null to look along the path
+     * @param durationTicks Duration in ticks
+     * @return Sampled path
+     * @throws IllegalArgumentException if the definition is invalid
+     */
+    public static CameraPath compile(String name, String worldName,
+                                     double[] pointsX, double[] pointsY, double[] pointsZ,
+                                     SplineType type, Easing easing, double[] lookAt, int durationTicks) {
+        int points = pointsX.length;
+
+        if (!type.isValid(points)) {
+            throw new IllegalArgumentException("Path " + name + " has an invalid number of points for "
+                    + type.name().toLowerCase() + ": " + points);
+        }
+        if (durationTicks < 1) {
+            throw new IllegalArgumentException("Path " + name + " needs a duration of at least 1 tick");
+        }
+
+        // Dense samples and cumulative arc length
+        int segments = type.getSegmentCount(points);
+        int denseCount = segments * SUBDIVISIONS + 1;
+        double[] denseX = new double[denseCount];
+        double[] denseY = new double[denseCount];
+        double[] denseZ = new double[denseCount];
+        double[] length = new double[denseCount];
+
+        for (int i = 0; i < denseCount; i++) {
+            int segment = Math.min(i / SUBDIVISIONS, segments - 1);
+            double u = (i - segment * SUBDIVISIONS) / (double) SUBDIVISIONS;
+
+            denseX[i] = type.evaluate(pointsX, segment, u);
+            denseY[i] = type.evaluate(pointsY, segment, u);
+            denseZ[i] = type.evaluate(pointsZ, segment, u);
+
+            if (i > 0) {
+                double dx = denseX[i] - denseX[i - 1];
+                double dy = denseY[i] - denseY[i - 1];
+                double dz = denseZ[i] - denseZ[i - 1];
+                length[i] = length[i - 1] + Math.sqrt(dx * dx + dy * dy + dz * dz);
+            }
+        }
+
+        // One sample per tick
+        int count = durationTicks + 1;
+        double[] x = new double[count];
+        double[] y = new double[count];
+        double[] z = new double[count];
+        float[] yaw = new float[count];
+        float[] pitch = new float[count];
+        double total = length[denseCount - 1];
+
+        int cursor = 1;
+        for (int tick = 0; tick < count; tick++) {
+            double target = easing.apply(tick / (double) durationTicks) * total;
+
+            // Eased progress is monotonic, so the cursor only moves forward
+            while (cursor < denseCount - 1 && length[cursor] < target) {
+                cursor++;
+            }
+
+            double span = length[cursor] - length[cursor - 1];
+            double f = span > 0 ? Math.min(1.0, Math.max(0.0, (target - length[cursor - 1]) / span)) : 0.0;
+
+            x[tick] = denseX[cursor - 1] + (denseX[cursor] - denseX[cursor - 1]) * f;
+            y[tick] = denseY[cursor - 1] + (denseY[cursor] - denseY[cursor - 1]) * f;
+            z[tick] = denseZ[cursor - 1] + (denseZ[cursor] - denseZ[cursor - 1]) * f;
+        }
+
+        // View direction
+        for (int tick = 0; tick < count; tick++) {
+            double dx;
+            double dy;
+            double dz;
+
+            if (lookAt != null) {
+                dx = lookAt[0] - x[tick];
+                dy = lookAt[1] - y[tick];
+                dz = lookAt[2] - z[tick];
+            } else {
+                int from = tick < count - 1 ? tick : tick - 1;
+                dx = x[from + 1] - x[from];
+                dy = y[from + 1] - y[from];
+                dz = z[from + 1] - z[from];
+            }
+
+            double horizontal = Math.sqrt(dx * dx + dz * dz);
+            if (horizontal < 1.0E-6 && Math.abs(dy) < 1.0E-6) {
+                // Standing still, keep the previous direction
+                yaw[tick] = tick > 0 ? yaw[tick - 1] : 0.0F;
+                pitch[tick] = tick > 0 ? pitch[tick - 1] : 0.0F;
+                continue;
+            }
+
+            yaw[tick] = (float) Math.toDegrees(Math.atan2(-dx, dz));
+            pitch[tick] = (float) -Math.toDegrees(Math.atan2(dy, horizontal));
+        }
+
+        return new CameraPath(name, worldName, durationTicks, x, y, z, yaw, pitch);
+    }
+
+    /**
+     * Copy the pose at a tick into a location
+     * @param tick Tick from the start of the path (clamped)
+     * @param out Location to write to
+     * @return out, for chaining
+     */
+    public Location getPose(int tick, Location out) {
+        int i = Math.max(0, Math.min(tick, durationTicks));
+        out.setX(x[i]);
+        out.setY(y[i]);
+        out.setZ(z[i]);
+        out.setYaw(yaw[i]);
+        out.setPitch(pitch[i]);
+        return out;
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public int getDurationTicks() {
+        return durationTicks;
+    }
+}
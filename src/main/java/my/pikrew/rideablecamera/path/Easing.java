@@ -0,0 +1,48 @@
+package my.pikrew.rideablecamera.path;
+
+/**
+ * Easing curves applied along a camera path
+ */
+public enum Easing {
+
+    LINEAR,
+    EASE_IN,
+    EASE_OUT,
+    EASE_IN_OUT;
+
+    /**
+     * Apply the curve
+     * @param t Progress from 0 to 1
+     * @return Eased progress from 0 to 1
+     */
+    public double apply(double t) {
+        switch (this) {
+            case EASE_IN:
+                return t * t * t;
+            case EASE_OUT:
+                double inv = 1.0 - t;
+                return 1.0 - inv * inv * inv;
+            case EASE_IN_OUT:
+                return t < 0.5 ? 4.0 * t * t * t : 1.0 - Math.pow(-2.0 * t + 2.0, 3) / 2.0;
+            default:
+                return t;
+        }
+    }
+
+    /**
+     * Parse an easing name from config (e.g. "ease-in-out")
+     * @param name Easing name
+     * @return Easing, or LINEAR if unknown
+     */
+    public static Easing fromString(String name) {
+        if (name == null) {
+            return LINEAR;
+        }
+
+        try {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return LINEAR;
+        }
+    }
+}
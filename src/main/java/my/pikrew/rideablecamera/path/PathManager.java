@@ -0,0 +1,269 @@
+package my.pikrew.rideablecamera.path;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Loads cinematic camera paths and plays them back
+ * Paths are sampled when they are loaded, playback only reads the samples
+ */
+public class PathManager {
+
+    // Path names become config keys, so no dots, spaces or upper case
+    private static final Pattern NAME = Pattern.compile("[a-z0-9_-]+");
+
+    private final RideableCameraPlugin plugin;
+    private final Map<String, CameraPath> paths;
+    private final List<PathPlayback> playbacks;
+    private BukkitTask playbackTask;
+
+    public PathManager(RideableCameraPlugin plugin) {
+        this.plugin = plugin;
+        this.paths = new HashMap<>();
+        this.playbacks = new ArrayList<>();
+    }
+
+    /**
+     * Take the paths sampled by the current config snapshot
+     */
+    public void loadPaths() {
+        paths.clear();
+        paths.putAll(plugin.getConfigManager().getSnapshot().paths());
+
+        plugin.getLogger().info("Loaded " + paths.size() + " camera path(s)");
+    }
+
+    /**
+     * Sample all paths of a config section
+     * Safe to call off the main thread
+     * @param section Paths section, may be null
+     * @param warnings List to add skipped paths to
+     * @return Sampled paths by lower case name
+     */
+    public static Map<String, CameraPath> compilePaths(ConfigurationSection section, List<String> warnings) {
+        Map<String, CameraPath> compiled = new HashMap<>();
+        if (section == null) {
+            return compiled;
+        }
+
+        for (String name : section.getKeys(false)) {
+            ConfigurationSection pathSection = section.getConfigurationSection(name);
+            if (pathSection == null) {
+                continue;
+            }
+
+            try {
+                compiled.put(name.toLowerCase(), compile(name, pathSection));
+            } catch (IllegalArgumentException e) {
+                warnings.add("Skipping camera path " + name + ": " + e.getMessage());
+            }
+        }
+
+        return compiled;
+    }
+
+    /**
+     * Turn a typed path name into its config key
+     * @param name Path name as typed
+     * @return Lower case name, or null if it contains anything but a-z, 0-9, _ and -
+     */
+    public static String normalizeName(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        return NAME.matcher(key).matches() ? key : null;
+    }
+
+    /**
+     * Add a control point to a path and resample it
+     * Creates the path if it doesn't exist yet
+     * @param name Path name, already normalized
+     * @param location Control point
+     * @return Number of control points, negated if the path can't be sampled yet
+     */
+    public int addPoint(String name, Location location) {
+        List<String> points = plugin.getConfigManager().addPathPoint(
+                name,
+                location.getWorld().getName(),
+                formatPoint(location.getX(), location.getY(), location.getZ())
+        );
+
+        ConfigurationSection pathSection = plugin.getConfigManager().getPathsSection().getConfigurationSection(name);
+        try {
+            paths.put(name, compile(name, pathSection));
+        } catch (IllegalArgumentException e) {
+            return -points.size();
+        }
+
+        return points.size();
+    }
+
+    /**
+     * Play a path for a group of players
+     * Players already watching a path are moved to the new one
+     * @param name Path name
+     * @param players Viewers
+     * @return true if started
+     */
+    public boolean play(String name, Collection<Player> players) {
+        CameraPath path = paths.get(name.toLowerCase());
+        if (path == null || players.isEmpty()) {
+            return false;
+        }
+
+        World world = Bukkit.getWorld(path.getWorldName());
+        if (world == null) {
+            plugin.getLogger().warning("World " + path.getWorldName() + " of camera path " + name + " is not loaded");
+            return false;
+        }
+
+        for (Player player : players) {
+            stop(player);
+        }
+
+        playbacks.add(new PathPlayback(path, world, players));
+        startPlaybackTask();
+        return true;
+    }
+
+    /**
+     * Stop path playback for a player
+     * @param player The viewer
+     * @return true if the player was watching a path
+     */
+    public boolean stop(Player player) {
+        for (PathPlayback playback : playbacks) {
+            if (playback.removeViewer(player)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if a player is watching a path
+     * @param uuid Player UUID
+     * @return true if watching
+     */
+    public boolean isPlaying(UUID uuid) {
+        for (PathPlayback playback : playbacks) {
+            if (playback.hasViewer(uuid)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stop all playbacks
+     */
+    public void stopAll() {
+        for (PathPlayback playback : playbacks) {
+            playback.stop();
+        }
+        playbacks.clear();
+
+        if (playbackTask != null) {
+            playbackTask.cancel();
+            playbackTask = null;
+        }
+    }
+
+    /**
+     * Get the names of all loaded paths
+     * @return Path names
+     */
+    public Set<String> getPathNames() {
+        return new TreeSet<>(paths.keySet());
+    }
+
+    /**
+     * Start the playback task if it isn't running
+     * The task stops itself once no playbacks are left
+     */
+    private void startPlaybackTask() {
+        if (playbackTask != null) {
+            return;
+        }
+
+        playbackTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                playbacks.removeIf(playback -> !playback.tick());
+
+                if (playbacks.isEmpty()) {
+                    cancel();
+                    playbackTask = null;
+                }
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    /**
+     * Sample a path from its config section
+     */
+    private static CameraPath compile(String name, ConfigurationSection section) {
+        List<String> points = section.getStringList("points");
+        double[] x = new double[points.size()];
+        double[] y = new double[points.size()];
+        double[] z = new double[points.size()];
+
+        for (int i = 0; i < points.size(); i++) {
+            double[] point = parsePoint(points.get(i));
+            x[i] = point[0];
+            y[i] = point[1];
+            z[i] = point[2];
+        }
+
+        String lookAt = section.getString("look-at");
+
+        return CameraPath.compile(
+                name,
+                section.getString("world", "world"),
+                x, y, z,
+                SplineType.fromString(section.getString("type")),
+                Easing.fromString(section.getString("easing")),
+                lookAt == null || lookAt.isEmpty() ? null : parsePoint(lookAt),
+                section.getInt("duration", 200)
+        );
+    }
+
+    /**
+     * Parse an "x,y,z" point
+     */
+    private static double[] parsePoint(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("invalid point '" + value + "', expected x,y,z");
+        }
+
+        try {
+            return new double[]{
+                    Double.parseDouble(parts[0].trim()),
+                    Double.parseDouble(parts[1].trim()),
+                    Double.parseDouble(parts[2].trim())
+            };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid point '" + value + "', expected x,y,z");
+        }
+    }
+
+    private static String formatPoint(double x, double y, double z) {
+        return String.format(Locale.ROOT, "%.2f,%.2f,%.2f", x, y, z);
+    }
+}
@@ -0,0 +1,140 @@
+package my.pikrew.rideablecamera.path;
+
+import my.pikrew.rideablecamera.camera.impl.ArmorStandCamera;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Plays one camera path for a group of players
+ * All viewers spectate a single anchor that is moved once per tick
+ */
+public class PathPlayback {
+
+    private final CameraPath path;
+    private final ArmorStand anchor;
+    private final Location cursor;
+    private final Map<UUID, Viewer> viewers;
+    private int tick;
+
+    /**
+     * Original viewer data (for restoration)
+     */
+    private static class Viewer {
+
+        private final GameMode gameMode;
+        private final Location location;
+
+        private Viewer(Player player) {
+            this.gameMode = player.getGameMode();
+            this.location = player.getLocation().clone();
+        }
+    }
+
+    public PathPlayback(CameraPath path, World world, Collection<Player> players) {
+        this.path = path;
+        this.cursor = path.getPose(0, new Location(world, 0, 0, 0));
+        this.anchor = ArmorStandCamera.spawnAnchor(cursor);
+        this.viewers = new LinkedHashMap<>();
+
+        for (Player player : players) {
+            viewers.put(player.getUniqueId(), new Viewer(player));
+            player.setGameMode(GameMode.SPECTATOR);
+            player.teleport(cursor);
+            player.setSpectatorTarget(anchor);
+        }
+    }
+
+    /**
+     * Advance the playback by one tick
+     * @return false once the path is finished
+     */
+    public boolean tick() {
+        tick++;
+
+        if (tick > path.getDurationTicks() || viewers.isEmpty() || !anchor.isValid()) {
+            stop();
+            return false;
+        }
+
+        anchor.teleport(path.getPose(tick, cursor));
+
+        // Keep viewers locked onto the anchor
+        Iterator<Map.Entry<UUID, Viewer>> iterator = viewers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Player player = Bukkit.getPlayer(iterator.next().getKey());
+
+            if (player == null || !player.isOnline()) {
+                iterator.remove();
+                continue;
+            }
+
+            if (player.getSpectatorTarget() != anchor) {
+                player.setSpectatorTarget(anchor);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Stop the playback and restore all viewers
+     */
+    public void stop() {
+        for (Map.Entry<UUID, Viewer> entry : viewers.entrySet()) {
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player != null && player.isOnline()) {
+                restore(player, entry.getValue());
+            }
+        }
+        viewers.clear();
+
+        if (anchor.isValid()) {
+            anchor.remove();
+        }
+    }
+
+    /**
+     * Take a single viewer out of the playback
+     * @param player The viewer
+     * @return true if the player was watching this path
+     */
+    public boolean removeViewer(Player player) {
+        Viewer viewer = viewers.remove(player.getUniqueId());
+
+        if (viewer == null) {
+            return false;
+        }
+
+        restore(player, viewer);
+        return true;
+    }
+
+    /**
+     * Check if a player is watching this path
+     * @param uuid Player UUID
+     * @return true if watching
+     */
+    public boolean hasViewer(UUID uuid) {
+        return viewers.containsKey(uuid);
+    }
+
+    public CameraPath getPath() {
+        return path;
+    }
+
+    private void restore(Player player, Viewer viewer) {
+        player.setSpectatorTarget(null);
+        player.setGameMode(viewer.gameMode);
+        player.teleport(viewer.location);
+    }
+}
@@ -0,0 +1,83 @@
+package my.pikrew.rideablecamera.path;
+
+/**
+ * Spline used to interpolate camera path control points
+ */
+public enum SplineType {
+
+    /**
+     * Passes through every control point
+     */
+    CATMULL_ROM,
+
+    /**
+     * Chain of cubic Bezier curves, needs 3n+1 control points
+     */
+    BEZIER;
+
+    /**
+     * Get the number of curve segments for a set of control points
+     * @param points Number of control points
+     * @return Segment count
+     */
+    public int getSegmentCount(int points) {
+        return this == BEZIER ? (points - 1) / 3 : points - 1;
+    }
+
+    /**
+     * Check if a number of control points is valid for this spline
+     * @param points Number of control points
+     * @return true if valid
+     */
+    public boolean isValid(int points) {
+        return this == BEZIER ? points >= 4 && (points - 1) % 3 == 0 : points >= 2;
+    }
+
+    /**
+     * Evaluate one axis of a segment
+     * @param p Control point values for this axis
+     * @param segment Segment index
+     * @param u Position in the segment from 0 to 1
+     * @return Interpolated value
+     */
+    public double evaluate(double[] p, int segment, double u) {
+        if (this == BEZIER) {
+            int i = segment * 3;
+            double inv = 1.0 - u;
+            return inv * inv * inv * p[i]
+                    + 3.0 * inv * inv * u * p[i + 1]
+                    + 3.0 * inv * u * u * p[i + 2]
+                    + u * u * u * p[i + 3];
+        }
+
+        // Uniform Catmull-Rom, end points are duplicated
+        double p0 = p[Math.max(segment - 1, 0)];
+        double p1 = p[segment];
+        double p2 = p[segment + 1];
+        double p3 = p[Math.min(segment + 2, p.length - 1)];
+        double u2 = u * u;
+        double u3 = u2 * u;
+
+        return 0.5 * (2.0 * p1
+                + (-p0 + p2) * u
+                + (2.0 * p0 - 5.0 * p1 + 4.0 * p2 - p3) * u2
+                + (-p0 + 3.0 * p1 - 3.0 * p2 + p3) * u3);
+    }
+
+    /**
+     * Parse a spline name from config (e.g. "catmull-rom")
+     * @param name Spline name
+     * @return Spline type, or CATMULL_ROM if unknown
+     */
+    public static SplineType fromString(String name) {
+        if (name == null) {
+            return CATMULL_ROM;
+        }
+
+        try {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return CATMULL_ROM;
+        }
+    }
+}
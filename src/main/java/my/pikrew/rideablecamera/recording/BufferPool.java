@@ -0,0 +1,55 @@
+package my.pikrew.rideablecamera.recording;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of direct byte buffers shared by recorders and the async writer
+ */
+public class BufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<ByteBuffer> pool;
+    private final AtomicInteger pooled;
+
+    public BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+        this.pool = new ConcurrentLinkedQueue<>();
+        this.pooled = new AtomicInteger();
+    }
+
+    /**
+     * Take a cleared buffer, allocating one if the pool is empty
+     * @return Buffer ready for writing
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = pool.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        pooled.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to the pool
+     * Buffers over the pool limit are left to the GC
+     * @param buffer Buffer to return
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() != bufferSize) {
+            return;
+        }
+
+        if (pooled.incrementAndGet() <= maxPooled) {
+            pool.offer(buffer);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+}
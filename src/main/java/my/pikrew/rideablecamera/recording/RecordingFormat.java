@@ -0,0 +1,56 @@
+package my.pikrew.rideablecamera.recording;
+
+/**
+ * Binary layout of camera recordings (.rcam)
+ *
+ * Header: magic, version, start time, tick rate, world name, player name
+ * Frames: varint tick delta, change mask, then zigzag varlong deltas for
+ * every changed field. Ticks where nothing changed are not written.
+ * Equipment types are indices into a palette built up by the stream itself:
+ * the first use of a material is followed by its namespaced key, so a
+ * recording survives server updates that reorder the Material enum.
+ */
+public class RecordingFormat {
+
+    public static final int MAGIC = 0x5243414D; // "RCAM"
+    public static final byte VERSION = 2;
+    public static final String EXTENSION = ".rcam";
+
+    // Positions are stored in 1/4096 block units
+    public static final double POSITION_SCALE = 4096.0;
+
+    // Angles are stored in 1/65536 of a turn
+    public static final double ANGLE_SCALE = 65536.0 / 360.0;
+
+    // Frame change mask bits
+    public static final int BODY_POSITION = 0x01;
+    public static final int BODY_ROTATION = 0x02;
+    public static final int CAMERA_POSITION = 0x04;
+    public static final int CAMERA_ROTATION = 0x08;
+    public static final int STATE_FLAGS = 0x10;
+    public static final int EQUIPMENT = 0x20;
+
+    // Mask value marking the end of the stream
+    public static final int END_OF_STREAM = 0xFF;
+
+    // State flag bits
+    public static final int FLAG_SNEAKING = 0x01;
+    public static final int FLAG_SPRINTING = 0x02;
+    public static final int FLAG_ON_GROUND = 0x04;
+    public static final int FLAG_FLYING = 0x08;
+
+    // Equipment slots in recording order
+    public static final int SLOT_MAINHAND = 0;
+    public static final int SLOT_OFFHAND = 1;
+    public static final int SLOT_HEAD = 2;
+    public static final int SLOT_CHEST = 3;
+    public static final int SLOT_LEGS = 4;
+    public static final int SLOT_FEET = 5;
+    public static final int SLOT_COUNT = 6;
+
+    // Longest material key written, longer keys are recorded as empty
+    public static final int MAX_KEY_BYTES = 128;
+
+    // Worst case size of a single frame
+    public static final int MAX_FRAME_BYTES = 5 + 1 + 10 * 10 + 1 + 1 + SLOT_COUNT * (11 + 2 + MAX_KEY_BYTES);
+}
@@ -0,0 +1,271 @@
+package my.pikrew.rideablecamera.recording;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.camera.ICameraImplementation;
+import my.pikrew.rideablecamera.models.CameraSession;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Manages camera session recordings and replays
+ */
+public class RecordingManager {
+
+    // 64 KB per buffer, roughly 4000 moving frames
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 32;
+
+    private final RideableCameraPlugin plugin;
+    private final File recordingsFolder;
+    private final BufferPool bufferPool;
+    private final RecordingWriter writer;
+    private final Map<UUID, SessionRecorder> recorders;
+    private final List<ReplayPlayback> playbacks;
+    private BukkitTask replayTask;
+
+    public RecordingManager(RideableCameraPlugin plugin) {
+        this.plugin = plugin;
+        this.recordingsFolder = new File(plugin.getDataFolder(), "recordings");
+        this.bufferPool = new BufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+        this.writer = new RecordingWriter(plugin.getLogger(), bufferPool);
+        this.recorders = new HashMap<>();
+        this.playbacks = new ArrayList<>();
+
+        if (!recordingsFolder.exists()) {
+            recordingsFolder.mkdirs();
+        }
+    }
+
+    /**
+     * Start recording a player's camera session
+     * @param player The player
+     * @return Recording name, or null if already recording
+     */
+    public String startRecording(Player player) {
+        if (recorders.containsKey(player.getUniqueId())) {
+            return null;
+        }
+
+        String name = player.getName() + "-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        Path path = new File(recordingsFolder, name + RecordingFormat.EXTENSION).toPath();
+
+        SessionRecorder recorder = new SessionRecorder(
+                player.getUniqueId(),
+                player.getName(),
+                player.getWorld().getName(),
+                bufferPool,
+                writer,
+                writer.open(path)
+        );
+        recorders.put(player.getUniqueId(), recorder);
+
+        return name;
+    }
+
+    /**
+     * Stop recording a player's camera session
+     * @param uuid Player UUID
+     * @return true if a recording was stopped
+     */
+    public boolean stopRecording(UUID uuid) {
+        SessionRecorder recorder = recorders.remove(uuid);
+        if (recorder == null) {
+            return false;
+        }
+
+        recorder.finish();
+        plugin.getLogger().info("Saved recording " + recorder.getTarget().getPath().getFileName()
+                + " (" + recorder.getTicks() + " ticks, " + recorder.getFrames() + " frames)");
+        return true;
+    }
+
+    /**
+     * Check if a player's session is being recorded
+     * @param uuid Player UUID
+     * @return true if recording
+     */
+    public boolean isRecording(UUID uuid) {
+        return recorders.containsKey(uuid);
+    }
+
+    /**
+     * Capture one tick of a session if it's being recorded
+     * Called from the camera update task after the session was updated
+     * @param session The session
+     * @param player The player
+     * @param cameraImpl Implementation that owns the session
+     */
+    public void capture(CameraSession session, Player player, ICameraImplementation cameraImpl) {
+        if (recorders.isEmpty()) {
+            return;
+        }
+
+        SessionRecorder recorder = recorders.get(session.getPlayerUUID());
+        if (recorder == null) {
+            return;
+        }
+
+        Location body = cameraImpl.getBodyLocation(session);
+        if (body == null) {
+            return;
+        }
+
+        Entity anchor = session.getAnchorEntity();
+        Location camera = anchor != null && anchor.isValid() ? anchor.getLocation() : player.getLocation();
+
+        int flags = 0;
+        if (player.isSneaking()) flags |= RecordingFormat.FLAG_SNEAKING;
+        if (player.isSprinting()) flags |= RecordingFormat.FLAG_SPRINTING;
+        if (player.isFlying()) flags |= RecordingFormat.FLAG_FLYING;
+        if (player.isOnGround()) flags |= RecordingFormat.FLAG_ON_GROUND;
+
+        recorder.capture(body, camera, flags, player.getInventory());
+    }
+
+    /**
+     * Start replaying a recording
+     * @param name Recording name
+     * @param viewers Players who will see the replay
+     * @return true if started
+     */
+    public boolean startReplay(String name, List<Player> viewers) {
+        File file = resolve(name);
+        if (file == null || !file.isFile() || viewers.isEmpty()) {
+            return false;
+        }
+
+        try {
+            playbacks.add(new ReplayPlayback(plugin, name, file.toPath(), viewers));
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to open recording " + name + ": " + e.getMessage());
+            return false;
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to start replay " + name);
+            e.printStackTrace();
+            return false;
+        }
+
+        startReplayTask();
+        return true;
+    }
+
+    /**
+     * Stop all replays shown to a viewer
+     * @param viewer The viewer
+     * @return Number of replays stopped
+     */
+    public int stopReplays(Player viewer) {
+        int stopped = 0;
+
+        Iterator<ReplayPlayback> iterator = playbacks.iterator();
+        while (iterator.hasNext()) {
+            ReplayPlayback playback = iterator.next();
+            if (playback.getViewers().contains(viewer)) {
+                playback.stop();
+                iterator.remove();
+                stopped++;
+            }
+        }
+
+        return stopped;
+    }
+
+    /**
+     * List saved recordings
+     * @return Recording names
+     */
+    public List<String> getRecordingNames() {
+        List<String> names = new ArrayList<>();
+        String[] files = recordingsFolder.list();
+
+        if (files != null) {
+            for (String file : files) {
+                if (file.endsWith(RecordingFormat.EXTENSION)) {
+                    names.add(file.substring(0, file.length() - RecordingFormat.EXTENSION.length()));
+                }
+            }
+        }
+
+        return names;
+    }
+
+    /**
+     * Stop all recordings and replays, then flush pending writes
+     */
+    public void shutdown() {
+        for (UUID uuid : new ArrayList<>(recorders.keySet())) {
+            stopRecording(uuid);
+        }
+
+        for (ReplayPlayback playback : playbacks) {
+            playback.stop();
+        }
+        playbacks.clear();
+
+        if (replayTask != null) {
+            replayTask.cancel();
+            replayTask = null;
+        }
+
+        writer.shutdown();
+    }
+
+    /**
+     * Resolve a recording name to its file
+     * @param name Recording name as typed
+     * @return File inside the recordings folder, or null if the name points elsewhere
+     */
+    private File resolve(String name) {
+        try {
+            File file = new File(recordingsFolder, name + RecordingFormat.EXTENSION).getCanonicalFile();
+            return recordingsFolder.getCanonicalFile().equals(file.getParentFile()) ? file : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Start the replay task if it isn't running
+     * The task stops itself once no replays are left
+     */
+    private void startReplayTask() {
+        if (replayTask != null) {
+            return;
+        }
+
+        replayTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                playbacks.removeIf(playback -> {
+                    try {
+                        return !playback.tick();
+                    } catch (Exception e) {
+                        plugin.getLogger().warning("Replay " + playback.getName() + " failed: " + e.getMessage());
+                        playback.stop();
+                        return true;
+                    }
+                });
+
+                if (playbacks.isEmpty()) {
+                    cancel();
+                    replayTask = null;
+                }
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+}
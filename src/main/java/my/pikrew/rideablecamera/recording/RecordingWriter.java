@@ -0,0 +1,214 @@
+package my.pikrew.rideablecamera.recording;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Writes recording buffers to disk on a single background thread
+ * The main thread only hands over filled buffers and never touches the file.
+ * At most MAX_PENDING_BUFFERS wait for the disk; a recording that would go
+ * over is cut off at the last whole buffer instead of growing the queue
+ */
+public class RecordingWriter {
+
+    // 4 MB of 64 KB buffers
+    private static final int MAX_PENDING_BUFFERS = 64;
+
+    // Room for the buffers plus the open and close tasks around them
+    private static final int MAX_QUEUED_TASKS = MAX_PENDING_BUFFERS * 2;
+
+    private final Logger logger;
+    private final BufferPool bufferPool;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger pendingBuffers;
+
+    public RecordingWriter(Logger logger, BufferPool bufferPool) {
+        this.logger = logger;
+        this.bufferPool = bufferPool;
+        this.pendingBuffers = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(MAX_QUEUED_TASKS), runnable -> {
+            Thread thread = new Thread(runnable, "RideableCamera-RecordingWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Tasks put straight into the queue need a thread already waiting on it
+        this.executor.prestartCoreThread();
+    }
+
+    /**
+     * Handle to an open recording file
+     * Only ever touched from the writer thread
+     */
+    public static class Target {
+
+        private final Path path;
+        private FileChannel channel;
+        private boolean failed;
+
+        // Set on the main thread once a buffer had to be dropped
+        private boolean dropped;
+
+        private Target(Path path) {
+            this.path = path;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+    }
+
+    /**
+     * Open a recording file
+     * @param path File to create
+     * @return Target handle for later writes
+     */
+    public Target open(Path path) {
+        Target target = new Target(path);
+
+        submit(target, () -> {
+            try {
+                target.channel = FileChannel.open(path,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                target.failed = true;
+                logger.warning("Failed to open recording " + path.getFileName() + ": " + e.getMessage());
+            }
+        });
+
+        return target;
+    }
+
+    /**
+     * Write a filled buffer, then return it to the pool
+     * @param target Recording file
+     * @param buffer Buffer in write mode (flipped by the writer)
+     */
+    public void write(Target target, ByteBuffer buffer) {
+        if (target.dropped || pendingBuffers.incrementAndGet() > MAX_PENDING_BUFFERS) {
+            if (!target.dropped) {
+                pendingBuffers.decrementAndGet();
+                drop(target);
+            }
+            bufferPool.release(buffer);
+            return;
+        }
+
+        buffer.flip();
+
+        boolean queued = submit(target, () -> {
+            try {
+                if (!target.failed && target.channel != null) {
+                    while (buffer.hasRemaining()) {
+                        target.channel.write(buffer);
+                    }
+                }
+            } catch (IOException e) {
+                target.failed = true;
+                logger.warning("Failed to write recording " + target.path.getFileName() + ": " + e.getMessage());
+            } finally {
+                pendingBuffers.decrementAndGet();
+                bufferPool.release(buffer);
+            }
+        });
+
+        if (!queued) {
+            pendingBuffers.decrementAndGet();
+            bufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Close a recording file after all pending writes
+     * Never dropped: with the queue full this waits for room, the channel
+     * would leak otherwise
+     * @param target Recording file
+     */
+    public void close(Target target) {
+        Runnable task = () -> {
+            if (target.channel == null) {
+                return;
+            }
+
+            try {
+                target.channel.force(false);
+                target.channel.close();
+            } catch (IOException e) {
+                logger.warning("Failed to close recording " + target.path.getFileName() + ": " + e.getMessage());
+            }
+        };
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                // The writer thread is done, nothing else touches the channel any more
+                task.run();
+                return;
+            }
+
+            try {
+                // Still after every write queued for this recording
+                executor.getQueue().put(task);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                task.run();
+            }
+        }
+    }
+
+    /**
+     * Queue a task for the writer thread
+     * @return false if the queue is full and the recording was cut off
+     */
+    private boolean submit(Target target, Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            if (!target.dropped) {
+                drop(target);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Stop writing a recording that the disk can't keep up with
+     */
+    private void drop(Target target) {
+        target.dropped = true;
+        logger.warning("Recording writer is falling behind, " + target.path.getFileName()
+                + " was cut off at the last written frame");
+    }
+
+    /**
+     * Finish all pending writes and stop the writer thread
+     * Only called on plugin disable
+     */
+    public void shutdown() {
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("Recording writer did not finish in time, some recordings may be truncated");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
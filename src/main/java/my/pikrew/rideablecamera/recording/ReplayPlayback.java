@@ -0,0 +1,331 @@
+package my.pikrew.rideablecamera.recording;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.nms.FakePlayerEntity;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static my.pikrew.rideablecamera.recording.RecordingFormat.*;
+
+/**
+ * Plays a recording back to a set of viewers as fake player packets
+ * The file is memory-mapped and decoded one frame at a time
+ */
+public class ReplayPlayback {
+
+    private static final EquipmentSlot[] SLOTS = {
+            EquipmentSlot.HAND, EquipmentSlot.OFF_HAND, EquipmentSlot.HEAD,
+            EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET
+    };
+
+    private final RideableCameraPlugin plugin;
+    private final String name;
+    private final MappedByteBuffer data;
+    private final List<Player> viewers;
+
+    // Header
+    private final long recordedAt;
+    private final UUID playerUUID;
+    private final String playerName;
+    private final World world;
+
+    // Decoder state
+    private long tick;
+    private long nextFrameTick;
+    private int nextMask;
+    private boolean finished;
+
+    // Decoded state (quantised)
+    private long bodyX, bodyY, bodyZ;
+    private int bodyYaw, bodyPitch;
+    private long cameraX, cameraY, cameraZ;
+    private int cameraYaw, cameraPitch;
+    private int flags;
+
+    // Materials by palette index, null where the key is unknown to this server
+    private final List<Material> palette = new ArrayList<>();
+
+    // Body shown to the viewers
+    private FakePlayerEntity body;
+
+    /**
+     * Open a recording for playback
+     * @param plugin Plugin instance
+     * @param name Recording name
+     * @param path Recording file
+     * @param viewers Players who will see the replay
+     * @throws IOException if the file can't be read or isn't a recording
+     */
+    public ReplayPlayback(RideableCameraPlugin plugin, String name, Path path, List<Player> viewers) throws IOException {
+        this.plugin = plugin;
+        this.name = name;
+        this.viewers = new ArrayList<>(viewers);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (data.getInt() != MAGIC) {
+                throw new IOException("Not a camera recording: " + path.getFileName());
+            }
+            if (data.get() != VERSION) {
+                throw new IOException("Unsupported recording version: " + path.getFileName());
+            }
+
+            this.recordedAt = data.getLong();
+            this.playerUUID = new UUID(data.getLong(), data.getLong());
+            String worldName = getString();
+            this.playerName = getString();
+
+            World recordedWorld = Bukkit.getWorld(worldName);
+            this.world = recordedWorld != null ? recordedWorld : this.viewers.get(0).getWorld();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated recording: " + path.getFileName());
+        }
+
+        readFrameHeader();
+    }
+
+    /**
+     * Advance the replay by one tick
+     * @return false once the replay is over
+     */
+    public boolean tick() {
+        if (finished) {
+            return false;
+        }
+
+        tick++;
+        viewers.removeIf(viewer -> !viewer.isOnline());
+
+        try {
+            while (!finished && nextFrameTick <= tick) {
+                applyFrame(nextMask);
+                readFrameHeader();
+            }
+        } catch (BufferUnderflowException e) {
+            // Recording was cut short (e.g. server crash), play what we have
+            finished = true;
+        }
+
+        if (finished || viewers.isEmpty()) {
+            stop();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Stop the replay and remove the body for all viewers
+     */
+    public void stop() {
+        finished = true;
+
+        if (body != null) {
+            for (Player viewer : viewers) {
+                if (viewer.isOnline()) {
+                    body.despawn(viewer);
+                }
+            }
+            body = null;
+        }
+    }
+
+    /**
+     * Read the tick delta and change mask of the next frame
+     */
+    private void readFrameHeader() {
+        if (!data.hasRemaining()) {
+            finished = true;
+            return;
+        }
+
+        int delta = VarInts.readVarInt(data);
+        int mask = data.get() & 0xFF;
+
+        if (mask == END_OF_STREAM) {
+            finished = true;
+            return;
+        }
+
+        nextFrameTick += delta;
+        nextMask = mask;
+    }
+
+    /**
+     * Decode the body of a frame and send it to the viewers
+     */
+    private void applyFrame(int mask) {
+        boolean moved = false;
+        boolean rotated = false;
+
+        if ((mask & BODY_POSITION) != 0) {
+            bodyX += VarInts.readSignedVarLong(data);
+            bodyY += VarInts.readSignedVarLong(data);
+            bodyZ += VarInts.readSignedVarLong(data);
+            moved = true;
+        }
+
+        if ((mask & BODY_ROTATION) != 0) {
+            bodyYaw = (bodyYaw + (int) VarInts.readSignedVarLong(data)) & 0xFFFF;
+            bodyPitch = (bodyPitch + (int) VarInts.readSignedVarLong(data)) & 0xFFFF;
+            rotated = true;
+        }
+
+        if ((mask & CAMERA_POSITION) != 0) {
+            cameraX += VarInts.readSignedVarLong(data);
+            cameraY += VarInts.readSignedVarLong(data);
+            cameraZ += VarInts.readSignedVarLong(data);
+        }
+
+        if ((mask & CAMERA_ROTATION) != 0) {
+            cameraYaw = (cameraYaw + (int) VarInts.readSignedVarLong(data)) & 0xFFFF;
+            cameraPitch = (cameraPitch + (int) VarInts.readSignedVarLong(data)) & 0xFFFF;
+        }
+
+        boolean flagsChanged = false;
+        if ((mask & STATE_FLAGS) != 0) {
+            flags = data.get() & 0xFF;
+            flagsChanged = true;
+        }
+
+        // Spawn on the first frame with a position
+        if (body == null) {
+            if (!moved) {
+                readEquipment(mask);
+                return;
+            }
+
+            body = new FakePlayerEntity(plugin, getBodyLocation(), playerName, playerUUID);
+            for (Player viewer : viewers) {
+                body.spawn(viewer);
+            }
+            moved = false;
+            rotated = false;
+        }
+
+        boolean onGround = (flags & FLAG_ON_GROUND) != 0;
+
+        if (moved) {
+            body.move(getBodyLocation(), onGround, viewers);
+        } else if (rotated) {
+            body.rotate(toDegrees(bodyYaw), toDegrees(bodyPitch), viewers);
+        }
+
+        if (flagsChanged) {
+            body.setSneaking((flags & FLAG_SNEAKING) != 0, viewers);
+            body.setSprinting((flags & FLAG_SPRINTING) != 0, viewers);
+        }
+
+        if (readEquipment(mask)) {
+            body.updateEquipment(viewers);
+        }
+    }
+
+    /**
+     * Read the equipment entries of a frame
+     * Palette entries are always read, items are only applied once the body exists
+     * @return true if equipment was applied to the body
+     */
+    private boolean readEquipment(int mask) {
+        if ((mask & EQUIPMENT) == 0) {
+            return false;
+        }
+
+        int slots = data.get() & 0xFF;
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if ((slots & (1 << slot)) != 0) {
+                int type = VarInts.readVarInt(data) - 1;
+                if (type == palette.size()) {
+                    palette.add(toMaterial(getString()));
+                }
+                int amount = VarInts.readVarInt(data);
+                if (body != null) {
+                    body.setEquipment(SLOTS[slot], toItem(type, amount));
+                }
+            }
+        }
+        return body != null;
+    }
+
+    private Location getBodyLocation() {
+        return new Location(world,
+                bodyX / POSITION_SCALE, bodyY / POSITION_SCALE, bodyZ / POSITION_SCALE,
+                toDegrees(bodyYaw), toDegrees(bodyPitch));
+    }
+
+    private String getString() {
+        byte[] bytes = new byte[VarInts.readVarInt(data)];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static float toDegrees(int angle) {
+        float degrees = (float) (angle / ANGLE_SCALE);
+        return degrees >= 180.0F ? degrees - 360.0F : degrees;
+    }
+
+    private ItemStack toItem(int type, int amount) {
+        if (type < 0 || type >= palette.size() || palette.get(type) == null || amount <= 0) {
+            return null;
+        }
+        return new ItemStack(palette.get(type), amount);
+    }
+
+    private static Material toMaterial(String key) {
+        NamespacedKey namespacedKey = NamespacedKey.fromString(key);
+        return namespacedKey != null ? Registry.MATERIAL.get(namespacedKey) : null;
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    public long getRecordedAt() {
+        return recordedAt;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public List<Player> getViewers() {
+        return viewers;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Get the recorded camera position for the current tick
+     * @return Camera location
+     */
+    public Location getCameraLocation() {
+        return new Location(world,
+                cameraX / POSITION_SCALE, cameraY / POSITION_SCALE, cameraZ / POSITION_SCALE,
+                toDegrees(cameraYaw), toDegrees(cameraPitch));
+    }
+}
@@ -0,0 +1,277 @@
+package my.pikrew.rideablecamera.recording;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static my.pikrew.rideablecamera.recording.RecordingFormat.*;
+
+/**
+ * Records one camera session into a delta-encoded frame stream
+ * Runs on the main thread; filled buffers are handed to the async writer
+ */
+public class SessionRecorder {
+
+    // Equipment is only compared every 10 ticks
+    private static final int EQUIPMENT_INTERVAL = 10;
+
+    private final UUID playerUUID;
+    private final BufferPool bufferPool;
+    private final RecordingWriter writer;
+    private final RecordingWriter.Target target;
+    private ByteBuffer buffer;
+
+    // Tick bookkeeping
+    private long tick;
+    private long lastFrameTick;
+    private int frames;
+
+    // Last written state (quantised)
+    private long bodyX, bodyY, bodyZ;
+    private int bodyYaw, bodyPitch;
+    private long cameraX, cameraY, cameraZ;
+    private int cameraYaw, cameraPitch;
+    private int flags = -1;
+    private final int[] equipmentTypes = new int[SLOT_COUNT];
+    private final int[] equipmentAmounts = new int[SLOT_COUNT];
+
+    // Material palette, keys are written to the stream on first use
+    private final Map<Material, Integer> palette = new HashMap<>();
+    private final List<byte[]> paletteKeys = new ArrayList<>();
+    private int paletteWritten;
+
+    public SessionRecorder(UUID playerUUID, String playerName, String worldName,
+                           BufferPool bufferPool, RecordingWriter writer, RecordingWriter.Target target) {
+        this.playerUUID = playerUUID;
+        this.bufferPool = bufferPool;
+        this.writer = writer;
+        this.target = target;
+        this.buffer = bufferPool.acquire();
+
+        Arrays.fill(equipmentTypes, -1);
+
+        // Write header
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putLong(playerUUID.getMostSignificantBits());
+        buffer.putLong(playerUUID.getLeastSignificantBits());
+        putString(worldName);
+        putString(playerName);
+    }
+
+    /**
+     * Capture one tick of the session
+     * Nothing is written when nothing changed
+     * @param body Body location
+     * @param camera Camera location
+     * @param stateFlags State flag bits
+     * @param inventory Owner inventory, for equipment changes
+     */
+    public void capture(Location body, Location camera, int stateFlags, PlayerInventory inventory) {
+        tick++;
+
+        long bx = quantisePosition(body.getX());
+        long by = quantisePosition(body.getY());
+        long bz = quantisePosition(body.getZ());
+        int byaw = quantiseAngle(body.getYaw());
+        int bpitch = quantiseAngle(body.getPitch());
+        long cx = quantisePosition(camera.getX());
+        long cy = quantisePosition(camera.getY());
+        long cz = quantisePosition(camera.getZ());
+        int cyaw = quantiseAngle(camera.getYaw());
+        int cpitch = quantiseAngle(camera.getPitch());
+
+        int mask = 0;
+        if (bx != bodyX || by != bodyY || bz != bodyZ) mask |= BODY_POSITION;
+        if (byaw != bodyYaw || bpitch != bodyPitch) mask |= BODY_ROTATION;
+        if (cx != cameraX || cy != cameraY || cz != cameraZ) mask |= CAMERA_POSITION;
+        if (cyaw != cameraYaw || cpitch != cameraPitch) mask |= CAMERA_ROTATION;
+        if (stateFlags != flags) mask |= STATE_FLAGS;
+
+        int changedSlots = 0;
+        if (tick % EQUIPMENT_INTERVAL == 1) {
+            changedSlots = pollEquipment(inventory);
+            if (changedSlots != 0) mask |= EQUIPMENT;
+        }
+
+        if (mask == 0) {
+            return;
+        }
+
+        ensureCapacity();
+
+        VarInts.writeVarInt(buffer, (int) (tick - lastFrameTick));
+        buffer.put((byte) mask);
+        lastFrameTick = tick;
+        frames++;
+
+        if ((mask & BODY_POSITION) != 0) {
+            VarInts.writeSignedVarLong(buffer, bx - bodyX);
+            VarInts.writeSignedVarLong(buffer, by - bodyY);
+            VarInts.writeSignedVarLong(buffer, bz - bodyZ);
+            bodyX = bx;
+            bodyY = by;
+            bodyZ = bz;
+        }
+
+        if ((mask & BODY_ROTATION) != 0) {
+            VarInts.writeSignedVarLong(buffer, (short) (byaw - bodyYaw));
+            VarInts.writeSignedVarLong(buffer, (short) (bpitch - bodyPitch));
+            bodyYaw = byaw;
+            bodyPitch = bpitch;
+        }
+
+        if ((mask & CAMERA_POSITION) != 0) {
+            VarInts.writeSignedVarLong(buffer, cx - cameraX);
+            VarInts.writeSignedVarLong(buffer, cy - cameraY);
+            VarInts.writeSignedVarLong(buffer, cz - cameraZ);
+            cameraX = cx;
+            cameraY = cy;
+            cameraZ = cz;
+        }
+
+        if ((mask & CAMERA_ROTATION) != 0) {
+            VarInts.writeSignedVarLong(buffer, (short) (cyaw - cameraYaw));
+            VarInts.writeSignedVarLong(buffer, (short) (cpitch - cameraPitch));
+            cameraYaw = cyaw;
+            cameraPitch = cpitch;
+        }
+
+        if ((mask & STATE_FLAGS) != 0) {
+            buffer.put((byte) stateFlags);
+            flags = stateFlags;
+        }
+
+        if ((mask & EQUIPMENT) != 0) {
+            buffer.put((byte) changedSlots);
+            for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                if ((changedSlots & (1 << slot)) != 0) {
+                    int type = equipmentTypes[slot];
+                    VarInts.writeVarInt(buffer, type + 1);
+                    if (type >= paletteWritten) {
+                        // New palette entries are always used in order
+                        putBytes(paletteKeys.get(type));
+                        paletteWritten = type + 1;
+                    }
+                    VarInts.writeVarInt(buffer, equipmentAmounts[slot]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finish the stream and close the file
+     */
+    public void finish() {
+        ensureCapacity();
+        VarInts.writeVarInt(buffer, 0);
+        buffer.put((byte) END_OF_STREAM);
+
+        writer.write(target, buffer);
+        writer.close(target);
+        buffer = null;
+    }
+
+    public UUID getPlayerUUID() {
+        return playerUUID;
+    }
+
+    public RecordingWriter.Target getTarget() {
+        return target;
+    }
+
+    public long getTicks() {
+        return tick;
+    }
+
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * Compare equipment against the last written state
+     * @return Bit mask of changed slots
+     */
+    private int pollEquipment(PlayerInventory inventory) {
+        int changed = 0;
+        changed |= pollSlot(SLOT_MAINHAND, inventory.getItemInMainHand());
+        changed |= pollSlot(SLOT_OFFHAND, inventory.getItemInOffHand());
+        changed |= pollSlot(SLOT_HEAD, inventory.getHelmet());
+        changed |= pollSlot(SLOT_CHEST, inventory.getChestplate());
+        changed |= pollSlot(SLOT_LEGS, inventory.getLeggings());
+        changed |= pollSlot(SLOT_FEET, inventory.getBoots());
+        return changed;
+    }
+
+    private int pollSlot(int slot, ItemStack item) {
+        int type = item == null ? -1 : paletteIndex(item.getType());
+        int amount = type < 0 ? 0 : item.getAmount();
+
+        if (type == equipmentTypes[slot] && amount == equipmentAmounts[slot]) {
+            return 0;
+        }
+
+        equipmentTypes[slot] = type;
+        equipmentAmounts[slot] = amount;
+        return 1 << slot;
+    }
+
+    /**
+     * Get the palette index of a material, adding it on first use
+     * @return Index, or -1 if the key is too long to record
+     */
+    private int paletteIndex(Material material) {
+        Integer index = palette.get(material);
+        if (index != null) {
+            return index;
+        }
+
+        byte[] key = material.getKey().toString().getBytes(StandardCharsets.UTF_8);
+        if (key.length > MAX_KEY_BYTES) {
+            return -1;
+        }
+
+        index = paletteKeys.size();
+        palette.put(material, index);
+        paletteKeys.add(key);
+        return index;
+    }
+
+    /**
+     * Hand the current buffer to the writer if the next frame might not fit
+     */
+    private void ensureCapacity() {
+        if (buffer.remaining() < MAX_FRAME_BYTES) {
+            writer.write(target, buffer);
+            buffer = bufferPool.acquire();
+        }
+    }
+
+    private void putString(String value) {
+        putBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void putBytes(byte[] bytes) {
+        VarInts.writeVarInt(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static long quantisePosition(double value) {
+        return Math.round(value * POSITION_SCALE);
+    }
+
+    private static int quantiseAngle(float degrees) {
+        return (int) Math.round(degrees * ANGLE_SCALE) & 0xFFFF;
+    }
+}
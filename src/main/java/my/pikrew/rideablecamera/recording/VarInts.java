@@ -0,0 +1,71 @@
+package my.pikrew.rideablecamera.recording;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Variable-length integer encoding (LEB128 with zigzag for signed values)
+ * Small deltas take a single byte
+ */
+public class VarInts {
+
+    /**
+     * Write an unsigned varint
+     * @param buffer Target buffer
+     * @param value Value (treated as unsigned)
+     */
+    public static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Write a signed value as a zigzag varlong
+     * @param buffer Target buffer
+     * @param value Signed value
+     */
+    public static void writeSignedVarLong(ByteBuffer buffer, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        buffer.put((byte) zigzag);
+    }
+
+    /**
+     * Read an unsigned varint
+     * @param buffer Source buffer
+     * @return Value
+     */
+    public static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0 && shift < 35);
+        return value;
+    }
+
+    /**
+     * Read a zigzag varlong
+     * @param buffer Source buffer
+     * @return Signed value
+     */
+    public static long readSignedVarLong(ByteBuffer buffer) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0 && shift < 70);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
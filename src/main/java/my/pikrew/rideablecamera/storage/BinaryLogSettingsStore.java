@@ -0,0 +1,184 @@
+package my.pikrew.rideablecamera.storage;
+
+import my.pikrew.rideablecamera.models.CameraSettings;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Append-only binary log of camera settings
+ * Every save appends fixed-size records; the log is rewritten with only the
+ * latest record per player once it grows well past the number of players
+ */
+public class BinaryLogSettingsStore implements SettingsStore {
+
+    // UUID (16) + distance, height, side offset, smoothness (4 x 8)
+    private static final int RECORD_SIZE = 16 + 4 * 8;
+
+    // Compact once the log holds this many stale records
+    private static final int COMPACT_THRESHOLD = 1024;
+
+    private final Path file;
+    private final Logger logger;
+    private final Map<UUID, double[]> index;
+    private FileChannel channel;
+    private int records;
+
+    public BinaryLogSettingsStore(Path file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+        this.index = new HashMap<>();
+    }
+
+    @Override
+    public void open() throws IOException {
+        if (Files.exists(file)) {
+            replay();
+        }
+
+        channel = FileChannel.open(file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public CameraSettings load(UUID uuid) {
+        double[] values = index.get(uuid);
+        if (values == null) {
+            return null;
+        }
+
+        return CameraSettings.of(values[0], values[1], values[2], values[3]);
+    }
+
+    @Override
+    public void saveAll(Map<UUID, CameraSettings> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * batch.size());
+        for (Map.Entry<UUID, CameraSettings> entry : batch.entrySet()) {
+            double[] values = toValues(entry.getValue());
+            putRecord(buffer, entry.getKey(), values);
+            index.put(entry.getKey(), values);
+        }
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        records += batch.size();
+
+        if (records - index.size() > COMPACT_THRESHOLD && records > index.size() * 2) {
+            compact();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+
+        if (records > index.size()) {
+            compact();
+        }
+
+        channel.force(false);
+        channel.close();
+        channel = null;
+    }
+
+    @Override
+    public String getName() {
+        return "binary log";
+    }
+
+    /**
+     * Rebuild the index from the log
+     * A torn record at the end (crash during write) is cut off
+     */
+    private void replay() throws IOException {
+        try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = reader.size();
+            long valid = size - (size % RECORD_SIZE);
+            ByteBuffer buffer = ByteBuffer.allocate((int) valid);
+            while (buffer.hasRemaining() && reader.read(buffer) >= 0) {
+                // Read the whole log, it's only a few bytes per player
+            }
+            buffer.flip();
+
+            while (buffer.remaining() >= RECORD_SIZE) {
+                UUID uuid = new UUID(buffer.getLong(), buffer.getLong());
+                double[] values = new double[4];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = buffer.getDouble();
+                }
+                index.put(uuid, values);
+                records++;
+            }
+
+            if (valid != size) {
+                logger.warning("Settings log had a partial record at the end, truncating");
+                reader.truncate(valid);
+            }
+        }
+    }
+
+    /**
+     * Rewrite the log with one record per player
+     * Written to a temp file first and moved over the log atomically
+     */
+    private void compact() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel writer = FileChannel.open(temp,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * Math.max(1, index.size()));
+            for (Map.Entry<UUID, double[]> entry : index.entrySet()) {
+                putRecord(buffer, entry.getKey(), entry.getValue());
+            }
+
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                writer.write(buffer);
+            }
+            writer.force(false);
+        }
+
+        channel.close();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        records = index.size();
+    }
+
+    private static void putRecord(ByteBuffer buffer, UUID uuid, double[] values) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+        for (double value : values) {
+            buffer.putDouble(value);
+        }
+    }
+
+    private static double[] toValues(CameraSettings settings) {
+        return new double[]{
+                settings.getDistance(),
+                settings.getHeight(),
+                settings.getSideOffset(),
+                settings.getSmoothness()
+        };
+    }
+}
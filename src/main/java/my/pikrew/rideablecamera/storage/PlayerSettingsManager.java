@@ -0,0 +1,237 @@
+package my.pikrew.rideablecamera.storage;
+
+import my.pikrew.rideablecamera.RideableCameraPlugin;
+import my.pikrew.rideablecamera.models.CameraSettings;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Per-player camera settings with a write-behind cache
+ * Settings are loaded during pre-login, changes are kept in memory and
+ * written in batches on the storage thread
+ */
+public class PlayerSettingsManager {
+
+    // Give up on a slow load after this long and use the defaults
+    private static final long LOAD_TIMEOUT_SECONDS = 5;
+
+    private final RideableCameraPlugin plugin;
+    private final SettingsStore store;
+    private final ExecutorService executor;
+    private final Map<UUID, CameraSettings> cache;
+    private final Set<UUID> dirty;
+    private BukkitTask flushTask;
+    private volatile boolean available;
+
+    public PlayerSettingsManager(RideableCameraPlugin plugin) {
+        this.plugin = plugin;
+        this.cache = new ConcurrentHashMap<>();
+        this.dirty = ConcurrentHashMap.newKeySet();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RideableCamera-Storage");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Choose backend based on config
+        String type = plugin.getConfigManager().getSnapshot().storageType();
+        if (type.equals("sqlite")) {
+            this.store = new SqliteSettingsStore(new File(plugin.getDataFolder(), "settings.db").toPath());
+        } else {
+            this.store = new BinaryLogSettingsStore(new File(plugin.getDataFolder(), "settings.log").toPath(),
+                    plugin.getLogger());
+        }
+    }
+
+    /**
+     * Open the store on the storage thread and start the flush task
+     */
+    public void start() {
+        // Players already online after /reload never pass pre-login
+        List<UUID> online = new ArrayList<>();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            online.add(player.getUniqueId());
+        }
+
+        executor.execute(() -> {
+            try {
+                store.open();
+                available = true;
+                plugin.getLogger().info("Player settings storage: " + store.getName());
+
+                for (UUID uuid : online) {
+                    CameraSettings settings = store.load(uuid);
+                    if (settings != null) {
+                        cache.putIfAbsent(uuid, settings);
+                    }
+                }
+            } catch (IOException e) {
+                plugin.getLogger().severe("Failed to open player settings storage, settings won't be saved: "
+                        + e.getMessage());
+            }
+        });
+
+        long interval = plugin.getConfigManager().getSnapshot().storageFlushInterval() * 20L;
+        flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::flush,
+                interval, interval);
+    }
+
+    /**
+     * Load a player's settings into the cache
+     * Called from the async pre-login thread, so it may block there
+     * @param uuid Player UUID
+     */
+    public void preload(UUID uuid) {
+        if (cache.containsKey(uuid)) {
+            return;
+        }
+
+        Future<CameraSettings> future = executor.submit(() -> available ? store.load(uuid) : null);
+
+        try {
+            CameraSettings settings = future.get(LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (settings != null) {
+                cache.putIfAbsent(uuid, settings);
+            }
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            plugin.getLogger().warning("Loading camera settings for " + uuid + " timed out, using defaults");
+        } catch (ExecutionException e) {
+            plugin.getLogger().warning("Failed to load camera settings for " + uuid + ": " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the settings a player's session should start with
+     * @param player The player
+     * @return Shared CameraSettings instance
+     */
+    public CameraSettings getSettings(Player player) {
+        CameraSettings settings = plugin.getConfigManager().getDefaultCameraSettings();
+        CameraSettings saved = cache.get(player.getUniqueId());
+
+        return saved != null ? settings.withCameraValues(saved) : settings;
+    }
+
+    /**
+     * Remember a player's settings, they are written on the next flush
+     * @param uuid Player UUID
+     * @param settings New settings
+     */
+    public void saveSettings(UUID uuid, CameraSettings settings) {
+        cache.put(uuid, settings);
+        dirty.add(uuid);
+    }
+
+    /**
+     * Write a player's pending changes and drop them from the cache
+     * @param uuid Player UUID
+     */
+    public void unload(UUID uuid) {
+        CameraSettings settings = cache.remove(uuid);
+
+        if (settings != null && dirty.remove(uuid)) {
+            Map<UUID, CameraSettings> batch = new HashMap<>();
+            batch.put(uuid, settings);
+            write(batch);
+        }
+    }
+
+    /**
+     * Write all pending changes in one batch
+     * Safe to call from any thread
+     */
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, CameraSettings> batch = new HashMap<>();
+        for (UUID uuid : dirty) {
+            dirty.remove(uuid);
+            CameraSettings settings = cache.get(uuid);
+            if (settings != null) {
+                batch.put(uuid, settings);
+            }
+        }
+
+        write(batch);
+    }
+
+    /**
+     * Flush pending changes and close the store
+     * Waits for the storage thread so nothing is lost on shutdown
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+
+        flush();
+
+        executor.execute(() -> {
+            try {
+                store.close();
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to close player settings storage: " + e.getMessage());
+            }
+        });
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Player settings storage did not finish in time");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queue a batch on the storage thread
+     */
+    private void write(Map<UUID, CameraSettings> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        executor.execute(() -> {
+            if (!available) {
+                return;
+            }
+
+            try {
+                store.saveAll(batch);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to save camera settings: " + e.getMessage());
+                // Retry on the next flush for players still online, newer cached changes win
+                for (UUID uuid : batch.keySet()) {
+                    if (cache.containsKey(uuid)) {
+                        dirty.add(uuid);
+                    }
+                }
+            }
+        });
+    }
+}
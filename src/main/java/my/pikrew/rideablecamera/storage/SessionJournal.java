@@ -0,0 +1,303 @@
+package my.pikrew.rideablecamera.storage;
+
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal of camera sessions
+ * A start record with the player's original state is appended when a
+ * session begins and an end record when it is cleanly torn down. After a
+ * crash the sessions without an end record tell us which players have to
+ * be restored when they join again.
+ * Appends are queued and written by one background thread, which commits
+ * everything queued so far with a single fsync
+ */
+public class SessionJournal {
+
+    private static final byte TYPE_START = 1;
+    private static final byte TYPE_END = 2;
+
+    // Type (1) + player UUID (16) + game mode (1) + world UUID (16)
+    // + x, y, z (3 x 8) + yaw, pitch (2 x 4) + flying (1) + CRC32 (4)
+    private static final int RECORD_SIZE = 1 + 16 + 1 + 16 + 3 * 8 + 2 * 4 + 1 + 4;
+
+    // Handed to the writer thread to make it stop
+    private static final ByteBuffer STOP = ByteBuffer.allocate(0);
+
+    /**
+     * Original state of a player in a journaled session
+     *
+     * @param playerUUID Player UUID
+     * @param gameMode Game mode before the session
+     * @param world World UID before the session
+     * @param x X before the session
+     * @param y Y before the session
+     * @param z Z before the session
+     * @param yaw Yaw before the session
+     * @param pitch Pitch before the session
+     * @param flying Whether the player was flying
+     */
+    public record Entry(UUID playerUUID, GameMode gameMode, UUID world,
+                        double x, double y, double z, float yaw, float pitch, boolean flying) {
+
+        /**
+         * Capture a player's current state
+         * @param player The player
+         * @return Entry
+         */
+        public static Entry of(Player player) {
+            Location location = player.getLocation();
+            return new Entry(player.getUniqueId(), player.getGameMode(), location.getWorld().getUID(),
+                    location.getX(), location.getY(), location.getZ(),
+                    location.getYaw(), location.getPitch(), player.isFlying());
+        }
+    }
+
+    private final Path file;
+    private final Logger logger;
+
+    // Sessions without an end record, by player (main thread only)
+    private final Map<UUID, Entry> open;
+
+    private final BlockingQueue<ByteBuffer> queue;
+    private FileChannel channel;
+    private Thread writer;
+
+    public SessionJournal(Path file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+        this.open = new HashMap<>();
+        this.queue = new LinkedBlockingQueue<>();
+    }
+
+    /**
+     * Read the journal left by the last run and start the writer
+     * Sessions that never ended are kept until the player is restored
+     */
+    public void open() {
+        try {
+            if (Files.exists(file)) {
+                replay();
+            }
+
+            // Start from a journal holding only the unfinished sessions
+            compact();
+
+            channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warning("Failed to open session journal, crash recovery is disabled: " + e.getMessage());
+            return;
+        }
+
+        if (!open.isEmpty()) {
+            logger.info(open.size() + " camera session(s) did not end cleanly, players will be restored on join");
+        }
+
+        writer = new Thread(this::writeLoop, "RideableCamera-Journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Journal the start of a session
+     * @param entry Original player state
+     */
+    public void recordStart(Entry entry) {
+        open.put(entry.playerUUID(), entry);
+        append(encode(TYPE_START, entry));
+    }
+
+    /**
+     * Journal the end of a session, or of a restore after a crash
+     * @param playerUUID Player UUID
+     */
+    public void recordEnd(UUID playerUUID) {
+        Entry entry = open.remove(playerUUID);
+        if (entry != null) {
+            append(encode(TYPE_END, entry));
+        }
+    }
+
+    /**
+     * Get the unfinished session of a player from a previous run
+     * @param playerUUID Player UUID
+     * @return Entry, or null if there is nothing to restore
+     */
+    public Entry getOpenSession(UUID playerUUID) {
+        return open.get(playerUUID);
+    }
+
+    /**
+     * Stop the writer and rewrite the journal with only the unfinished sessions
+     * Called on clean shutdown, after all sessions have been ended
+     */
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+
+        queue.add(STOP);
+        try {
+            writer.join(10000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+
+        try {
+            channel.close();
+            compact();
+        } catch (IOException e) {
+            logger.warning("Failed to compact session journal: " + e.getMessage());
+        }
+    }
+
+    private void append(ByteBuffer record) {
+        if (writer != null) {
+            queue.add(record);
+        }
+    }
+
+    /**
+     * Write queued records in batches, one fsync per batch
+     */
+    private void writeLoop() {
+        List<ByteBuffer> batch = new ArrayList<>();
+
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch);
+
+            boolean stop = false;
+            try {
+                for (ByteBuffer record : batch) {
+                    if (record == STOP) {
+                        stop = true;
+                        break;
+                    }
+                    while (record.hasRemaining()) {
+                        channel.write(record);
+                    }
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                logger.warning("Failed to write session journal: " + e.getMessage());
+            }
+
+            batch.clear();
+            if (stop) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rebuild the unfinished sessions from the journal
+     * Reading stops at the first torn or corrupt record
+     */
+    private void replay() throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        CRC32 crc = new CRC32();
+
+        while (buffer.remaining() >= RECORD_SIZE) {
+            int start = buffer.position();
+            crc.reset();
+            crc.update(data, start, RECORD_SIZE - 4);
+            if ((int) crc.getValue() != buffer.getInt(start + RECORD_SIZE - 4)) {
+                logger.warning("Session journal has a corrupt record, ignoring the rest");
+                return;
+            }
+
+            byte type = buffer.get();
+            UUID player = new UUID(buffer.getLong(), buffer.getLong());
+            int gameMode = buffer.get();
+            UUID world = new UUID(buffer.getLong(), buffer.getLong());
+            double x = buffer.getDouble();
+            double y = buffer.getDouble();
+            double z = buffer.getDouble();
+            float yaw = buffer.getFloat();
+            float pitch = buffer.getFloat();
+            boolean flying = buffer.get() != 0;
+            buffer.getInt();
+
+            if (type == TYPE_END) {
+                open.remove(player);
+            } else if (type == TYPE_START && gameMode >= 0 && gameMode < GameMode.values().length) {
+                open.put(player, new Entry(player, GameMode.values()[gameMode], world,
+                        x, y, z, yaw, pitch, flying));
+            }
+        }
+    }
+
+    /**
+     * Rewrite the journal with the start records of unfinished sessions
+     * Written to a temp file first and moved over the journal atomically
+     */
+    private void compact() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel out = FileChannel.open(temp,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            for (Entry entry : open.values()) {
+                ByteBuffer record = encode(TYPE_START, entry);
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+            }
+            out.force(false);
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ByteBuffer encode(byte type, Entry entry) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.put(type);
+        buffer.putLong(entry.playerUUID().getMostSignificantBits());
+        buffer.putLong(entry.playerUUID().getLeastSignificantBits());
+        buffer.put((byte) entry.gameMode().ordinal());
+        buffer.putLong(entry.world().getMostSignificantBits());
+        buffer.putLong(entry.world().getLeastSignificantBits());
+        buffer.putDouble(entry.x());
+        buffer.putDouble(entry.y());
+        buffer.putDouble(entry.z());
+        buffer.putFloat(entry.yaw());
+        buffer.putFloat(entry.pitch());
+        buffer.put((byte) (entry.flying() ? 1 : 0));
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, RECORD_SIZE - 4);
+        buffer.putInt((int) crc.getValue());
+
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,47 @@
+package my.pikrew.rideablecamera.storage;
+
+import my.pikrew.rideablecamera.models.CameraSettings;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Backend for per-player camera settings
+ * Only ever called from the storage thread, never from the main thread
+ */
+public interface SettingsStore {
+
+    /**
+     * Open the store
+     * @throws IOException if the store can't be opened
+     */
+    void open() throws IOException;
+
+    /**
+     * Load a player's settings
+     * @param uuid Player UUID
+     * @return Stored settings or null if none were saved
+     * @throws IOException on read errors
+     */
+    CameraSettings load(UUID uuid) throws IOException;
+
+    /**
+     * Save a batch of settings
+     * @param batch Settings by player UUID
+     * @throws IOException on write errors
+     */
+    void saveAll(Map<UUID, CameraSettings> batch) throws IOException;
+
+    /**
+     * Flush and close the store
+     * @throws IOException on write errors
+     */
+    void close() throws IOException;
+
+    /**
+     * Get the name of this backend
+     * @return Backend name
+     */
+    String getName();
+}
@@ -0,0 +1,130 @@
+package my.pikrew.rideablecamera.storage;
+
+import my.pikrew.rideablecamera.models.CameraSettings;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Camera settings stored in an embedded SQLite database
+ * Uses the SQLite driver bundled with the server
+ */
+public class SqliteSettingsStore implements SettingsStore {
+
+    private final Path file;
+    private Connection connection;
+
+    public SqliteSettingsStore(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void open() throws IOException {
+        try {
+            Class.forName("org.sqlite.JDBC");
+            connection = DriverManager.getConnection("jdbc:sqlite:" + file.toAbsolutePath());
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("CREATE TABLE IF NOT EXISTS camera_settings ("
+                        + "uuid CHAR(36) PRIMARY KEY, "
+                        + "distance DOUBLE NOT NULL, "
+                        + "height DOUBLE NOT NULL, "
+                        + "side_offset DOUBLE NOT NULL, "
+                        + "smoothness DOUBLE NOT NULL)");
+            }
+        } catch (ClassNotFoundException | SQLException e) {
+            throw new IOException("Failed to open settings database", e);
+        }
+    }
+
+    @Override
+    public CameraSettings load(UUID uuid) throws IOException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT distance, height, side_offset, smoothness FROM camera_settings WHERE uuid = ?")) {
+            statement.setString(1, uuid.toString());
+
+            try (ResultSet result = statement.executeQuery()) {
+                if (!result.next()) {
+                    return null;
+                }
+
+                return CameraSettings.of(
+                        result.getDouble(1),
+                        result.getDouble(2),
+                        result.getDouble(3),
+                        result.getDouble(4)
+                );
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to load settings for " + uuid, e);
+        }
+    }
+
+    @Override
+    public void saveAll(Map<UUID, CameraSettings> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT OR REPLACE INTO camera_settings (uuid, distance, height, side_offset, smoothness) "
+                            + "VALUES (?, ?, ?, ?, ?)")) {
+                for (Map.Entry<UUID, CameraSettings> entry : batch.entrySet()) {
+                    CameraSettings settings = entry.getValue();
+                    statement.setString(1, entry.getKey().toString());
+                    statement.setDouble(2, settings.getDistance());
+                    statement.setDouble(3, settings.getHeight());
+                    statement.setDouble(4, settings.getSideOffset());
+                    statement.setDouble(5, settings.getSmoothness());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+            }
+            throw new IOException("Failed to save settings batch", e);
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (connection == null) {
+            return;
+        }
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new IOException("Failed to close settings database", e);
+        } finally {
+            connection = null;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "SQLite";
+    }
+}